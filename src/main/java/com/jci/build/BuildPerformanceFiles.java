@@ -0,0 +1,155 @@
+package com.jci.build;
+
+import com.jci.config.JciConfig;
+import com.jci.template.TemplateEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the build-tool files that back the build performance settings in {@link JciConfig.BuildConfig}.
+ * Existing files are merged rather than replaced so user customizations survive regeneration.
+ */
+public class BuildPerformanceFiles {
+
+    static final String BUILD_CACHE_EXTENSION = "maven-build-cache-extension";
+    static final String BUILD_CACHE_VERSION = "1.2.0";
+
+    private final TemplateEngine engine;
+
+    public BuildPerformanceFiles(TemplateEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Registers the Maven Build Cache Extension in .mvn/extensions.xml and writes its configuration.
+     *
+     * @return the files that were created or changed
+     */
+    public List<Path> writeMaven(Path projectPath, JciConfig.BuildConfig build, boolean force) throws IOException {
+        List<Path> written = new ArrayList<>();
+        if (!build.isBuildCache()) {
+            return written;
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("buildCacheVersion", BUILD_CACHE_VERSION);
+
+        Path mvnDir = projectPath.resolve(".mvn");
+        Path extensionsPath = mvnDir.resolve("extensions.xml");
+        String rendered = engine.render("maven/extensions.xml.mustache", context);
+        if (Files.exists(extensionsPath)) {
+            String existing = Files.readString(extensionsPath);
+            String merged = mergeExtension(existing, rendered);
+            if (!merged.equals(existing)) {
+                Files.writeString(extensionsPath, merged);
+                written.add(extensionsPath);
+            }
+        } else {
+            engine.renderToFile("maven/extensions.xml.mustache", context, extensionsPath);
+            written.add(extensionsPath);
+        }
+
+        Path cacheConfigPath = mvnDir.resolve("maven-build-cache-config.xml");
+        if (!Files.exists(cacheConfigPath) || force) {
+            engine.renderToFile("maven/maven-build-cache-config.xml.mustache", context, cacheConfigPath);
+            written.add(cacheConfigPath);
+        }
+
+        return written;
+    }
+
+    /**
+     * Adds the build cache extension element from {@code rendered} to an existing extensions.xml,
+     * leaving it unchanged when the extension is already declared.
+     */
+    static String mergeExtension(String existing, String rendered) {
+        if (existing.contains("<artifactId>" + BUILD_CACHE_EXTENSION + "</artifactId>")) {
+            return existing;
+        }
+
+        int closing = existing.lastIndexOf("</extensions>");
+        if (closing < 0) {
+            return rendered;
+        }
+
+        int start = rendered.indexOf("    <extension>");
+        int end = rendered.indexOf("</extension>") + "</extension>".length();
+        String block = rendered.substring(start, end) + "\n";
+        return existing.substring(0, closing) + block + existing.substring(closing);
+    }
+
+    /**
+     * Writes or merges gradle.properties with the parallel, build cache and configuration cache flags.
+     *
+     * @return the files that were created or changed
+     */
+    public List<Path> writeGradle(Path projectPath, JciConfig.BuildConfig build) throws IOException {
+        List<Path> written = new ArrayList<>();
+        Map<String, String> properties = gradleProperties(build);
+        if (properties.isEmpty()) {
+            return written;
+        }
+
+        Path propertiesPath = projectPath.resolve("gradle.properties");
+        String existing = Files.exists(propertiesPath) ? Files.readString(propertiesPath) : "";
+        String merged = mergeProperties(existing, properties);
+        if (!merged.equals(existing)) {
+            Files.writeString(propertiesPath, merged);
+            written.add(propertiesPath);
+        }
+        return written;
+    }
+
+    static Map<String, String> gradleProperties(JciConfig.BuildConfig build) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (build.isParallel()) {
+            properties.put("org.gradle.parallel", "true");
+        }
+        if (build.isBuildCache()) {
+            properties.put("org.gradle.caching", "true");
+        }
+        if (build.isConfigurationCache()) {
+            properties.put("org.gradle.configuration-cache", "true");
+        }
+        return properties;
+    }
+
+    /**
+     * Updates matching keys in place and appends missing ones, preserving comments and other entries.
+     */
+    static String mergeProperties(String existing, Map<String, String> properties) {
+        Map<String, String> remaining = new LinkedHashMap<>(properties);
+        StringBuilder sb = new StringBuilder();
+
+        if (!existing.isEmpty()) {
+            for (String line : existing.split("\n", -1)) {
+                String trimmed = line.trim();
+                int separator = trimmed.indexOf('=');
+                if (separator > 0 && !trimmed.startsWith("#")) {
+                    String key = trimmed.substring(0, separator).trim();
+                    if (remaining.containsKey(key)) {
+                        line = key + "=" + remaining.remove(key);
+                    }
+                }
+                sb.append(line).append("\n");
+            }
+            // split() keeps the empty segment after a trailing newline
+            sb.setLength(sb.length() - 1);
+        }
+
+        if (!remaining.isEmpty()) {
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '\n') {
+                sb.append("\n");
+            }
+            remaining.forEach((key, value) -> sb.append(key).append("=").append(value).append("\n"));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.jci.cli;
+
+import com.jci.config.JciConfig;
+import com.jci.detector.BuildToolDetector;
+import com.jci.detector.ModuleGraph;
+import com.jci.git.GitOperations;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+@Command(
+    name = "build",
+    description = "Build planning for multi-module projects",
+    subcommands = {
+        BuildCommand.AffectedCommand.class
+    }
+)
+public class BuildCommand implements Callable<Integer> {
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Spec
+    CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        // Stdout of 'affected' is consumed by CI, so only print the hint when no subcommand ran
+        if (!spec.commandLine().getParseResult().hasSubcommand()) {
+            System.out.println("Use 'jci build affected'");
+        }
+        return 0;
+    }
+
+    /**
+     * Prints build tool arguments limited to the modules affected by the current branch.
+     * Only the arguments go to stdout so CI can splice them into a build command; an empty
+     * line means the whole project should be built. When no module is affected (e.g. only
+     * docs changed) nothing is printed and the exit code is {@link #NOTHING_TO_BUILD}, so a
+     * caller cannot mistake it for a full build. With {@code --github-output} the result is
+     * printed as {@code args=} and {@code skip=} lines for {@code $GITHUB_OUTPUT} instead.
+     */
+    @Command(name = "affected", description = "Print build arguments for modules changed since a base ref")
+    public static class AffectedCommand implements Callable<Integer> {
+
+        static final int NOTHING_TO_BUILD = 3;
+
+        @ParentCommand
+        BuildCommand buildParent;
+
+        @Option(names = {"--base"}, description = "Base ref to diff against (default: git.mainBranch)")
+        String base;
+
+        @Option(names = {"--task"}, description = "Gradle task to run in each affected project (repeatable, default: build)")
+        List<String> tasks;
+
+        @Option(names = {"--github-output"}, description = "Print args=<arguments> and skip=<true|false> for $GITHUB_OUTPUT")
+        boolean githubOutput;
+
+        @Override
+        public Integer call() throws Exception {
+            JciCommand parent = buildParent.parent;
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+            Path configPath = projectPath.resolve(parent.getConfigPath());
+
+            String baseRef = base;
+            if (baseRef == null) {
+                baseRef = Files.exists(configPath) ? JciConfig.load(configPath).getGit().getMainBranch() : "main";
+            }
+
+            Optional<ModuleGraph> loaded = ModuleGraph.load(projectPath);
+            if (loaded.isEmpty()) {
+                System.err.println("No Maven or Gradle build found in " + projectPath);
+                return 1;
+            }
+            ModuleGraph graph = loaded.get();
+
+            GitOperations git = new GitOperations(projectPath);
+            if (!git.isGitRepository()) {
+                System.err.println("Not a git repository");
+                return 1;
+            }
+
+            List<String> changedFiles;
+            try {
+                changedFiles = git.changedFiles(baseRef);
+            } catch (Exception e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+
+            List<ModuleGraph.Module> affected = graph.affected(changedFiles);
+            if (parent.isVerbose()) {
+                System.err.println("Changed files since " + baseRef + ": " + changedFiles.size());
+                System.err.println("Affected modules: " + affected.size() + " of " + graph.getModules().size());
+                affected.forEach(module -> System.err.println("  " + module.id()));
+            }
+
+            boolean nothingToBuild = graph.isMultiModule() && affected.isEmpty();
+            String arguments = !graph.isMultiModule() || nothingToBuild
+                ? ""
+                : formatArguments(graph.getBuildTool(), affected, tasks);
+            if (githubOutput) {
+                System.out.println("args=" + arguments);
+                System.out.println("skip=" + nothingToBuild);
+                return 0;
+            }
+            if (nothingToBuild) {
+                System.err.println("Nothing to build: no module is affected by the changes since " + baseRef);
+                return NOTHING_TO_BUILD;
+            }
+            System.out.println(arguments);
+            return 0;
+        }
+    }
+
+    static String formatArguments(BuildToolDetector.BuildTool tool, List<ModuleGraph.Module> modules, List<String> tasks) {
+        if (tool == BuildToolDetector.BuildTool.MAVEN) {
+            return "-pl " + modules.stream().map(ModuleGraph.Module::id).collect(Collectors.joining(",")) + " -am";
+        }
+        List<String> gradleTasks = tasks == null || tasks.isEmpty() ? List.of("build") : tasks;
+        return modules.stream()
+            .flatMap(module -> gradleTasks.stream().map(task -> module.id() + ":" + task))
+            .collect(Collectors.joining(" "));
+    }
+}
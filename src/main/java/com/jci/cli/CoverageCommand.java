@@ -0,0 +1,281 @@
+package com.jci.cli;
+
+import com.jci.config.JciConfig;
+import com.jci.coverage.ChangedLines;
+import com.jci.coverage.Coverage;
+import com.jci.coverage.CoverageCounter;
+import com.jci.coverage.CoverageSummary;
+import com.jci.coverage.NewCodeCoverage;
+import com.jci.detector.ModuleGraph;
+import com.jci.git.GitOperations;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "coverage",
+    description = "Code coverage gates from JaCoCo reports",
+    subcommands = {
+        CoverageCommand.CheckCommand.class,
+        CoverageCommand.DiffCommand.class
+    }
+)
+public class CoverageCommand implements Callable<Integer> {
+
+    // Where the Maven plugin and the Gradle jacoco plugin write their XML reports
+    static final List<String> REPORT_PATHS = List.of(
+        "target/site/jacoco/jacoco.xml",
+        "target/site/jacoco-aggregate/jacoco.xml",
+        "build/reports/jacoco/test/jacocoTestReport.xml"
+    );
+
+    private static final List<CoverageCounter> SHOWN = List.of(
+        CoverageCounter.INSTRUCTION, CoverageCounter.BRANCH, CoverageCounter.LINE);
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Override
+    public Integer call() {
+        System.out.println("Use 'jci coverage check' or 'jci coverage diff'");
+        return 0;
+    }
+
+    /**
+     * Reports at the project root, or else one per module of a multi-module build.
+     */
+    static List<Path> findReports(Path projectPath) throws IOException {
+        for (String path : REPORT_PATHS) {
+            Path report = projectPath.resolve(path);
+            if (Files.isRegularFile(report)) {
+                return List.of(report);
+            }
+        }
+        List<Path> reports = new ArrayList<>();
+        Optional<ModuleGraph> graph = ModuleGraph.load(projectPath);
+        if (graph.isPresent()) {
+            for (ModuleGraph.Module module : graph.get().getModules()) {
+                for (String path : REPORT_PATHS) {
+                    Path report = projectPath.resolve(module.directory()).resolve(path);
+                    if (Files.isRegularFile(report)) {
+                        reports.add(report);
+                        break;
+                    }
+                }
+            }
+        }
+        return reports;
+    }
+
+    static CoverageCounter parseMetric(String metric) {
+        return switch (metric.toLowerCase(Locale.ROOT)) {
+            case "instruction" -> CoverageCounter.INSTRUCTION;
+            case "branch" -> CoverageCounter.BRANCH;
+            case "line" -> CoverageCounter.LINE;
+            default -> null;
+        };
+    }
+
+    static int minCoverage(JciCommand parent, Path projectPath, Integer min) throws IOException {
+        if (min != null) {
+            return min;
+        }
+        Path configPath = projectPath.resolve(parent.getConfigPath());
+        return Files.exists(configPath)
+            ? JciConfig.load(configPath).getWorkflows().getTest().getCoverage().getMinCoverage()
+            : 80;
+    }
+
+    static String percent(Coverage coverage) {
+        return Double.isNaN(coverage.percent()) ? "-" : String.format(Locale.ROOT, "%.2f%%", coverage.percent());
+    }
+
+    @Command(name = "check", description = "Fail when JaCoCo coverage is below workflows.test.coverage.minCoverage")
+    public static class CheckCommand implements Callable<Integer> {
+
+        @ParentCommand
+        CoverageCommand coverageParent;
+
+        @Option(names = {"-r", "--report"}, description = "JaCoCo XML report (repeatable; default: found in the project)")
+        List<Path> reports;
+
+        @Option(names = {"--min"}, description = "Minimum coverage in percent (default: workflows.test.coverage.minCoverage)")
+        Integer min;
+
+        @Option(names = {"--metric"}, description = "Counter the minimum applies to: instruction, branch, line", defaultValue = "instruction")
+        String metric;
+
+        @Option(names = {"--packages"}, description = "Also list per-package coverage, lowest first")
+        boolean showPackages;
+
+        @Override
+        public Integer call() throws Exception {
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+
+            CoverageCounter gated = parseMetric(metric);
+            if (gated == null) {
+                System.err.println("Invalid metric: " + metric + " (use instruction, branch or line)");
+                return 1;
+            }
+
+            List<Path> reportFiles = reports != null ? reports : findReports(projectPath);
+            if (reportFiles.isEmpty()) {
+                System.err.println("No JaCoCo XML report found. Run the tests with the JaCoCo report enabled "
+                    + "(mvn verify or ./gradlew test jacocoTestReport), or pass --report.");
+                return 1;
+            }
+
+            CoverageSummary summary;
+            try {
+                summary = CoverageSummary.read(reportFiles);
+            } catch (IOException e) {
+                System.err.println("Failed to read coverage report: " + e.getMessage());
+                return 1;
+            }
+
+            for (Path report : reportFiles) {
+                System.out.println("Report: " + (report.startsWith(projectPath) ? projectPath.relativize(report) : report));
+            }
+            for (CoverageCounter counter : SHOWN) {
+                Coverage coverage = summary.total(counter);
+                System.out.printf(Locale.ROOT, "  %-12s %8s  (%d of %d)%n", name(counter), percent(coverage),
+                    coverage.covered(), coverage.total());
+            }
+
+            if (showPackages && !summary.packages().isEmpty()) {
+                printPackages(summary, gated);
+            }
+
+            int minimum = minCoverage(coverageParent.parent, projectPath, min);
+            Coverage coverage = summary.total(gated);
+            if (coverage.total() == 0) {
+                System.err.println("Report has no " + name(gated).toLowerCase(Locale.ROOT) + " data");
+                return 1;
+            }
+            if (coverage.percent() < minimum) {
+                System.err.println(name(gated) + " coverage " + percent(coverage) + " is below the minimum of " + minimum + "%");
+                return 1;
+            }
+            System.out.println(name(gated) + " coverage " + percent(coverage) + " meets the minimum of " + minimum + "%");
+            return 0;
+        }
+
+        private void printPackages(CoverageSummary summary, CoverageCounter gated) {
+            List<String> names = new ArrayList<>(summary.packages().keySet());
+            names.sort(Comparator.comparingDouble((String name) -> {
+                double percent = summary.forPackage(name, gated).percent();
+                return Double.isNaN(percent) ? 101 : percent;
+            }).thenComparing(Comparator.naturalOrder()));
+            int width = Math.max("Package".length(), names.stream().mapToInt(String::length).max().orElse(0));
+            String row = "%-" + width + "s  %11s  %8s  %8s%n";
+
+            System.out.println();
+            System.out.printf(Locale.ROOT, row, "Package", "Instruction", "Branch", "Line");
+            for (String name : names) {
+                Map<CoverageCounter, Coverage> counters = summary.packages().get(name);
+                System.out.printf(Locale.ROOT, row, name,
+                    percent(counters.getOrDefault(CoverageCounter.INSTRUCTION, Coverage.EMPTY)),
+                    percent(counters.getOrDefault(CoverageCounter.BRANCH, Coverage.EMPTY)),
+                    percent(counters.getOrDefault(CoverageCounter.LINE, Coverage.EMPTY)));
+            }
+            System.out.println();
+        }
+
+        private static String name(CoverageCounter counter) {
+            String name = counter.name().toLowerCase(Locale.ROOT);
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+
+    @Command(name = "diff", description = "Fail when coverage of lines changed since the base branch is below the minimum")
+    public static class DiffCommand implements Callable<Integer> {
+
+        @ParentCommand
+        CoverageCommand coverageParent;
+
+        @Option(names = {"--base"}, description = "Base ref to diff against (default: git.mainBranch)")
+        String base;
+
+        @Option(names = {"-r", "--report"}, description = "JaCoCo XML report (repeatable; default: found in the project)")
+        List<Path> reports;
+
+        @Option(names = {"--min"}, description = "Minimum coverage of changed lines in percent (default: workflows.test.coverage.minCoverage)")
+        Integer min;
+
+        @Override
+        public Integer call() throws Exception {
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+            Path configPath = projectPath.resolve(coverageParent.parent.getConfigPath());
+            String baseRef = base != null ? base
+                : Files.exists(configPath) ? JciConfig.load(configPath).getGit().getMainBranch() : "main";
+
+            List<Path> reportFiles = reports != null ? reports : findReports(projectPath);
+            if (reportFiles.isEmpty()) {
+                System.err.println("No JaCoCo XML report found. Run the tests with the JaCoCo report enabled "
+                    + "(mvn verify or ./gradlew test jacocoTestReport), or pass --report.");
+                return 1;
+            }
+
+            ChangedLines changes = new ChangedLines();
+            List<NewCodeCoverage.FileCoverage> files;
+            try {
+                new GitOperations(projectPath).diff(baseRef, changes);
+                files = NewCodeCoverage.compute(changes, projectPath, reportFiles);
+            } catch (IOException e) {
+                System.err.println("Failed to compute changed-lines coverage: " + e.getMessage());
+                return 1;
+            }
+
+            System.out.println("Changed files: " + changes.files().size() + " (against " + baseRef + ")");
+            if (files.isEmpty()) {
+                System.out.println("No changed lines with coverage data");
+                return 0;
+            }
+
+            long covered = 0;
+            long total = 0;
+            for (NewCodeCoverage.FileCoverage file : files) {
+                covered += file.lines().covered();
+                total += file.lines().total();
+            }
+            printFiles(files);
+
+            int minimum = minCoverage(coverageParent.parent, projectPath, min);
+            Coverage coverage = new Coverage(total - covered, covered);
+            String summary = "Changed-lines coverage " + percent(coverage) + " (" + covered + " of " + total + " lines)";
+            if (coverage.percent() < minimum) {
+                System.err.println(summary + " is below the minimum of " + minimum + "%");
+                return 1;
+            }
+            System.out.println(summary + " meets the minimum of " + minimum + "%");
+            return 0;
+        }
+
+        private void printFiles(List<NewCodeCoverage.FileCoverage> files) {
+            List<NewCodeCoverage.FileCoverage> sorted = new ArrayList<>(files);
+            sorted.sort(Comparator.comparingDouble((NewCodeCoverage.FileCoverage file) -> file.lines().percent())
+                .thenComparing(NewCodeCoverage.FileCoverage::path));
+            int width = Math.max("File".length(), sorted.stream().mapToInt(file -> file.path().length()).max().orElse(0));
+            String row = "%-" + width + "s  %8s  %7s  %8s%n";
+
+            System.out.println();
+            System.out.printf(Locale.ROOT, row, "File", "Line", "Lines", "Branch");
+            for (NewCodeCoverage.FileCoverage file : sorted) {
+                System.out.printf(Locale.ROOT, row, file.path(), percent(file.lines()),
+                    file.lines().covered() + "/" + file.lines().total(), percent(file.branches()));
+            }
+            System.out.println();
+        }
+    }
+}
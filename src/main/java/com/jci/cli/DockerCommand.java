@@ -1,14 +1,23 @@
 package com.jci.cli;
 
+import com.jci.build.BuildPerformanceFiles;
 import com.jci.config.JciConfig;
+import com.jci.detector.BuildToolDetector;
+import com.jci.docker.JavaVersion;
+import com.jci.docker.JvmProfile;
+import com.jci.docker.StartupOptimization;
+import com.jci.template.GenerationManifest;
 import com.jci.template.TemplateEngine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 
@@ -45,15 +54,53 @@ public class DockerCommand implements Callable<Integer> {
         @Option(names = {"--port"}, description = "Application port (default: from config or 8080)")
         Integer port;
 
+        @Option(names = {"--layered"}, description = "Split the jar into dependency and application layers")
+        boolean layered;
+
+        @Option(names = {"--jlink"}, description = "Build a minimal jlink runtime instead of the full JRE image")
+        boolean jlink;
+
+        @Option(names = {"--runtime"}, description = "Runtime: jvm or native (default: from config or jvm)")
+        String runtime;
+
+        @Option(names = {"--from-artifact"}, description = "Copy a prebuilt jar instead of building inside the image")
+        boolean fromArtifact;
+
+        @Option(names = {"--cache-mounts"}, description = "Use BuildKit cache mounts for dependency downloads")
+        boolean cacheMounts;
+
+        @Option(names = {"--jvm-profile"}, description = "JVM tuning: latency, throughput, small-footprint, none (default: from config)")
+        String jvmProfile;
+
+        @Option(names = {"--startup-optimization"}, description = "Startup archive: none, cds, aot, auto (default: from config)")
+        String startupOptimization;
+
         @Option(names = {"-f", "--force"}, description = "Overwrite existing files")
         boolean force;
 
+        @Option(names = {"-w", "--watch"}, description = "Keep running and regenerate when the config or template overrides change")
+        boolean watch;
+
         @Override
         public Integer call() throws Exception {
             JciCommand parent = dockerParent.parent;
             Path projectPath = Path.of(System.getProperty("user.dir"));
             Path configPath = projectPath.resolve(parent.getConfigPath());
 
+            // One engine for the whole session, so compiled templates survive regenerations
+            TemplateEngine engine = TemplateEngine.forProject(projectPath);
+            int exitCode = generate(engine, projectPath, configPath, false);
+            if (!watch) {
+                return exitCode;
+            }
+            return WatchLoop.run(List.of(configPath), engine.getRoots(), () -> {
+                engine.refresh();
+                return generate(engine, projectPath, configPath, true);
+            });
+        }
+
+        private int generate(TemplateEngine engine, Path projectPath, Path configPath, boolean updateOutdated)
+                throws Exception {
             // Load config
             JciConfig config;
             if (Files.exists(configPath)) {
@@ -63,47 +110,118 @@ public class DockerCommand implements Callable<Integer> {
                 System.out.println("No config found, using defaults");
             }
 
-            TemplateEngine engine = new TemplateEngine();
+            String javaVersion = jdkVersion != null ? jdkVersion : config.getBuild().getJavaVersion();
+            boolean useLayers = layered || config.getDocker().isLayered();
+            boolean useArtifact = fromArtifact || config.getDocker().isFromArtifact();
+
+            // Validate startup optimization and JVM tuning flags against the target JDK
+            int javaFeature;
+            StartupOptimization startup;
+            JvmProfile profile;
+            List<String> profileOptions;
+            try {
+                javaFeature = JavaVersion.feature(javaVersion);
+                startup = StartupOptimization.resolve(
+                    startupOptimization != null ? startupOptimization : config.getDocker().getStartupOptimization(),
+                    javaVersion);
+                profile = JvmProfile.resolve(
+                    jvmProfile != null ? jvmProfile : config.getDocker().getJvmProfile(), javaVersion);
+                profileOptions = profile.options(javaVersion, config.getDocker().getActiveProcessorCount());
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+
+            // Native executables replace the JVM, so the JVM-only variants do not apply
+            String runtimeName = runtime != null ? runtime : config.getDocker().getRuntime();
+            if (!"jvm".equals(runtimeName) && !"native".equals(runtimeName)) {
+                System.err.println("Unknown runtime: " + runtimeName + " (expected jvm or native)");
+                return 1;
+            }
+            boolean nativeRuntime = "native".equals(runtimeName);
+            if (nativeRuntime) {
+                if (useLayers || jlink || config.getDocker().isJlink() || useArtifact
+                        || startup != StartupOptimization.NONE || !profileOptions.isEmpty()) {
+                    System.err.println("Native runtime cannot be combined with layered, jlink, "
+                        + "from-artifact, startup optimization or JVM tuning");
+                    return 1;
+                }
+                if (javaFeature < 17) {
+                    System.err.println("Native runtime requires Java 17+, configured: " + javaVersion);
+                    return 1;
+                }
+            }
+            String artifactId = null;
+            if (nativeRuntime && "maven".equals(config.getBuild().getTool())) {
+                artifactId = new BuildToolDetector().detect(projectPath)
+                    .map(BuildToolDetector.DetectionResult::projectName)
+                    .orElse("");
+                if (artifactId.isEmpty() || artifactId.contains("$")) {
+                    System.err.println("Native runtime needs the artifactId from pom.xml to name the executable, "
+                        + "but none was found");
+                    return 1;
+                }
+            }
+
+            List<String> jvmOptions = new ArrayList<>(startup.runtimeOptions());
 
             // Build context
             Map<String, Object> context = new HashMap<>();
-            context.put("javaVersion", jdkVersion != null ? jdkVersion : config.getBuild().getJavaVersion());
+            context.put("javaVersion", javaVersion);
             context.put("baseImage", baseImage);
             context.put("port", port != null ? port : config.getDocker().getPort());
             context.put("buildTool", config.getBuild().getTool());
             context.put("isMaven", "maven".equals(config.getBuild().getTool()));
             context.put("isGradle", "gradle".equals(config.getBuild().getTool()));
+            context.put("artifactId", artifactId);
+            context.put("layered", useLayers);
+            context.put("jlink", jlink || config.getDocker().isJlink());
+            String threads = config.getBuild().getThreads();
+            context.put("mavenThreads", threads == null || threads.isBlank() ? null : threads.trim());
+            context.put("fromArtifact", useArtifact);
+            // Cache mounts only apply to the in-image build stage
+            context.put("cacheMounts", !useArtifact && (cacheMounts || config.getDocker().isCacheMounts()));
+            context.put("jvmOptions", jvmOptions);
+            if (!profileOptions.isEmpty()) {
+                context.put("jvmProfile", profile.getName());
+                context.put("jvmToolOptions", String.join(" ", profileOptions));
+            }
+            if (startup != StartupOptimization.NONE) {
+                String launchTarget = useLayers ? "org.springframework.boot.loader.launch.JarLauncher" : "-jar app.jar";
+                context.put("startupTraining", true);
+                context.put("trainingCommand", startup.trainingCommand(launchTarget));
+                context.put("archiveFile", startup.getArchiveFile());
+            }
 
-            int generated = 0;
+            GenerationManifest manifest;
+            try {
+                manifest = GenerationManifest.load(projectPath);
+            } catch (IOException e) {
+                System.err.println("Failed to read " + GenerationManifest.FILE + ": " + e.getMessage());
+                return 1;
+            }
+            GeneratedFiles files = new GeneratedFiles(engine, projectPath, manifest, force, updateOutdated);
 
             // Generate Dockerfile
-            Path dockerfilePath = projectPath.resolve("Dockerfile");
-            if (Files.exists(dockerfilePath) && !force) {
-                System.out.println("Skipping Dockerfile (exists, use --force to overwrite)");
-            } else {
-                String templateName = "docker/Dockerfile." + config.getBuild().getTool() + ".mustache";
-                if (engine.templateExists(templateName)) {
-                    engine.renderToFile(templateName, context, dockerfilePath);
-                    System.out.println("Generated: Dockerfile");
-                    generated++;
-                } else {
-                    System.err.println("Template not found: " + templateName);
-                }
-            }
+            String dockerfileTemplate = nativeRuntime
+                ? "docker/Dockerfile.native.mustache"
+                : "docker/Dockerfile." + config.getBuild().getTool() + ".mustache";
+            files.generate(dockerfileTemplate, context, projectPath.resolve("Dockerfile"));
 
             // Generate .dockerignore
-            Path dockerignorePath = projectPath.resolve(".dockerignore");
-            if (Files.exists(dockerignorePath) && !force) {
-                System.out.println("Skipping .dockerignore (exists, use --force to overwrite)");
-            } else {
-                String templateName = "docker/dockerignore.mustache";
-                if (engine.templateExists(templateName)) {
-                    engine.renderToFile(templateName, context, dockerignorePath);
-                    System.out.println("Generated: .dockerignore");
-                    generated++;
-                } else {
-                    System.err.println("Template not found: " + templateName);
-                }
+            String dockerignoreTemplate = useArtifact ? "docker/dockerignore-artifact.mustache" : "docker/dockerignore.mustache";
+            files.generate(dockerignoreTemplate, context, projectPath.resolve(".dockerignore"));
+            files.finish();
+            int generated = files.count(GenerationManifest.Status.CREATED) + files.count(GenerationManifest.Status.UPDATED);
+
+            // Build tool files used by the builder stage (.mvn/ or gradle.properties)
+            BuildPerformanceFiles buildFiles = new BuildPerformanceFiles(engine);
+            List<Path> buildFilesWritten = "gradle".equals(config.getBuild().getTool())
+                ? buildFiles.writeGradle(projectPath, config.getBuild())
+                : buildFiles.writeMaven(projectPath, config.getBuild(), force);
+            for (Path written : buildFilesWritten) {
+                System.out.println("Generated: " + projectPath.relativize(written));
+                generated++;
             }
 
             System.out.println("Generated " + generated + " file(s)");
@@ -0,0 +1,108 @@
+package com.jci.cli;
+
+import com.jci.template.GenerationManifest;
+import com.jci.template.TemplateEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Renders templates to project files, using {@code .jci/generated.lock} to skip files whose
+ * template, context values and on-disk content are unchanged since the last run.
+ */
+class GeneratedFiles {
+
+    private final TemplateEngine engine;
+    private final Path projectPath;
+    private final GenerationManifest manifest;
+    private final boolean force;
+    private final boolean updateOutdated;
+    private final Map<GenerationManifest.Status, Integer> results = new EnumMap<>(GenerationManifest.Status.class);
+
+    /**
+     * @param updateOutdated also rewrite existing files without {@code force} when they are
+     *                       unmodified since jci generated them (used by {@code --watch})
+     */
+    GeneratedFiles(TemplateEngine engine, Path projectPath, GenerationManifest manifest,
+                   boolean force, boolean updateOutdated) {
+        this.engine = engine;
+        this.projectPath = projectPath;
+        this.manifest = manifest;
+        this.force = force;
+        this.updateOutdated = updateOutdated;
+    }
+
+    void generate(String templateName, Map<String, Object> context, Path outputPath) throws IOException {
+        if (!engine.templateExists(templateName)) {
+            System.err.println("Template not found: " + templateName);
+            return;
+        }
+
+        String relativePath = projectPath.relativize(outputPath).toString().replace('\\', '/');
+        String source = engine.templateSourceWithPartials(templateName);
+        String templateHash = GenerationManifest.hash(source);
+        String contextHash = GenerationManifest.contextHash(source, context);
+        GenerationManifest.Entry recorded = manifest.get(relativePath);
+
+        boolean exists = Files.exists(outputPath);
+        String diskHash = exists ? GenerationManifest.hash(Files.readAllBytes(outputPath)) : null;
+        boolean handModified = recorded != null && exists && !recorded.outputHash().equals(diskHash);
+
+        if (recorded != null && exists && !handModified
+            && recorded.templateHash().equals(templateHash) && recorded.contextHash().equals(contextHash)) {
+            System.out.println("Unchanged: " + relativePath);
+            record(GenerationManifest.Status.UNCHANGED);
+            return;
+        }
+
+        boolean generatedByUs = recorded != null && !handModified;
+        if (exists && !force && !(updateOutdated && generatedByUs)) {
+            String reason = handModified ? "modified by hand" : recorded != null ? "outdated" : "exists";
+            System.out.println("Skipping " + relativePath + " (" + reason + ", use --force to overwrite)");
+            if (handModified) {
+                record(GenerationManifest.Status.MODIFIED);
+            }
+            return;
+        }
+
+        String content = engine.render(templateName, context);
+        String outputHash = GenerationManifest.hash(content);
+        if (outputHash.equals(diskHash)) {
+            // Inputs changed but the output did not; leave the file and its mtime alone
+            System.out.println("Unchanged: " + relativePath);
+            record(GenerationManifest.Status.UNCHANGED);
+        } else {
+            engine.writeFile(outputPath, content);
+            if (!exists) {
+                System.out.println("Generated: " + relativePath);
+                record(GenerationManifest.Status.CREATED);
+            } else {
+                System.out.println((handModified ? "Updated (hand edits overwritten): " : "Updated: ") + relativePath);
+                record(GenerationManifest.Status.UPDATED);
+            }
+        }
+        manifest.put(relativePath, new GenerationManifest.Entry(templateHash, contextHash, outputHash));
+    }
+
+    int count(GenerationManifest.Status status) {
+        return results.getOrDefault(status, 0);
+    }
+
+    /**
+     * Writes the manifest and returns e.g. {@code 1 created, 0 updated, 3 unchanged, 0 hand-modified}.
+     */
+    String finish() throws IOException {
+        manifest.save();
+        return count(GenerationManifest.Status.CREATED) + " created, "
+            + count(GenerationManifest.Status.UPDATED) + " updated, "
+            + count(GenerationManifest.Status.UNCHANGED) + " unchanged, "
+            + count(GenerationManifest.Status.MODIFIED) + " hand-modified";
+    }
+
+    private void record(GenerationManifest.Status status) {
+        results.merge(status, 1, Integer::sum);
+    }
+}
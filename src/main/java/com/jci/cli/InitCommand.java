@@ -57,6 +57,11 @@ public class InitCommand implements Callable<Integer> {
                 if (!detection.projectName().isEmpty()) {
                     config.getProject().setName(detection.projectName());
                 }
+
+                if (!detection.isConfigurationCacheCompatible()) {
+                    System.out.println("Build scripts are not configuration-cache compatible:");
+                    detection.configurationCacheIssues().forEach(issue -> System.out.println("  - " + issue));
+                }
             } else {
                 System.out.println("No Maven or Gradle project detected, using defaults");
             }
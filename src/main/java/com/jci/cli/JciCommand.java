@@ -1,10 +1,23 @@
 package com.jci.cli;
 
+import com.jci.github.RateLimitScheduler;
+import com.jci.process.ProcessRunner;
+import com.jci.profile.JfrRecording;
+import com.jci.profile.Span;
+import com.jci.profile.SpanExporter;
+import com.jci.profile.Tracer;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @Command(
     name = "jci",
@@ -18,6 +31,12 @@ import java.util.concurrent.Callable;
         DockerCommand.class,
         SonarCommand.class,
         ProtectCommand.class,
+        BuildCommand.class,
+        PerfCommand.class,
+        ProfileCommand.class,
+        CoverageCommand.class,
+        TestCommand.class,
+        SecretsCommand.class,
         CommandLine.HelpCommand.class
     }
 )
@@ -29,17 +48,122 @@ public class JciCommand implements Callable<Integer> {
     @Option(names = {"-c", "--config"}, description = "Path to config file", defaultValue = ".jci.yaml")
     String configPath;
 
+    @Option(names = {"--jfr"}, description = "Record jci's own JFR events to this file (see 'jci profile summarize')")
+    Path jfrFile;
+
+    @Option(names = {"--metrics-out"}, description = "Write timing spans of this run to a file")
+    Path metricsFile;
+
+    @Option(names = {"--metrics-format"}, description = "Format of --metrics-out: jsonl or otlp (OpenTelemetry JSON)",
+        defaultValue = "jsonl")
+    String metricsFormat;
+
+    @Spec
+    CommandSpec spec;
+
+    // Counted down once the command has run and its metrics and recording are written
+    private static final CountDownLatch FINISHED = new CountDownLatch(1);
+
     public static void main(String[] args) {
         int exitCode = new CommandLine(new JciCommand())
-            .setExecutionStrategy(new CommandLine.RunAll())
+            .setExecutionStrategy(JciCommand::execute)
             .execute(args);
+        FINISHED.countDown();
         System.exit(exitCode);
     }
 
+    /**
+     * Blocks a shutdown hook until {@link #main} is done, so Ctrl+C during {@code --watch} still
+     * writes the session's metrics.
+     */
+    static void awaitFinished(Duration timeout) {
+        try {
+            FINISHED.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int execute(CommandLine.ParseResult parseResult) {
+        Path metrics = parseResult.matchedOptionValue("--metrics-out", null);
+        boolean verbose = parseResult.hasMatchedOption("--verbose");
+        if (metrics == null && !verbose) {
+            return record(parseResult);
+        }
+
+        String formatName = parseResult.matchedOptionValue("--metrics-format", "jsonl");
+        SpanExporter.Format format = switch (formatName.toLowerCase()) {
+            case "jsonl" -> SpanExporter.Format.JSONL;
+            case "otlp" -> SpanExporter.Format.OTLP;
+            default -> null;
+        };
+        if (format == null) {
+            System.err.println("Invalid metrics format: " + formatName + " (use jsonl or otlp)");
+            return 1;
+        }
+
+        Tracer tracer = Tracer.enable();
+        int exitCode;
+        try (Span span = Tracer.span(commandName(parseResult))) {
+            exitCode = record(parseResult);
+            span.attribute("exitCode", exitCode);
+        } finally {
+            Tracer.disable();
+        }
+
+        if (verbose) {
+            System.err.print(SpanExporter.summary(tracer));
+            ProcessRunner.Stats stats = ProcessRunner.stats();
+            if (stats.spawns() > 0) {
+                System.err.printf("%d child process(es), %d ms in children, %d retried, %d timed out%n",
+                    stats.spawns(), stats.childTime().toMillis(), stats.retries(), stats.timeouts());
+            }
+            RateLimitScheduler.Metrics github = RateLimitScheduler.shared().metrics();
+            if (github.requests() > 0) {
+                System.err.printf("%d GitHub request(s), %d rate limited, %d ms queued (max %d ms, queue depth %d)%n",
+                    github.requests(), github.throttled(), github.totalWait().toMillis(), github.maxWait().toMillis(),
+                    github.maxQueueDepth());
+            }
+        }
+        if (metrics != null) {
+            try {
+                SpanExporter.write(tracer, format, metrics);
+            } catch (IOException e) {
+                System.err.println("Failed to write metrics: " + e.getMessage());
+                return 1;
+            }
+        }
+        return exitCode;
+    }
+
+    private static String commandName(CommandLine.ParseResult parseResult) {
+        StringBuilder name = new StringBuilder(parseResult.commandSpec().name());
+        for (CommandLine.ParseResult sub = parseResult.subcommand(); sub != null; sub = sub.subcommand()) {
+            name.append(' ').append(sub.commandSpec().name());
+        }
+        return name.toString();
+    }
+
+    private static int record(CommandLine.ParseResult parseResult) {
+        Path jfr = parseResult.matchedOptionValue("--jfr", null);
+        if (jfr == null) {
+            return new CommandLine.RunAll().execute(parseResult);
+        }
+        // The recording spans the whole invocation, including every subcommand run by RunAll
+        try {
+            return JfrRecording.record(jfr, () -> new CommandLine.RunAll().execute(parseResult));
+        } catch (IOException e) {
+            System.err.println("Failed to write JFR recording: " + e.getMessage());
+            return 1;
+        }
+    }
+
     @Override
     public Integer call() {
-        // Root command just shows help when called without subcommand
-        CommandLine.usage(this, System.out);
+        // Root command just shows help when called without subcommand; RunAll invokes it either way
+        if (!spec.commandLine().getParseResult().hasSubcommand()) {
+            CommandLine.usage(this, System.out);
+        }
         return 0;
     }
 
@@ -0,0 +1,120 @@
+package com.jci.cli;
+
+import com.jci.perf.BenchmarkRun;
+import com.jci.perf.JmhResultParser;
+import com.jci.perf.PerfComparison;
+import com.jci.perf.PerfReport;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "perf",
+    description = "Performance result analysis",
+    subcommands = {
+        PerfCommand.CompareCommand.class
+    }
+)
+public class PerfCommand implements Callable<Integer> {
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Spec
+    CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (!spec.commandLine().getParseResult().hasSubcommand()) {
+            System.out.println("Use 'jci perf compare'");
+        }
+        return 0;
+    }
+
+    @Command(name = "compare", description = "Compare JMH JSON results against a baseline with bootstrap confidence intervals")
+    public static class CompareCommand implements Callable<Integer> {
+
+        @ParentCommand
+        PerfCommand perfParent;
+
+        @Option(names = {"-b", "--base"}, required = true,
+            description = "Baseline JMH JSON result file (repeatable; runs are merged)")
+        List<Path> baseFiles;
+
+        @Parameters(arity = "1..*", paramLabel = "CANDIDATE",
+            description = "Candidate JMH JSON result file(s); runs are merged")
+        List<Path> candidateFiles;
+
+        @Option(names = {"--format"}, description = "Report format: text, markdown, json", defaultValue = "text")
+        String format;
+
+        @Option(names = {"-o", "--output"}, description = "Write the report to a file instead of stdout")
+        Path output;
+
+        @Option(names = {"--threshold"}, description = "Minimum change in percent to count as significant", defaultValue = "2")
+        double threshold;
+
+        @Option(names = {"--confidence"}, description = "Confidence level of the intervals", defaultValue = "0.95")
+        double confidence;
+
+        @Option(names = {"--resamples"}, description = "Bootstrap resamples per benchmark", defaultValue = "2000")
+        int resamples;
+
+        @Option(names = {"--seed"}, description = "Random seed for the bootstrap", defaultValue = "42")
+        long seed;
+
+        @Override
+        public Integer call() throws Exception {
+            PerfReport.Format reportFormat = switch (format.toLowerCase()) {
+                case "text" -> PerfReport.Format.TEXT;
+                case "markdown", "md" -> PerfReport.Format.MARKDOWN;
+                case "json" -> PerfReport.Format.JSON;
+                default -> null;
+            };
+            if (reportFormat == null) {
+                System.err.println("Invalid format: " + format + " (use text, markdown or json)");
+                return 1;
+            }
+
+            PerfComparison comparison;
+            try {
+                comparison = new PerfComparison(resamples, confidence, threshold, seed);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+
+            Map<String, BenchmarkRun> baseline;
+            Map<String, BenchmarkRun> candidate;
+            try {
+                baseline = JmhResultParser.load(baseFiles);
+                candidate = JmhResultParser.load(candidateFiles);
+            } catch (IOException e) {
+                System.err.println("Failed to read JMH results: " + e.getMessage());
+                return 1;
+            }
+
+            List<PerfComparison.Delta> deltas = comparison.compare(baseline, candidate);
+            String report = PerfReport.render(deltas, reportFormat, confidence);
+            if (output != null) {
+                Files.writeString(output, report);
+                System.out.println("Report written to " + output);
+            } else {
+                System.out.print(report);
+            }
+
+            boolean regressed = deltas.stream().anyMatch(delta -> delta.verdict() == PerfComparison.Verdict.REGRESSED);
+            return regressed ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jci.cli;
+
+import com.jci.profile.ProfileSummary;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "profile",
+    description = "Inspect recordings made with --jfr",
+    subcommands = {
+        ProfileCommand.SummarizeCommand.class
+    }
+)
+public class ProfileCommand implements Callable<Integer> {
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Spec
+    CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (!spec.commandLine().getParseResult().hasSubcommand()) {
+            System.out.println("Use 'jci profile summarize <file>'");
+        }
+        return 0;
+    }
+
+    @Command(name = "summarize", description = "Print the top time consumers in a jci JFR recording")
+    public static class SummarizeCommand implements Callable<Integer> {
+
+        @Parameters(index = "0", paramLabel = "FILE", description = "Recording written by 'jci --jfr FILE ...'")
+        Path file;
+
+        @Option(names = {"-n", "--top"}, description = "Number of consumers to show", defaultValue = "10")
+        int top;
+
+        @Override
+        public Integer call() throws Exception {
+            if (!Files.exists(file)) {
+                System.err.println("Recording not found: " + file);
+                return 1;
+            }
+
+            ProfileSummary summary;
+            try {
+                summary = ProfileSummary.read(file);
+            } catch (Exception e) {
+                System.err.println("Failed to read recording: " + e.getMessage());
+                return 1;
+            }
+
+            System.out.print(summary.format(top));
+            return 0;
+        }
+    }
+}
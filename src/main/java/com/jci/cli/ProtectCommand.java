@@ -1,13 +1,20 @@
 package com.jci.cli;
 
 import com.jci.config.JciConfig;
+import com.jci.github.BranchProtectionReader;
+import com.jci.github.GitHubApi;
 import com.jci.github.GitHubCli;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -15,7 +22,8 @@ import java.util.concurrent.Callable;
     description = "GitHub branch protection management",
     subcommands = {
         ProtectCommand.ApplyCommand.class,
-        ProtectCommand.ShowCommand.class
+        ProtectCommand.ShowCommand.class,
+        ProtectCommand.AuditCommand.class
     }
 )
 public class ProtectCommand implements Callable<Integer> {
@@ -25,7 +33,7 @@ public class ProtectCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        System.out.println("Use 'jci protect apply' or 'jci protect show'");
+        System.out.println("Use 'jci protect apply', 'jci protect show' or 'jci protect audit'");
         return 0;
     }
 
@@ -181,4 +189,114 @@ public class ProtectCommand implements Callable<Integer> {
             return 0;
         }
     }
+
+    @Command(name = "audit", description = "Compare branch protection of many repositories with the configured rules")
+    public static class AuditCommand implements Callable<Integer> {
+
+        @ParentCommand
+        ProtectCommand protectParent;
+
+        @Option(names = {"-R", "--repo"}, description = "Repository owner/name to audit (repeatable; default: github.owner/repo)")
+        List<String> repos;
+
+        @Option(names = {"--repos-file"}, description = "File with one owner/name per line")
+        Path reposFile;
+
+        @Option(names = {"-b", "--branch"}, description = "Branch to audit (repeatable; default: git.mainBranch)")
+        List<String> branches;
+
+        @Option(names = {"--chunk-size"}, description = "Branches per GraphQL query, 1 to 100", defaultValue = "50")
+        int chunkSize;
+
+        @Override
+        public Integer call() throws Exception {
+            if (chunkSize < 1) {
+                System.err.println("--chunk-size must be at least 1, got " + chunkSize);
+                return 1;
+            }
+            if (chunkSize > BranchProtectionReader.MAX_CHUNK_SIZE) {
+                System.err.println("Note: --chunk-size " + chunkSize + " capped at " + BranchProtectionReader.MAX_CHUNK_SIZE
+                    + " to keep each query under GitHub's timeout.");
+            }
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+            JciConfig config = JciConfig.load(projectPath.resolve(protectParent.parent.getConfigPath()));
+
+            Set<String> repositories = new LinkedHashSet<>();
+            if (repos != null) {
+                repositories.addAll(repos);
+            }
+            if (reposFile != null) {
+                if (!Files.isRegularFile(reposFile)) {
+                    System.err.println("Repository list not found: " + reposFile);
+                    return 1;
+                }
+                for (String line : Files.readAllLines(reposFile)) {
+                    String repository = line.strip();
+                    if (!repository.isEmpty() && !repository.startsWith("#")) {
+                        repositories.add(repository);
+                    }
+                }
+            }
+            if (repositories.isEmpty() && !config.getGithub().getOwner().isEmpty() && !config.getGithub().getRepo().isEmpty()) {
+                repositories.add(config.getGithub().getOwner() + "/" + config.getGithub().getRepo());
+            }
+            if (repositories.isEmpty()) {
+                System.err.println("No repository to audit. Pass --repo or --repos-file, or configure github.owner and github.repo.");
+                return 1;
+            }
+
+            List<String> targetBranches = branches != null ? branches : List.of(config.getGit().getMainBranch());
+            List<BranchProtectionReader.Target> targets = new ArrayList<>();
+            for (String repository : repositories) {
+                String[] parts = repository.split("/");
+                if (parts.length != 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+                    System.err.println("Invalid repository: " + repository + " (use owner/name)");
+                    return 1;
+                }
+                for (String branch : targetBranches) {
+                    targets.add(new BranchProtectionReader.Target(parts[0], parts[1], branch));
+                }
+            }
+
+            List<BranchProtectionReader.Result> results;
+            long start = System.nanoTime();
+            try {
+                GitHubApi api = GitHubApi.fromEnvironment(new GitHubCli(projectPath));
+                results = new BranchProtectionReader(api, chunkSize).read(targets);
+            } catch (IOException e) {
+                System.err.println("Failed to read branch protection: " + e.getMessage());
+                return 1;
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            var expected = config.getBranchProtection().getMain();
+            int compliant = 0;
+            int drifted = 0;
+            int unprotected = 0;
+            int failed = 0;
+            for (BranchProtectionReader.Result result : results) {
+                if (!result.isSuccess()) {
+                    System.out.println("  error        " + result.target() + ": " + result.error());
+                    failed++;
+                } else if (!result.isProtected()) {
+                    System.out.println("  unprotected  " + result.target());
+                    unprotected++;
+                } else {
+                    List<String> differences = BranchProtectionReader.differences(expected, result.rules());
+                    if (differences.isEmpty()) {
+                        System.out.println("  ok           " + result.target());
+                        compliant++;
+                    } else {
+                        System.out.println("  drift        " + result.target() + ": " + String.join("; ", differences));
+                        drifted++;
+                    }
+                }
+            }
+
+            System.out.println();
+            System.out.println(results.size() + " branch(es) audited in " + millis + " ms: " + compliant + " compliant, "
+                + drifted + " drifted, " + unprotected + " unprotected, " + failed + " failed");
+            return compliant == results.size() ? 0 : 1;
+        }
+    }
 }
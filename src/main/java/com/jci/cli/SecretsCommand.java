@@ -0,0 +1,192 @@
+package com.jci.cli;
+
+import com.jci.config.JciConfig;
+import com.jci.github.GitHubCli;
+import com.jci.github.SecretSync;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "secrets",
+    description = "GitHub Actions secret management",
+    subcommands = {
+        SecretsCommand.SyncCommand.class
+    }
+)
+public class SecretsCommand implements Callable<Integer> {
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Override
+    public Integer call() {
+        System.out.println("Use 'jci secrets sync'");
+        return 0;
+    }
+
+    @Command(name = "sync", description = "Upload declared secrets that are missing or stale in one or more repositories")
+    public static class SyncCommand implements Callable<Integer> {
+
+        @ParentCommand
+        SecretsCommand secretsParent;
+
+        @Option(names = {"-n", "--name"}, description = "Secret to sync (repeatable; default: secrets.names)")
+        List<String> names;
+
+        @Option(names = {"-R", "--repo"}, description = "Target repository owner/name (repeatable; default: secrets.repos or github.owner/repo)")
+        List<String> repos;
+
+        @Option(names = {"--env-file"}, description = "Dotenv file with the values (default: secrets.envFile, else environment variables)")
+        Path envFile;
+
+        @Option(names = {"--max-age"}, description = "Re-upload secrets last set more than this many days ago (default: secrets.maxAgeDays)")
+        Integer maxAgeDays;
+
+        @Option(names = {"--force"}, description = "Re-upload every declared secret")
+        boolean force;
+
+        @Option(names = {"--dry-run"}, description = "Show what would be uploaded without making changes")
+        boolean dryRun;
+
+        @Override
+        public Integer call() throws Exception {
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+            JciConfig config = JciConfig.load(projectPath.resolve(secretsParent.parent.getConfigPath()));
+            JciConfig.SecretsConfig secretsConfig = config.getSecrets();
+
+            List<String> secretNames = names != null ? names : secretsConfig.getNames();
+            if (secretNames.isEmpty()) {
+                System.err.println("No secrets declared. Add them to secrets.names in the configuration or pass --name.");
+                return 1;
+            }
+            try {
+                SecretSync.validateNames(secretNames);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+
+            List<String> targets = targets(config);
+            if (targets.isEmpty()) {
+                System.err.println("No repository to sync. Configure secrets.repos or github.owner and github.repo, or pass --repo.");
+                return 1;
+            }
+            for (String target : targets) {
+                if (!target.matches("[\\w.-]+/[\\w.-]+")) {
+                    System.err.println("Invalid repository: " + target + " (use owner/name)");
+                    return 1;
+                }
+            }
+
+            List<SecretSync.Secret> secrets;
+            try {
+                secrets = resolve(projectPath, secretNames, secretsConfig);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+
+            GitHubCli gh = new GitHubCli(projectPath);
+            if (!gh.isInstalled()) {
+                System.err.println("GitHub CLI (gh) is not installed");
+                return 1;
+            }
+            if (!gh.isAuthenticated()) {
+                System.err.println("GitHub CLI is not authenticated. Run 'gh auth login' first.");
+                return 1;
+            }
+
+            int days = maxAgeDays != null ? maxAgeDays : secretsConfig.getMaxAgeDays();
+            SecretSync sync = new SecretSync(gh, secrets, Duration.ofDays(days), force);
+            List<SecretSync.RepoResult> results = sync.sync(targets, dryRun);
+
+            int failed = 0;
+            for (SecretSync.RepoResult result : results) {
+                if (!result.isSuccess() && result.changes().isEmpty()) {
+                    System.err.println(result.repo() + ": " + result.error());
+                    failed++;
+                    continue;
+                }
+                System.out.println(result.repo() + ": " + (dryRun ? "would create " : "")
+                    + result.count(SecretSync.Action.CREATE) + (dryRun ? ", update " : " created, ")
+                    + result.count(SecretSync.Action.UPDATE) + (dryRun ? ", " : " updated, ")
+                    + result.count(SecretSync.Action.KEEP) + " up to date");
+                for (SecretSync.Change change : result.changes()) {
+                    if (change.action() != SecretSync.Action.KEEP) {
+                        System.out.println("  " + (change.action() == SecretSync.Action.CREATE ? "+ " : "~ ")
+                            + change.name() + " (" + change.reason() + ")");
+                    }
+                }
+                if (!result.isSuccess()) {
+                    System.err.println(result.repo() + ": upload failed: " + result.error());
+                    failed++;
+                }
+            }
+            if (dryRun) {
+                System.out.println("[Dry run - no changes made]");
+            }
+            return failed > 0 ? 1 : 0;
+        }
+
+        private List<String> targets(JciConfig config) {
+            if (repos != null) {
+                return repos;
+            }
+            if (!config.getSecrets().getRepos().isEmpty()) {
+                return config.getSecrets().getRepos();
+            }
+            String owner = config.getGithub().getOwner();
+            String repo = config.getGithub().getRepo();
+            return owner.isEmpty() || repo.isEmpty() ? List.of() : List.of(owner + "/" + repo);
+        }
+
+        /**
+         * Values from the env file, else from environment variables of the same name. Names match
+         * case-insensitively, as on GitHub, with an exact match preferred.
+         */
+        private List<SecretSync.Secret> resolve(Path projectPath, List<String> secretNames,
+                                                JciConfig.SecretsConfig secretsConfig) throws IOException {
+            Path file = envFile != null ? envFile
+                : secretsConfig.getEnvFile().isEmpty() ? null : projectPath.resolve(secretsConfig.getEnvFile());
+            Map<String, String> fileValues = Map.of();
+            Instant fileModified = null;
+            if (file != null) {
+                if (!Files.isRegularFile(file)) {
+                    throw new IOException("Env file not found: " + file);
+                }
+                fileValues = SecretSync.readEnvFile(file);
+                fileModified = Files.getLastModifiedTime(file).toInstant();
+            }
+
+            List<SecretSync.Secret> secrets = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (String name : secretNames) {
+                String fileValue = SecretSync.lookup(fileValues, name);
+                String envValue = SecretSync.lookup(System.getenv(), name);
+                if (fileValue != null) {
+                    secrets.add(new SecretSync.Secret(name, fileValue, fileModified));
+                } else if (envValue != null) {
+                    secrets.add(new SecretSync.Secret(name, envValue, null));
+                } else {
+                    missing.add(name);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IOException("No value for " + String.join(", ", missing)
+                    + (file != null ? " in " + file + " or" : " in") + " the environment");
+            }
+            return secrets;
+        }
+    }
+}
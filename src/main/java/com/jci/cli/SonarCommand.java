@@ -2,6 +2,7 @@ package com.jci.cli;
 
 import com.jci.config.JciConfig;
 import com.jci.github.GitHubCli;
+import com.jci.profile.HttpRequestEvent;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
@@ -144,7 +145,7 @@ public class SonarCommand implements Callable<Integer> {
                     .GET()
                     .build();
 
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                HttpResponse<String> response = HttpRequestEvent.send(client, request);
                 return response.statusCode() == 200 && response.body().contains("\"valid\":true");
             } catch (Exception e) {
                 return false;
@@ -187,7 +188,7 @@ public class SonarCommand implements Callable<Integer> {
                     .GET()
                     .build();
 
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                HttpResponse<String> response = HttpRequestEvent.send(client, request);
 
                 if (response.statusCode() == 200) {
                     String body = response.body();
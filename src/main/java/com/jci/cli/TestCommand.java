@@ -0,0 +1,112 @@
+package com.jci.cli;
+
+import com.jci.testreport.TestReport;
+import com.jci.testreport.TestResults;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "test",
+    description = "Test result analysis",
+    subcommands = {
+        TestCommand.ReportCommand.class
+    }
+)
+public class TestCommand implements Callable<Integer> {
+
+    @ParentCommand
+    JciCommand parent;
+
+    @Spec
+    CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        if (!spec.commandLine().getParseResult().hasSubcommand()) {
+            System.out.println("Use 'jci test report'");
+        }
+        return 0;
+    }
+
+    @Command(name = "report", description = "Summarize JUnit XML reports: slowest classes and tests, time per module, failures, reruns")
+    public static class ReportCommand implements Callable<Integer> {
+
+        @ParentCommand
+        TestCommand testParent;
+
+        @Parameters(arity = "0..*", paramLabel = "PATH",
+            description = "Report files or directories (default: Surefire, Failsafe and Gradle reports of every module)")
+        List<Path> paths;
+
+        @Option(names = {"--format"}, description = "Report format: text, json", defaultValue = "text")
+        String format;
+
+        @Option(names = {"-o", "--output"}, description = "Write the report to a file instead of stdout")
+        Path output;
+
+        @Option(names = {"--top"}, description = "Number of slowest classes and tests to list", defaultValue = "10")
+        int top;
+
+        @Option(names = {"--threads"}, description = "Report files parsed in parallel (default: available processors)")
+        Integer threads;
+
+        @Override
+        public Integer call() throws Exception {
+            Path projectPath = Path.of(System.getProperty("user.dir"));
+
+            TestReport.Format reportFormat = switch (format.toLowerCase()) {
+                case "text" -> TestReport.Format.TEXT;
+                case "json" -> TestReport.Format.JSON;
+                default -> null;
+            };
+            if (reportFormat == null) {
+                System.err.println("Invalid format: " + format + " (use text or json)");
+                return 1;
+            }
+
+            List<Path> files;
+            if (paths != null) {
+                files = new ArrayList<>();
+                for (Path path : paths) {
+                    files.addAll(TestResults.scan(path.toAbsolutePath()));
+                }
+            } else {
+                files = TestResults.find(projectPath);
+            }
+            if (files.isEmpty()) {
+                System.err.println("No TEST-*.xml reports found. Run the tests first (mvn test or ./gradlew test), "
+                    + "or pass report paths.");
+                return 1;
+            }
+
+            TestResults results;
+            try {
+                int parallelism = threads != null ? threads : Runtime.getRuntime().availableProcessors();
+                results = TestResults.read(projectPath, files, parallelism);
+            } catch (IOException e) {
+                System.err.println("Failed to read test reports: " + e.getMessage());
+                return 1;
+            }
+
+            String report = TestReport.render(results, reportFormat, top);
+            if (output != null) {
+                Files.writeString(output, report);
+                System.out.println("Report written to " + output);
+            } else {
+                System.out.print(report);
+            }
+            return 0;
+        }
+    }
+}
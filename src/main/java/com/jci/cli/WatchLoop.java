@@ -0,0 +1,91 @@
+package com.jci.cli;
+
+import com.jci.watch.FileWatcher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@code --watch} loop of the generate commands: waits for input changes and re-runs the
+ * generator in the same JVM until interrupted. Ctrl+C does not interrupt the JVM's threads, so a
+ * shutdown hook stops the loop and holds the exit until {@link JciCommand} has written the
+ * metrics, JFR recording and timing tree of the session.
+ */
+class WatchLoop {
+
+    static final Duration DEBOUNCE = Duration.ofMillis(300);
+    static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+
+    interface Generator {
+        int generate() throws Exception;
+    }
+
+    static int run(List<Path> files, List<Path> trees, Generator generator) throws IOException {
+        Path workingDirectory = Path.of(System.getProperty("user.dir"));
+        Thread loop = Thread.currentThread();
+        AtomicBoolean stopping = new AtomicBoolean();
+        Thread hook = new Thread(() -> {
+            stopping.set(true);
+            loop.interrupt();
+            JciCommand.awaitFinished(SHUTDOWN_GRACE);
+        }, "jci-watch-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+        try (FileWatcher watcher = new FileWatcher(DEBOUNCE)) {
+            for (Path file : files) {
+                watcher.watchFile(file);
+            }
+            for (Path tree : trees) {
+                watcher.watchTree(tree);
+            }
+            String watched = Stream.concat(files.stream(), trees.stream())
+                .map(path -> display(workingDirectory, path))
+                .collect(Collectors.joining(", "));
+            System.out.println("Watching " + watched + " for changes (Ctrl+C to stop)");
+
+            while (!stopping.get()) {
+                Set<Path> changed;
+                try {
+                    changed = watcher.take();
+                } catch (InterruptedException e) {
+                    if (!stopping.get()) {
+                        Thread.currentThread().interrupt();
+                        return 0;
+                    }
+                    break;
+                }
+                System.out.println();
+                System.out.println("Changed: " + changed.stream()
+                    .map(path -> display(workingDirectory, path))
+                    .collect(Collectors.joining(", ")));
+                try {
+                    generator.generate();
+                } catch (Exception e) {
+                    // Keep watching; the next save usually fixes a half-edited config
+                    System.err.println("Regeneration failed: " + e.getMessage());
+                }
+            }
+            // The interrupt was the stop request; clear it so writing the metrics is not aborted
+            Thread.interrupted();
+            System.out.println();
+            System.out.println("Stopped watching");
+            return 0;
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // Already shutting down; the hook is running
+            }
+        }
+    }
+
+    private static String display(Path workingDirectory, Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        return absolute.startsWith(workingDirectory) ? workingDirectory.relativize(absolute).toString() : absolute.toString();
+    }
+}
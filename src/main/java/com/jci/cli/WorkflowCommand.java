@@ -1,16 +1,29 @@
 package com.jci.cli;
 
+import com.jci.build.BuildPerformanceFiles;
 import com.jci.config.JciConfig;
+import com.jci.detector.BuildToolDetector;
+import com.jci.detector.ModuleGraph;
+import com.jci.template.GenerationManifest;
 import com.jci.template.TemplateEngine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Command(
     name = "workflow",
@@ -34,15 +47,20 @@ public class WorkflowCommand implements Callable<Integer> {
     @Command(name = "generate", description = "Generate GitHub Actions workflow files")
     public static class GenerateCommand implements Callable<Integer> {
 
+        private static final Pattern SHA256 = Pattern.compile("[0-9a-fA-F]{64}");
+
         @ParentCommand
         WorkflowCommand workflowParent;
 
-        @Option(names = {"-t", "--type"}, description = "Workflow type: build, test, sonar, docker, all", defaultValue = "all")
+        @Option(names = {"-t", "--type"}, description = "Workflow type: build, test, sonar, docker, pipeline, bench, all", defaultValue = "all")
         String type;
 
         @Option(names = {"-f", "--force"}, description = "Overwrite existing files")
         boolean force;
 
+        @Option(names = {"-w", "--watch"}, description = "Keep running and regenerate when the config or template overrides change")
+        boolean watch;
+
         @Override
         public Integer call() throws Exception {
             JciCommand parent = workflowParent.parent;
@@ -55,28 +73,95 @@ public class WorkflowCommand implements Callable<Integer> {
                 return 1;
             }
 
-            JciConfig config = JciConfig.load(configPath);
-            TemplateEngine engine = new TemplateEngine();
+            // One engine for the whole session, so compiled templates survive regenerations
+            TemplateEngine engine = TemplateEngine.forProject(projectPath);
+            int exitCode = generate(engine, projectPath, configPath, false);
+            if (!watch) {
+                return exitCode;
+            }
+            return WatchLoop.run(List.of(configPath), engine.getRoots(), () -> {
+                engine.refresh();
+                return generate(engine, projectPath, configPath, true);
+            });
+        }
 
-            Path workflowsDir = projectPath.resolve(".github/workflows");
-            Files.createDirectories(workflowsDir);
+        private int generate(TemplateEngine engine, Path projectPath, Path configPath, boolean updateOutdated)
+                throws Exception {
+            JciConfig config = JciConfig.load(configPath);
+            GenerationManifest manifest;
+            try {
+                manifest = GenerationManifest.load(projectPath);
+            } catch (IOException e) {
+                System.err.println("Failed to read " + GenerationManifest.FILE + ": " + e.getMessage());
+                return 1;
+            }
+            GeneratedFiles files = new GeneratedFiles(engine, projectPath, manifest, force, updateOutdated);
 
             // Build template context
             Map<String, Object> context = buildContext(config);
+            if (config.getWorkflows().isMatrix()) {
+                Optional<ModuleGraph> graph = ModuleGraph.load(projectPath);
+                if (graph.isPresent() && graph.get().isMultiModule()) {
+                    putModuleMatrix(context, graph.get());
+                    if (graph.get().groups().size() == 1) {
+                        System.out.println("Note: all modules are connected by dependencies; the matrix build.yml has a single entry");
+                    }
+                    if (config.getBuild().isSelectiveBuild()) {
+                        System.out.println("Note: build.selectiveBuild does not apply to the matrix build.yml; every module builds on every run");
+                    }
+                } else {
+                    System.out.println("Note: workflows.matrix needs a multi-module build; generating a single build job");
+                }
+            }
 
             String buildTool = config.getBuild().getTool();
-            boolean generateAll = "all".equals(type);
+            // The consolidated pipeline replaces the separate workflows when enabled
+            boolean pipeline = "pipeline".equals(type) || ("all".equals(type) && config.getWorkflows().isPipeline());
+            boolean generateAll = "all".equals(type) && !pipeline;
 
-            int generated = 0;
+            // Only build.yml (without the matrix), test.yml and bench.yml download and run jci
+            boolean selective = config.getBuild().isSelectiveBuild();
+            boolean affectedBuild = selective && (generateAll || "build".equals(type))
+                && config.getWorkflows().getBuild().isEnabled() && !context.containsKey("matrixModules");
+            boolean affectedTest = selective && (generateAll || "test".equals(type)) && config.getWorkflows().getTest().isEnabled();
+            boolean bench = "bench".equals(type) || "all".equals(type) && config.getWorkflows().getBench().isEnabled();
+            if ((affectedBuild || affectedTest || bench) && !SHA256.matcher(config.getBuild().getJciSha256()).matches()) {
+                // These workflows run jci on every pull request; never let them run an unverified jar
+                System.err.println((bench ? "The bench workflow" : "build.selectiveBuild")
+                    + " needs build.jciSha256, the SHA-256 of jci-" + config.getBuild().getJciVersion()
+                    + ".jar from the jci release");
+                return 1;
+            }
+            if (pipeline && config.getWorkflows().getDocker().isEnabled() && !config.getDocker().isFromArtifact()
+                    && !"native".equals(config.getDocker().getRuntime())) {
+                // The docker job would otherwise compile everything again in the Dockerfile's builder stage
+                System.err.println("workflows.pipeline packages the jar once and the docker job reuses it; set "
+                    + "docker.fromArtifact: true and run 'jci docker generate' so the Dockerfile copies the jar, "
+                    + "or disable workflows.docker");
+                return 1;
+            }
+
+            Path workflowsDir = projectPath.resolve(".github/workflows");
+            Files.createDirectories(workflowsDir);
+            if (pipeline) {
+                String templateName = "workflows/pipeline-" + buildTool + ".yml.mustache";
+                Path outputPath = workflowsDir.resolve("ci.yml");
+                files.generate(templateName, context, outputPath);
+                for (String superseded : List.of("build.yml", "test.yml", "sonar.yml", "docker-publish.yml")) {
+                    if (Files.exists(workflowsDir.resolve(superseded))) {
+                        System.out.println("Note: " + superseded + " is superseded by ci.yml and can be removed");
+                    }
+                }
+            }
 
             // Generate build workflow
             if (generateAll || "build".equals(type)) {
                 if (config.getWorkflows().getBuild().isEnabled()) {
-                    String templateName = "workflows/build-" + buildTool + ".yml.mustache";
+                    String templateName = context.containsKey("matrixModules")
+                        ? "workflows/build-matrix-" + buildTool + ".yml.mustache"
+                        : "workflows/build-" + buildTool + ".yml.mustache";
                     Path outputPath = workflowsDir.resolve("build.yml");
-                    if (generateWorkflow(engine, templateName, context, outputPath, force)) {
-                        generated++;
-                    }
+                    files.generate(templateName, context, outputPath);
                 }
             }
 
@@ -85,9 +170,9 @@ public class WorkflowCommand implements Callable<Integer> {
                 if (config.getWorkflows().getTest().isEnabled()) {
                     String templateName = "workflows/test-" + buildTool + ".yml.mustache";
                     Path outputPath = workflowsDir.resolve("test.yml");
-                    if (generateWorkflow(engine, templateName, context, outputPath, force)) {
-                        generated++;
-                    }
+                    Map<String, Object> testContext = new HashMap<>(context);
+                    testContext.put("affectedTasks", List.of("test", "jacocoTestReport"));
+                    files.generate(templateName, testContext, outputPath);
                 }
             }
 
@@ -96,9 +181,7 @@ public class WorkflowCommand implements Callable<Integer> {
                 if (config.getWorkflows().getSonar().isEnabled()) {
                     String templateName = "workflows/sonar-" + buildTool + ".yml.mustache";
                     Path outputPath = workflowsDir.resolve("sonar.yml");
-                    if (generateWorkflow(engine, templateName, context, outputPath, force)) {
-                        generated++;
-                    }
+                    files.generate(templateName, context, outputPath);
                 }
             }
 
@@ -107,13 +190,34 @@ public class WorkflowCommand implements Callable<Integer> {
                 if (config.getWorkflows().getDocker().isEnabled()) {
                     String templateName = "workflows/docker-publish.yml.mustache";
                     Path outputPath = workflowsDir.resolve("docker-publish.yml");
-                    if (generateWorkflow(engine, templateName, context, outputPath, force)) {
-                        generated++;
-                    }
+                    files.generate(templateName, context, outputPath);
+                }
+            }
+
+            // Generate JMH benchmark regression gate; not part of the pipeline so it is checked separately
+            if ("all".equals(type) || "bench".equals(type)) {
+                if (config.getWorkflows().getBench().isEnabled() || "bench".equals(type)) {
+                    String templateName = "workflows/bench-" + buildTool + ".yml.mustache";
+                    Path outputPath = workflowsDir.resolve("bench.yml");
+                    files.generate(templateName, context, outputPath);
                 }
             }
 
-            System.out.println("Generated " + generated + " workflow file(s)");
+            // Build tool files backing the build performance settings
+            BuildPerformanceFiles buildFiles = new BuildPerformanceFiles(engine);
+            List<Path> buildFilesWritten = "gradle".equals(buildTool)
+                ? buildFiles.writeGradle(projectPath, config.getBuild())
+                : buildFiles.writeMaven(projectPath, config.getBuild(), force);
+            for (Path written : buildFilesWritten) {
+                System.out.println("Generated: " + projectPath.relativize(written));
+            }
+            if ("gradle".equals(buildTool) && config.getBuild().isConfigurationCache()) {
+                warnConfigurationCacheIssues(projectPath);
+            }
+
+            String summary = files.finish();
+            int generated = files.count(GenerationManifest.Status.CREATED) + files.count(GenerationManifest.Status.UPDATED);
+            System.out.println("Generated " + generated + " workflow file(s): " + summary);
             return 0;
         }
 
@@ -126,27 +230,61 @@ public class WorkflowCommand implements Callable<Integer> {
             ctx.put("sonarProjectKey", config.getSonar().getProjectKey());
             ctx.put("minCoverage", config.getWorkflows().getTest().getCoverage().getMinCoverage());
             ctx.put("dockerPort", config.getDocker().getPort());
+            ctx.put("dockerFromArtifact", config.getDocker().isFromArtifact());
+            ctx.put("dockerNative", "native".equals(config.getDocker().getRuntime()));
+            ctx.put("dockerCacheMounts", config.getDocker().isCacheMounts() && !config.getDocker().isFromArtifact());
+            ctx.put("testEnabled", config.getWorkflows().getTest().isEnabled());
+            ctx.put("sonarEnabled", config.getWorkflows().getSonar().isEnabled());
+            ctx.put("dockerEnabled", config.getWorkflows().getDocker().isEnabled());
             ctx.put("isMaven", "maven".equals(config.getBuild().getTool()));
             ctx.put("isGradle", "gradle".equals(config.getBuild().getTool()));
+            ctx.put("mavenThreads", blankToNull(config.getBuild().getThreads()));
+            ctx.put("mavenBuildCache", config.getBuild().isBuildCache());
+            ctx.put("gradleConfigurationCache", config.getBuild().isConfigurationCache());
+            ctx.put("selectiveBuild", config.getBuild().isSelectiveBuild());
+            ctx.put("jciVersion", config.getBuild().getJciVersion());
+            ctx.put("jciSha256", config.getBuild().getJciSha256().toLowerCase(Locale.ROOT));
+            ctx.put("benchThreshold", config.getWorkflows().getBench().getThreshold());
             return ctx;
         }
 
-        private boolean generateWorkflow(TemplateEngine engine, String templateName,
-                                         Map<String, Object> context, Path outputPath, boolean force)
-                throws Exception {
-            if (Files.exists(outputPath) && !force) {
-                System.out.println("Skipping " + outputPath.getFileName() + " (exists, use --force to overwrite)");
-                return false;
-            }
+        /**
+         * Adds one matrix entry per independent module group. An entry builds every module of its
+         * group, so entries run in parallel, share nothing, and no module is built twice. Entries
+         * are labelled with the group's end modules, the ones no other module depends on.
+         */
+        static void putModuleMatrix(Map<String, Object> ctx, ModuleGraph graph) {
+            List<Map<String, Object>> groups = new ArrayList<>();
+            for (List<ModuleGraph.Module> group : graph.groups()) {
+                Set<String> upstream = new HashSet<>();
+                group.forEach(module -> upstream.addAll(module.dependencies()));
+                List<ModuleGraph.Module> ends = group.stream().filter(module -> !upstream.contains(module.id())).toList();
+                if (ends.isEmpty()) {
+                    // Only a dependency cycle has no end module; Maven and Gradle reject those anyway
+                    ends = group;
+                }
 
-            if (!engine.templateExists(templateName)) {
-                System.err.println("Template not found: " + templateName);
-                return false;
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("id", ends.stream().map(ModuleGraph.Module::id).collect(Collectors.joining(", ")));
+                // Artifact names may not contain '/' or ':'
+                entry.put("name", ends.get(0).directory().replace('/', '-'));
+                entry.put("projects", group.stream().map(ModuleGraph.Module::directory).collect(Collectors.joining(",")));
+                entry.put("tasks", group.stream().map(module -> module.id() + ":build").collect(Collectors.joining(" ")));
+                groups.add(entry);
             }
+            ctx.put("matrixModules", groups);
+        }
+
+        private void warnConfigurationCacheIssues(Path projectPath) {
+            new BuildToolDetector().detect(projectPath).ifPresent(detection -> {
+                for (String issue : detection.configurationCacheIssues()) {
+                    System.err.println("Warning: configuration cache may fail: " + issue);
+                }
+            });
+        }
 
-            engine.renderToFile(templateName, context, outputPath);
-            System.out.println("Generated: " + outputPath);
-            return true;
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
         }
     }
 
@@ -1,5 +1,8 @@
 package com.jci.config;
 
+import com.jci.profile.ConfigLoadEvent;
+import com.jci.profile.Span;
+import com.jci.profile.Tracer;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
@@ -10,6 +13,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public class JciConfig {
@@ -22,6 +26,7 @@ public class JciConfig {
     private SonarConfig sonar = new SonarConfig();
     private DockerConfig docker = new DockerConfig();
     private BranchProtectionConfig branchProtection = new BranchProtectionConfig();
+    private SecretsConfig secrets = new SecretsConfig();
 
     // Static factory methods
     public static JciConfig load(Path path) throws IOException {
@@ -29,6 +34,10 @@ public class JciConfig {
             return new JciConfig();
         }
 
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        event.path = path.toString();
+
         org.yaml.snakeyaml.LoaderOptions loaderOptions = new org.yaml.snakeyaml.LoaderOptions();
         loaderOptions.setTagInspector(tag -> true); // Allow all tags for backwards compatibility
 
@@ -39,9 +48,13 @@ public class JciConfig {
         representer.getPropertyUtils().setSkipMissingProperties(true);
 
         Yaml yaml = new Yaml(constructor, representer);
-        try (FileReader reader = new FileReader(path.toFile())) {
+        try (Span span = Tracer.span("config.load").attribute("path", path);
+             FileReader reader = new FileReader(path.toFile())) {
             JciConfig config = yaml.load(reader);
+            span.attribute("empty", config == null);
             return config != null ? config : new JciConfig();
+        } finally {
+            event.commit();
         }
     }
 
@@ -72,6 +85,7 @@ public class JciConfig {
         representer.addClassTag(DockerConfig.class, org.yaml.snakeyaml.nodes.Tag.MAP);
         representer.addClassTag(BranchProtectionConfig.class, org.yaml.snakeyaml.nodes.Tag.MAP);
         representer.addClassTag(BranchProtectionConfig.BranchRules.class, org.yaml.snakeyaml.nodes.Tag.MAP);
+        representer.addClassTag(SecretsConfig.class, org.yaml.snakeyaml.nodes.Tag.MAP);
 
         Yaml yaml = new Yaml(representer, options);
         try (FileWriter writer = new FileWriter(path.toFile())) {
@@ -107,6 +121,9 @@ public class JciConfig {
     public BranchProtectionConfig getBranchProtection() { return branchProtection; }
     public void setBranchProtection(BranchProtectionConfig branchProtection) { this.branchProtection = branchProtection; }
 
+    public SecretsConfig getSecrets() { return secrets; }
+    public void setSecrets(SecretsConfig secrets) { this.secrets = secrets; }
+
     // Nested config classes
     public static class ProjectConfig {
         private String name = "";
@@ -121,11 +138,32 @@ public class JciConfig {
     public static class BuildConfig {
         private String tool = "maven"; // maven or gradle
         private String javaVersion = "21";
+        private String threads = "";         // Maven -T value, e.g. "1C" (empty = single-threaded)
+        private boolean buildCache = false;  // Maven Build Cache Extension / Gradle build cache
+        private boolean parallel = false;    // Gradle org.gradle.parallel
+        private boolean configurationCache = false; // Gradle configuration cache
+        private boolean selectiveBuild = false; // PR workflows build only modules affected by the diff
+        private String jciVersion = "1.0.0";   // jci release the generated workflows download
+        private String jciSha256 = "";         // SHA-256 of that release jar, required by selectiveBuild
 
         public String getTool() { return tool; }
         public void setTool(String tool) { this.tool = tool; }
         public String getJavaVersion() { return javaVersion; }
         public void setJavaVersion(String javaVersion) { this.javaVersion = javaVersion; }
+        public String getThreads() { return threads; }
+        public void setThreads(String threads) { this.threads = threads; }
+        public boolean isBuildCache() { return buildCache; }
+        public void setBuildCache(boolean buildCache) { this.buildCache = buildCache; }
+        public boolean isParallel() { return parallel; }
+        public void setParallel(boolean parallel) { this.parallel = parallel; }
+        public boolean isConfigurationCache() { return configurationCache; }
+        public void setConfigurationCache(boolean configurationCache) { this.configurationCache = configurationCache; }
+        public boolean isSelectiveBuild() { return selectiveBuild; }
+        public void setSelectiveBuild(boolean selectiveBuild) { this.selectiveBuild = selectiveBuild; }
+        public String getJciVersion() { return jciVersion; }
+        public void setJciVersion(String jciVersion) { this.jciVersion = jciVersion; }
+        public String getJciSha256() { return jciSha256; }
+        public void setJciSha256(String jciSha256) { this.jciSha256 = jciSha256; }
     }
 
     public static class GitConfig {
@@ -163,6 +201,9 @@ public class JciConfig {
         private TestWorkflowConfig test = new TestWorkflowConfig();
         private WorkflowToggle sonar = new WorkflowToggle(true);
         private WorkflowToggle docker = new WorkflowToggle(true);
+        private BenchWorkflowConfig bench = new BenchWorkflowConfig();
+        private boolean pipeline = false; // single ci.yml: build once, fan out to test/sonar/docker
+        private boolean matrix = false;   // multi-module: one parallel build job per independent module group
 
         public WorkflowToggle getBuild() { return build; }
         public void setBuild(WorkflowToggle build) { this.build = build; }
@@ -172,6 +213,12 @@ public class JciConfig {
         public void setSonar(WorkflowToggle sonar) { this.sonar = sonar; }
         public WorkflowToggle getDocker() { return docker; }
         public void setDocker(WorkflowToggle docker) { this.docker = docker; }
+        public BenchWorkflowConfig getBench() { return bench; }
+        public void setBench(BenchWorkflowConfig bench) { this.bench = bench; }
+        public boolean isPipeline() { return pipeline; }
+        public void setPipeline(boolean pipeline) { this.pipeline = pipeline; }
+        public boolean isMatrix() { return matrix; }
+        public void setMatrix(boolean matrix) { this.matrix = matrix; }
 
         public static class WorkflowToggle {
             private boolean enabled = true;
@@ -202,6 +249,16 @@ public class JciConfig {
                 public void setMinCoverage(int minCoverage) { this.minCoverage = minCoverage; }
             }
         }
+
+        public static class BenchWorkflowConfig {
+            private boolean enabled = false;
+            private int threshold = 10; // max allowed regression per benchmark, in percent
+
+            public boolean isEnabled() { return enabled; }
+            public void setEnabled(boolean enabled) { this.enabled = enabled; }
+            public int getThreshold() { return threshold; }
+            public void setThreshold(int threshold) { this.threshold = threshold; }
+        }
     }
 
     public static class SonarConfig {
@@ -231,6 +288,14 @@ public class JciConfig {
         private String registry = "ghcr.io";
         private String imageName = "";
         private int port = 8080;
+        private boolean layered = false; // split Spring Boot jar into dependency/application layers
+        private boolean jlink = false;   // build a minimal runtime from jdeps-detected modules
+        private String startupOptimization = "none"; // none, cds, aot or auto
+        private boolean cacheMounts = false; // BuildKit cache mounts for ~/.m2 / ~/.gradle
+        private boolean fromArtifact = false; // copy the runner-built jar instead of building in the image
+        private String runtime = "jvm"; // jvm or native (GraalVM native-image)
+        private String jvmProfile = "none"; // latency, throughput, small-footprint or none
+        private int activeProcessorCount = 0; // 0 = use the container CPU limit
 
         public String getRegistry() { return registry; }
         public void setRegistry(String registry) { this.registry = registry; }
@@ -238,6 +303,22 @@ public class JciConfig {
         public void setImageName(String imageName) { this.imageName = imageName; }
         public int getPort() { return port; }
         public void setPort(int port) { this.port = port; }
+        public boolean isLayered() { return layered; }
+        public void setLayered(boolean layered) { this.layered = layered; }
+        public boolean isJlink() { return jlink; }
+        public void setJlink(boolean jlink) { this.jlink = jlink; }
+        public String getStartupOptimization() { return startupOptimization; }
+        public void setStartupOptimization(String startupOptimization) { this.startupOptimization = startupOptimization; }
+        public boolean isCacheMounts() { return cacheMounts; }
+        public void setCacheMounts(boolean cacheMounts) { this.cacheMounts = cacheMounts; }
+        public boolean isFromArtifact() { return fromArtifact; }
+        public void setFromArtifact(boolean fromArtifact) { this.fromArtifact = fromArtifact; }
+        public String getRuntime() { return runtime; }
+        public void setRuntime(String runtime) { this.runtime = runtime; }
+        public String getJvmProfile() { return jvmProfile; }
+        public void setJvmProfile(String jvmProfile) { this.jvmProfile = jvmProfile; }
+        public int getActiveProcessorCount() { return activeProcessorCount; }
+        public void setActiveProcessorCount(int activeProcessorCount) { this.activeProcessorCount = activeProcessorCount; }
     }
 
     public static class BranchProtectionConfig {
@@ -268,4 +349,20 @@ public class JciConfig {
             public void setEnforceAdmins(boolean enforceAdmins) { this.enforceAdmins = enforceAdmins; }
         }
     }
+
+    public static class SecretsConfig {
+        private List<String> names = new ArrayList<>();
+        private List<String> repos = new ArrayList<>();
+        private String envFile = "";
+        private int maxAgeDays = 0;
+
+        public List<String> getNames() { return names; }
+        public void setNames(List<String> names) { this.names = names; }
+        public List<String> getRepos() { return repos; }
+        public void setRepos(List<String> repos) { this.repos = repos; }
+        public String getEnvFile() { return envFile; }
+        public void setEnvFile(String envFile) { this.envFile = envFile; }
+        public int getMaxAgeDays() { return maxAgeDays; }
+        public void setMaxAgeDays(int maxAgeDays) { this.maxAgeDays = maxAgeDays; }
+    }
 }
@@ -0,0 +1,115 @@
+package com.jci.coverage;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Added and modified lines per file, built from {@code git diff -U0} output one line at a time,
+ * so the diff never has to be held in memory.
+ */
+public class ChangedLines implements Consumer<String> {
+
+    private final Map<String, Ranges> files = new LinkedHashMap<>();
+    private Ranges current;
+    private int pendingHunkLines;
+
+    @Override
+    public void accept(String line) {
+        if (pendingHunkLines > 0) {
+            // Hunk content; a '+++' here is an added line that starts with '++', not a header
+            if (!line.startsWith("\\")) {
+                pendingHunkLines--;
+            }
+            return;
+        }
+        if (line.startsWith("diff ")) {
+            current = null;
+        } else if (line.startsWith("+++ ")) {
+            String path = path(line.substring(4));
+            current = path == null ? null : files.computeIfAbsent(path, name -> new Ranges());
+        } else if (line.startsWith("@@ ")) {
+            hunk(line);
+        }
+    }
+
+    public Map<String, Ranges> files() {
+        return files;
+    }
+
+    private void hunk(String header) {
+        // @@ -start[,count] +start[,count] @@ context
+        int minus = header.indexOf('-');
+        int plus = header.indexOf('+', minus);
+        int end = header.indexOf(' ', plus);
+        if (minus < 0 || plus < 0 || end < 0) {
+            return;
+        }
+        int[] removed = range(header.substring(minus + 1, plus - 1));
+        int[] added = range(header.substring(plus + 1, end));
+        pendingHunkLines = removed[1] + added[1];
+        if (current != null && added[1] > 0) {
+            current.add(added[0], added[0] + added[1] - 1);
+        }
+    }
+
+    private static int[] range(String spec) {
+        int comma = spec.indexOf(',');
+        return comma < 0
+            ? new int[] {Integer.parseInt(spec), 1}
+            : new int[] {Integer.parseInt(spec.substring(0, comma)), Integer.parseInt(spec.substring(comma + 1))};
+    }
+
+    private static String path(String spec) {
+        if (spec.equals("/dev/null")) {
+            return null; // deleted file
+        }
+        if (spec.startsWith("\"") && spec.endsWith("\"")) {
+            // Paths with special characters are quoted C-style
+            spec = spec.substring(1, spec.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        return spec.startsWith("b/") ? spec.substring(2) : spec;
+    }
+
+    /**
+     * Sorted, non-overlapping line intervals of one file.
+     */
+    public static class Ranges {
+
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int size;
+
+        void add(int start, int end) {
+            if (size > 0 && start <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], end);
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        public boolean contains(int line) {
+            int index = Arrays.binarySearch(starts, 0, size, line);
+            if (index >= 0) {
+                return true;
+            }
+            int before = -index - 2;
+            return before >= 0 && line <= ends[before];
+        }
+
+        public int lineCount() {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                count += ends[i] - starts[i] + 1;
+            }
+            return count;
+        }
+    }
+}
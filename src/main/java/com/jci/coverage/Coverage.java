@@ -0,0 +1,24 @@
+package com.jci.coverage;
+
+/**
+ * Missed and covered items of one counter.
+ */
+public record Coverage(long missed, long covered) {
+
+    public static final Coverage EMPTY = new Coverage(0, 0);
+
+    public long total() {
+        return missed + covered;
+    }
+
+    /**
+     * Covered share in percent, or NaN when there is nothing to cover.
+     */
+    public double percent() {
+        return total() == 0 ? Double.NaN : covered * 100.0 / total();
+    }
+
+    public Coverage plus(Coverage other) {
+        return new Coverage(missed + other.missed, covered + other.covered);
+    }
+}
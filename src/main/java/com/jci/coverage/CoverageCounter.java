@@ -0,0 +1,6 @@
+package com.jci.coverage;
+
+/**
+ * JaCoCo counter types, as in the {@code type} attribute of {@code <counter>}.
+ */
+public enum CoverageCounter { INSTRUCTION, BRANCH, LINE, COMPLEXITY, METHOD, CLASS }
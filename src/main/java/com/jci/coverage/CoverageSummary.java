@@ -0,0 +1,44 @@
+package com.jci.coverage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Report and per-package totals of one or more JaCoCo reports (e.g. one per module).
+ */
+public class CoverageSummary {
+
+    private final Map<CoverageCounter, Coverage> total = new EnumMap<>(CoverageCounter.class);
+    private final Map<String, Map<CoverageCounter, Coverage>> packages = new TreeMap<>();
+
+    public static CoverageSummary read(Collection<Path> reports) throws IOException {
+        CoverageSummary summary = new CoverageSummary();
+        for (Path report : reports) {
+            JacocoReportParser.parse(report, summary::add);
+        }
+        return summary;
+    }
+
+    void add(String packageName, CoverageCounter type, long missed, long covered) {
+        Map<CoverageCounter, Coverage> target = packageName == null
+            ? total
+            : packages.computeIfAbsent(packageName, name -> new EnumMap<>(CoverageCounter.class));
+        target.merge(type, new Coverage(missed, covered), Coverage::plus);
+    }
+
+    public Coverage total(CoverageCounter type) {
+        return total.getOrDefault(type, Coverage.EMPTY);
+    }
+
+    public Map<String, Map<CoverageCounter, Coverage>> packages() {
+        return packages;
+    }
+
+    public Coverage forPackage(String packageName, CoverageCounter type) {
+        return packages.getOrDefault(packageName, Map.of()).getOrDefault(type, Coverage.EMPTY);
+    }
+}
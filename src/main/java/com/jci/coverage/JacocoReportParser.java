@@ -0,0 +1,168 @@
+package com.jci.coverage;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams a JaCoCo XML report with StAX and hands counters to a {@link Listener}, so memory use
+ * stays flat no matter how large the report is. Class and method counters are not reported;
+ * package totals are, and so are the report totals. Line-level data is available through
+ * {@link #parseLines(Path, LineListener)}.
+ */
+public class JacocoReportParser {
+
+    public interface Listener {
+        /**
+         * A counter of {@code packageName}, or of the whole report when it is null.
+         */
+        void counter(String packageName, CoverageCounter type, long missed, long covered);
+    }
+
+    public interface LineListener {
+        /**
+         * Called for every {@code <sourcefile>}, e.g. with {@code com/example/Foo.java}.
+         * Returns whether the lines of this file are wanted.
+         */
+        boolean sourceFile(String path);
+
+        void line(int number, int missedInstructions, int coveredInstructions, int missedBranches, int coveredBranches);
+    }
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    public static void parse(Path report, Listener listener) throws IOException {
+        parse(report, listener, null);
+    }
+
+    public static void parse(InputStream in, Listener listener) throws IOException {
+        parse(in, listener, null);
+    }
+
+    public static void parseLines(Path report, LineListener lines) throws IOException {
+        parse(report, null, lines);
+    }
+
+    private static void parse(Path report, Listener listener, LineListener lines) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(report), 64 * 1024)) {
+            parse(in, listener, lines);
+        } catch (IOException e) {
+            throw new IOException(report + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void parse(InputStream in, Listener listener, LineListener lines) throws IOException {
+        try {
+            XMLStreamReader xml = FACTORY.createXMLStreamReader(in);
+            try {
+                read(xml, listener, lines);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid JaCoCo report: " + e.getMessage(), e);
+        }
+    }
+
+    private static void read(XMLStreamReader xml, Listener listener, LineListener lines)
+            throws XMLStreamException, IOException {
+        int depth = 0;
+        String packageName = null;
+        String packagePath = null;
+        int packageDepth = -1;
+        boolean wantLines = false;
+        boolean sawReport = false;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String name = xml.getLocalName();
+                if (depth == 1) {
+                    if (!name.equals("report")) {
+                        throw new IOException("Not a JaCoCo report: root element is <" + name + ">");
+                    }
+                    sawReport = true;
+                } else if (name.equals("package")) {
+                    packagePath = xml.getAttributeValue(null, "name");
+                    packageName = packagePath.replace('/', '.');
+                    packageDepth = depth;
+                } else if (name.equals("line")) {
+                    if (wantLines) {
+                        line(xml, lines);
+                    }
+                } else if (name.equals("sourcefile")) {
+                    if (lines != null && packagePath != null) {
+                        String file = xml.getAttributeValue(null, "name");
+                        wantLines = lines.sourceFile(packagePath.isEmpty() ? file : packagePath + "/" + file);
+                    }
+                } else if (listener != null && name.equals("counter")) {
+                    // Only counters that are direct children of <package> or <report>
+                    if (depth == packageDepth + 1) {
+                        counter(xml, packageName, listener);
+                    } else if (depth == 2) {
+                        counter(xml, null, listener);
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (wantLines && xml.getLocalName().equals("sourcefile")) {
+                    wantLines = false;
+                }
+                if (depth == packageDepth) {
+                    packageName = null;
+                    packagePath = null;
+                    packageDepth = -1;
+                }
+                depth--;
+            }
+        }
+        if (!sawReport) {
+            throw new IOException("Not a JaCoCo report: no <report> element");
+        }
+    }
+
+    private static void counter(XMLStreamReader xml, String packageName, Listener listener) throws IOException {
+        String type = xml.getAttributeValue(null, "type");
+        CoverageCounter counter;
+        try {
+            counter = CoverageCounter.valueOf(type);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return; // counter types added by newer JaCoCo versions
+        }
+        try {
+            listener.counter(packageName, counter,
+                Long.parseLong(xml.getAttributeValue(null, "missed")),
+                Long.parseLong(xml.getAttributeValue(null, "covered")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + type + " counter at line " + xml.getLocation().getLineNumber());
+        }
+    }
+
+    private static void line(XMLStreamReader xml, LineListener lines) throws IOException {
+        try {
+            lines.line(Integer.parseInt(xml.getAttributeValue(null, "nr")),
+                Integer.parseInt(xml.getAttributeValue(null, "mi")),
+                Integer.parseInt(xml.getAttributeValue(null, "ci")),
+                Integer.parseInt(xml.getAttributeValue(null, "mb")),
+                Integer.parseInt(xml.getAttributeValue(null, "cb")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid <line> at line " + xml.getLocation().getLineNumber());
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Reports reference report.dtd; never resolve it or any other external entity
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return factory;
+    }
+}
@@ -0,0 +1,138 @@
+package com.jci.coverage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Coverage of changed lines: intersects the changed-line index with the line data of JaCoCo
+ * reports. Only lines JaCoCo knows about (lines with bytecode) count; a line is covered when
+ * at least one of its instructions ran.
+ */
+public class NewCodeCoverage {
+
+    /** Production source roots; the rest of the path is what a report names the file by. */
+    private static final Pattern SOURCE_ROOT = Pattern.compile("(?:^|/)src/main/(?:java|kotlin|groovy|scala)/");
+
+    /** Where Maven and Gradle write per-module reports; everything before it is the module. */
+    private static final Pattern REPORT_DIR = Pattern.compile("(?:^|/)(?:target/site|build/reports)/");
+
+    public record FileCoverage(String path, Coverage lines, Coverage branches) {}
+
+    /**
+     * Per changed file with coverable changed lines, in diff order. Reports are resolved against
+     * {@code projectPath} to find the module that wrote them.
+     */
+    public static List<FileCoverage> compute(ChangedLines changes, Path projectPath, Collection<Path> reports)
+            throws IOException {
+        // Reports name files by package path (com/example/Foo.java), the diff by repository path
+        // (core/src/main/java/com/example/Foo.java); only production sources under a source root
+        // can match, so a test class or a file outside any root never borrows another's coverage
+        Map<String, List<Tally>> byPackagePath = new HashMap<>();
+        Map<String, Tally> tallies = new LinkedHashMap<>();
+        changes.files().forEach((path, ranges) -> {
+            Matcher root = SOURCE_ROOT.matcher(path);
+            if (root.find()) {
+                Tally tally = new Tally(path.substring(0, root.start() == 0 ? 0 : root.start() + 1), ranges);
+                tallies.put(path, tally);
+                byPackagePath.computeIfAbsent(path.substring(root.end()), p -> new ArrayList<>(1)).add(tally);
+            }
+        });
+
+        Path root = projectPath.toAbsolutePath().normalize();
+        for (Path report : reports) {
+            String module = module(root, report);
+            JacocoReportParser.parseLines(report, new JacocoReportParser.LineListener() {
+                private final List<Tally> targets = new ArrayList<>();
+
+                @Override
+                public boolean sourceFile(String path) {
+                    targets.clear();
+                    for (Tally tally : byPackagePath.getOrDefault(path, List.of())) {
+                        if (module == null || module.equals(tally.module)) {
+                            targets.add(tally);
+                        }
+                    }
+                    return !targets.isEmpty();
+                }
+
+                @Override
+                public void line(int number, int missedInstructions, int coveredInstructions,
+                                 int missedBranches, int coveredBranches) {
+                    for (Tally tally : targets) {
+                        if (tally.ranges.contains(number)) {
+                            tally.merge(number, coveredInstructions > 0, missedBranches, coveredBranches);
+                        }
+                    }
+                }
+            });
+        }
+
+        List<FileCoverage> result = new ArrayList<>();
+        tallies.forEach((path, tally) -> {
+            if (!tally.lines.isEmpty()) {
+                result.add(tally.coverage(path));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The module directory (with trailing slash, empty for the root) a report belongs to, or null
+     * when it can't tell, as for aggregate reports and reports outside the project, which then
+     * apply to every module.
+     */
+    static String module(Path projectPath, Path report) {
+        Path absolute = report.toAbsolutePath().normalize();
+        if (!absolute.startsWith(projectPath)) {
+            return null;
+        }
+        String relative = projectPath.relativize(absolute).toString().replace('\\', '/');
+        Matcher dir = REPORT_DIR.matcher(relative);
+        if (!dir.find() || relative.contains("jacoco-aggregate/")) {
+            return null;
+        }
+        return relative.substring(0, dir.start() == 0 ? 0 : dir.start() + 1);
+    }
+
+    private static class Tally {
+        final String module;
+        final ChangedLines.Ranges ranges;
+        /** Line number to {covered, branches, covered branches}, merged across reports. */
+        final Map<Integer, int[]> lines = new TreeMap<>();
+
+        Tally(String module, ChangedLines.Ranges ranges) {
+            this.module = module;
+            this.ranges = ranges;
+        }
+
+        /** A line reported twice (module and aggregate report) counts once, with the best result. */
+        void merge(int number, boolean covered, int missedBranches, int coveredBranches) {
+            int[] line = lines.computeIfAbsent(number, n -> new int[3]);
+            line[0] |= covered ? 1 : 0;
+            line[1] = Math.max(line[1], missedBranches + coveredBranches);
+            line[2] = Math.max(line[2], coveredBranches);
+        }
+
+        FileCoverage coverage(String path) {
+            long coveredLines = 0;
+            long branches = 0;
+            long coveredBranches = 0;
+            for (int[] line : lines.values()) {
+                coveredLines += line[0];
+                branches += line[1];
+                coveredBranches += line[2];
+            }
+            return new FileCoverage(path, new Coverage(lines.size() - coveredLines, coveredLines),
+                new Coverage(branches - coveredBranches, coveredBranches));
+        }
+    }
+}
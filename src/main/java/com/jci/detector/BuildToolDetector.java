@@ -3,6 +3,8 @@ package com.jci.detector;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -28,8 +30,31 @@ public class BuildToolDetector {
         BuildTool buildTool,
         String javaVersion,
         String projectName,
-        boolean useKotlinDsl
-    ) {}
+        boolean useKotlinDsl,
+        List<String> configurationCacheIssues
+    ) {
+        public boolean isConfigurationCacheCompatible() {
+            return configurationCacheIssues.isEmpty();
+        }
+    }
+
+    // Build script constructs known to break the Gradle configuration cache
+    private static final List<ConfigurationCacheCheck> CONFIGURATION_CACHE_CHECKS = List.of(
+        new ConfigurationCacheCheck(
+            Pattern.compile("\\b(?:buildFinished|addBuildListener|BuildListener)\\b"),
+            "build listeners (buildFinished/addBuildListener) are not supported"),
+        new ConfigurationCacheCheck(
+            Pattern.compile("taskGraph\\.(?:beforeTask|afterTask|addTaskExecutionListener)"),
+            "task graph listeners are not supported"),
+        new ConfigurationCacheCheck(
+            Pattern.compile("do(?:First|Last)\\s*\\{[^}]*\\bproject\\.", Pattern.DOTALL),
+            "task actions reference 'project' at execution time"),
+        new ConfigurationCacheCheck(
+            Pattern.compile("com\\.github\\.johnrengelman\\.shadow"),
+            "the com.github.johnrengelman.shadow plugin is not compatible (use com.gradleup.shadow)")
+    );
+
+    private record ConfigurationCacheCheck(Pattern pattern, String message) {}
 
     public Optional<DetectionResult> detect(Path projectPath) {
         // Check for Maven
@@ -70,12 +95,13 @@ public class BuildToolDetector {
                 javaVersion = javaMatcher.group(1).trim();
             }
 
-            // Extract project name (artifactId)
+            // Extract project name (artifactId), skipping the parent's, which usually comes first
             Pattern artifactIdPattern = Pattern.compile(
                 "<artifactId>([^<]+)</artifactId>",
                 Pattern.MULTILINE
             );
-            Matcher artifactMatcher = artifactIdPattern.matcher(content);
+            Matcher artifactMatcher = artifactIdPattern.matcher(
+                content.replaceFirst("(?s)<parent>.*?</parent>", ""));
             if (artifactMatcher.find()) {
                 projectName = artifactMatcher.group(1).trim();
             }
@@ -83,12 +109,13 @@ public class BuildToolDetector {
             // Use defaults
         }
 
-        return new DetectionResult(BuildTool.MAVEN, javaVersion, projectName, false);
+        return new DetectionResult(BuildTool.MAVEN, javaVersion, projectName, false, List.of());
     }
 
     private DetectionResult detectGradle(Path buildFile, boolean kotlinDsl) {
         String javaVersion = "21";
         String projectName = buildFile.getParent().getFileName().toString();
+        List<String> configurationCacheIssues = new ArrayList<>();
 
         try {
             String content = Files.readString(buildFile);
@@ -103,6 +130,12 @@ public class BuildToolDetector {
                 javaVersion = javaMatcher.group(1).trim();
             }
 
+            for (ConfigurationCacheCheck check : CONFIGURATION_CACHE_CHECKS) {
+                if (check.pattern().matcher(content).find()) {
+                    configurationCacheIssues.add(check.message());
+                }
+            }
+
             // Check settings.gradle for project name
             Path settingsFile = buildFile.getParent().resolve(
                 kotlinDsl ? "settings.gradle.kts" : "settings.gradle"
@@ -121,6 +154,7 @@ public class BuildToolDetector {
             // Use defaults
         }
 
-        return new DetectionResult(BuildTool.GRADLE, javaVersion, projectName, kotlinDsl);
+        return new DetectionResult(BuildTool.GRADLE, javaVersion, projectName, kotlinDsl,
+            List.copyOf(configurationCacheIssues));
     }
 }
@@ -0,0 +1,370 @@
+package com.jci.detector;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inter-module dependency graph of a multi-module Maven reactor or Gradle build.
+ * Module ids are the Maven module directory (as accepted by {@code -pl}) or the Gradle project path.
+ */
+public class ModuleGraph {
+
+    public record Module(String id, String directory, Set<String> dependencies) {}
+
+    private static final Pattern GRADLE_INCLUDE = Pattern.compile("^\\s*include\\b(.*)$", Pattern.MULTILINE);
+    private static final Pattern QUOTED = Pattern.compile("['\"]([^'\"]+)['\"]");
+    private static final Pattern GRADLE_PROJECT_DEPENDENCY = Pattern.compile(
+        "project\\s*\\(\\s*(?:path\\s*[:=]\\s*)?['\"](:[^'\"]+)['\"]");
+    private static final Pattern GRADLE_PROJECT_ACCESSOR = Pattern.compile("\\bprojects\\.([A-Za-z0-9_.]+)");
+
+    private static final List<String> MAVEN_ROOT_BUILD_FILES = List.of("pom.xml", ".mvn/");
+    private static final List<String> GRADLE_ROOT_BUILD_FILES = List.of(
+        "settings.gradle", "settings.gradle.kts", "build.gradle", "build.gradle.kts",
+        "gradle.properties", "gradle/", "buildSrc/");
+
+    private final BuildToolDetector.BuildTool buildTool;
+    private final Map<String, Module> modules;
+
+    ModuleGraph(BuildToolDetector.BuildTool buildTool, Map<String, Module> modules) {
+        this.buildTool = buildTool;
+        this.modules = modules;
+    }
+
+    /**
+     * Discovers modules from the build files found by {@link BuildToolDetector}.
+     */
+    public static Optional<ModuleGraph> load(Path projectPath) throws IOException {
+        if (Files.exists(projectPath.resolve("pom.xml"))) {
+            return Optional.of(loadMaven(projectPath));
+        }
+        if (Files.exists(projectPath.resolve("settings.gradle.kts")) || Files.exists(projectPath.resolve("settings.gradle"))
+                || Files.exists(projectPath.resolve("build.gradle.kts")) || Files.exists(projectPath.resolve("build.gradle"))) {
+            return Optional.of(loadGradle(projectPath));
+        }
+        return Optional.empty();
+    }
+
+    public BuildToolDetector.BuildTool getBuildTool() {
+        return buildTool;
+    }
+
+    /**
+     * Modules in dependency order: every module appears after the modules it depends on.
+     */
+    public List<Module> getModules() {
+        return List.copyOf(modules.values());
+    }
+
+    public boolean isMultiModule() {
+        return !modules.isEmpty();
+    }
+
+    /**
+     * Modules touched by the changed files plus every module that depends on them, in build order.
+     * Root build files (parent pom, settings, wrapper) affect every module; other files outside a
+     * module are ignored.
+     *
+     * @param changedFiles paths relative to the project root, as printed by {@code git diff --name-only}
+     */
+    public List<Module> affected(Collection<String> changedFiles) {
+        Set<String> changed = new LinkedHashSet<>();
+        List<String> rootBuildFiles = buildTool == BuildToolDetector.BuildTool.MAVEN
+            ? MAVEN_ROOT_BUILD_FILES : GRADLE_ROOT_BUILD_FILES;
+
+        for (String file : changedFiles) {
+            String normalized = file.replace('\\', '/');
+            if (rootBuildFiles.stream().anyMatch(root -> root.endsWith("/") ? normalized.startsWith(root) : normalized.equals(root))) {
+                return getModules();
+            }
+            owningModule(normalized).ifPresent(module -> changed.add(module.id()));
+        }
+
+        // Walk reverse edges to collect dependents
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Module module : modules.values()) {
+            for (String dependency : module.dependencies()) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(module.id());
+            }
+        }
+        Set<String> affected = new LinkedHashSet<>(changed);
+        Deque<String> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), List.of())) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        return modules.values().stream().filter(module -> affected.contains(module.id())).toList();
+    }
+
+    /**
+     * Groups modules by dependency depth. Modules in the same level do not depend on each other
+     * and can be built in parallel once all earlier levels are done.
+     */
+    public List<List<Module>> levels() {
+        Map<String, Integer> depth = new HashMap<>();
+        List<List<Module>> levels = new ArrayList<>();
+        for (Module module : modules.values()) {
+            int level = module.dependencies().stream()
+                .mapToInt(dependency -> depth.getOrDefault(dependency, -1) + 1)
+                .max()
+                .orElse(0);
+            depth.put(module.id(), level);
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(module);
+        }
+        return levels;
+    }
+
+    /**
+     * Splits modules into independent groups: no module depends on a module of another group, so
+     * each group can be built on its own. Groups and their modules are in dependency order.
+     */
+    public List<List<Module>> groups() {
+        Map<String, String> root = new HashMap<>();
+        for (Module module : modules.values()) {
+            root.put(module.id(), module.id());
+        }
+        for (Module module : modules.values()) {
+            for (String dependency : module.dependencies()) {
+                if (root.containsKey(dependency)) {
+                    root.put(find(root, dependency), find(root, module.id()));
+                }
+            }
+        }
+        Map<String, List<Module>> groups = new LinkedHashMap<>();
+        for (Module module : modules.values()) {
+            groups.computeIfAbsent(find(root, module.id()), k -> new ArrayList<>()).add(module);
+        }
+        return List.copyOf(groups.values());
+    }
+
+    private static String find(Map<String, String> root, String id) {
+        String parent = root.get(id);
+        if (parent.equals(id)) {
+            return id;
+        }
+        String top = find(root, parent);
+        root.put(id, top);
+        return top;
+    }
+
+    private Optional<Module> owningModule(String file) {
+        Module best = null;
+        for (Module module : modules.values()) {
+            String prefix = module.directory().isEmpty() ? "" : module.directory() + "/";
+            if (file.startsWith(prefix) && (best == null || module.directory().length() > best.directory().length())) {
+                best = module;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    // Maven
+
+    static ModuleGraph loadMaven(Path projectPath) throws IOException {
+        Map<String, PomInfo> poms = new LinkedHashMap<>();
+        collectPoms(projectPath, projectPath, poms);
+
+        Map<String, String> idsByCoordinates = new HashMap<>();
+        for (PomInfo pom : poms.values()) {
+            idsByCoordinates.put(pom.groupId() + ":" + pom.artifactId(), pom.directory());
+        }
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        for (PomInfo pom : poms.values()) {
+            if (pom.directory().isEmpty()) {
+                continue; // the root aggregator is not a buildable module of its own
+            }
+            Set<String> moduleDependencies = new LinkedHashSet<>();
+            for (String coordinates : pom.references()) {
+                String dependency = idsByCoordinates.get(coordinates);
+                if (dependency != null && !dependency.isEmpty() && !dependency.equals(pom.directory())) {
+                    moduleDependencies.add(dependency);
+                }
+            }
+            dependencies.put(pom.directory(), moduleDependencies);
+        }
+        return new ModuleGraph(BuildToolDetector.BuildTool.MAVEN, sortTopologically(dependencies, Map.of()));
+    }
+
+    private record PomInfo(String directory, String groupId, String artifactId, List<String> references) {}
+
+    private static void collectPoms(Path root, Path moduleDir, Map<String, PomInfo> poms) throws IOException {
+        Path pomXml = moduleDir.resolve("pom.xml");
+        if (!Files.exists(pomXml)) {
+            return;
+        }
+        String directory = root.relativize(moduleDir).toString().replace('\\', '/');
+        if (poms.containsKey(directory)) {
+            return;
+        }
+
+        Element project = parseXml(pomXml).getDocumentElement();
+        Element parent = child(project, "parent");
+        String groupId = text(project, "groupId");
+        if (groupId == null && parent != null) {
+            groupId = text(parent, "groupId");
+        }
+        String artifactId = text(project, "artifactId");
+
+        List<String> references = new ArrayList<>();
+        if (parent != null) {
+            references.add(text(parent, "groupId") + ":" + text(parent, "artifactId"));
+        }
+        Element dependencies = child(project, "dependencies");
+        if (dependencies != null) {
+            for (Element dependency : children(dependencies, "dependency")) {
+                String dependencyGroup = text(dependency, "groupId");
+                if (dependencyGroup == null || dependencyGroup.contains("${project.groupId}")
+                        || dependencyGroup.contains("${project.parent.groupId}")) {
+                    dependencyGroup = groupId;
+                }
+                references.add(dependencyGroup + ":" + text(dependency, "artifactId"));
+            }
+        }
+        poms.put(directory, new PomInfo(directory, groupId, artifactId, references));
+
+        Element modules = child(project, "modules");
+        if (modules != null) {
+            for (Element module : children(modules, "module")) {
+                collectPoms(root, moduleDir.resolve(module.getTextContent().trim()).normalize(), poms);
+            }
+        }
+    }
+
+    private static Document parseXml(Path file) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(file.toFile());
+        } catch (Exception e) {
+            throw new IOException("Failed to parse " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Element child(Element parent, String name) {
+        List<Element> matches = children(parent, name);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    private static List<Element> children(Element parent, String name) {
+        List<Element> result = new ArrayList<>();
+        NodeList nodes = parent.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            if (node instanceof Element element && name.equals(element.getTagName())) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    private static String text(Element parent, String name) {
+        Element element = child(parent, name);
+        return element != null ? element.getTextContent().trim() : null;
+    }
+
+    // Gradle
+
+    static ModuleGraph loadGradle(Path projectPath) throws IOException {
+        Path settings = Files.exists(projectPath.resolve("settings.gradle.kts"))
+            ? projectPath.resolve("settings.gradle.kts")
+            : projectPath.resolve("settings.gradle");
+
+        Map<String, String> directories = new LinkedHashMap<>();
+        if (Files.exists(settings)) {
+            Matcher include = GRADLE_INCLUDE.matcher(Files.readString(settings));
+            while (include.find()) {
+                Matcher quoted = QUOTED.matcher(include.group(1));
+                while (quoted.find()) {
+                    String path = quoted.group(1).startsWith(":") ? quoted.group(1) : ":" + quoted.group(1);
+                    directories.put(path, path.substring(1).replace(':', '/'));
+                }
+            }
+        }
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        for (Map.Entry<String, String> project : directories.entrySet()) {
+            Set<String> projectDependencies = new LinkedHashSet<>();
+            for (String buildFileName : List.of("build.gradle.kts", "build.gradle")) {
+                Path buildFile = projectPath.resolve(project.getValue()).resolve(buildFileName);
+                if (!Files.exists(buildFile)) {
+                    continue;
+                }
+                String content = Files.readString(buildFile);
+                Matcher dependency = GRADLE_PROJECT_DEPENDENCY.matcher(content);
+                while (dependency.find()) {
+                    projectDependencies.add(dependency.group(1));
+                }
+                Matcher accessor = GRADLE_PROJECT_ACCESSOR.matcher(content);
+                while (accessor.find()) {
+                    projectDependencies.add(accessorToPath(accessor.group(1)));
+                }
+            }
+            projectDependencies.remove(project.getKey());
+            projectDependencies.retainAll(directories.keySet());
+            dependencies.put(project.getKey(), projectDependencies);
+        }
+        return new ModuleGraph(BuildToolDetector.BuildTool.GRADLE, sortTopologically(dependencies, directories));
+    }
+
+    /**
+     * Converts a type-safe project accessor such as {@code projects.sharedUtils.core} to {@code :shared-utils:core}.
+     */
+    static String accessorToPath(String accessor) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : accessor.split("\\.")) {
+            path.append(':').append(segment.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase());
+        }
+        return path.toString();
+    }
+
+    private static Map<String, Module> sortTopologically(Map<String, Set<String>> dependencies,
+                                                         Map<String, String> directories) {
+        Map<String, Module> sorted = new LinkedHashMap<>();
+        Set<String> visiting = new LinkedHashSet<>();
+        for (String id : dependencies.keySet()) {
+            visit(id, dependencies, directories, sorted, visiting);
+        }
+        return sorted;
+    }
+
+    private static void visit(String id, Map<String, Set<String>> dependencies, Map<String, String> directories,
+                              Map<String, Module> sorted, Set<String> visiting) {
+        if (sorted.containsKey(id) || !visiting.add(id)) {
+            return; // already placed, or a cycle which the build tool itself will report
+        }
+        for (String dependency : dependencies.get(id)) {
+            visit(dependency, dependencies, directories, sorted, visiting);
+        }
+        visiting.remove(id);
+        sorted.put(id, new Module(id, directories.getOrDefault(id, id), dependencies.get(id)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.jci.docker;
+
+public final class JavaVersion {
+
+    private JavaVersion() {}
+
+    /**
+     * Returns the feature release number of a version string such as "21", "17.0.2" or "1.8".
+     */
+    public static int feature(String version) {
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("Java version is not set");
+        }
+        String trimmed = version.trim();
+        if (trimmed.startsWith("1.")) {
+            trimmed = trimmed.substring(2);
+        }
+        int end = 0;
+        while (end < trimmed.length() && Character.isDigit(trimmed.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            throw new IllegalArgumentException("Unrecognized Java version: " + version);
+        }
+        return Integer.parseInt(trimmed.substring(0, end));
+    }
+}
@@ -0,0 +1,103 @@
+package com.jci.docker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container-aware JVM tuning applied to generated Dockerfiles through JAVA_TOOL_OPTIONS,
+ * so deployments can still override the flags without rebuilding the image.
+ */
+public enum JvmProfile {
+    NONE("none", 0),
+    LATENCY("latency", 21),               // generational ZGC
+    THROUGHPUT("throughput", 11),         // Parallel GC
+    SMALL_FOOTPRINT("small-footprint", 11); // Serial GC, C1 only
+
+    private final String name;
+    private final int minimumJavaVersion;
+
+    JvmProfile(String name, int minimumJavaVersion) {
+        this.name = name;
+        this.minimumJavaVersion = minimumJavaVersion;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinimumJavaVersion() {
+        return minimumJavaVersion;
+    }
+
+    /**
+     * Resolves a configured profile name against the target Java version.
+     *
+     * @throws IllegalArgumentException if the name is unknown or the JDK is too old
+     */
+    public static JvmProfile resolve(String value, String javaVersion) {
+        if (value == null || value.isBlank() || "none".equalsIgnoreCase(value)) {
+            return NONE;
+        }
+
+        for (JvmProfile candidate : values()) {
+            if (candidate.name.equalsIgnoreCase(value.trim())) {
+                if (JavaVersion.feature(javaVersion) < candidate.minimumJavaVersion) {
+                    throw new IllegalArgumentException(
+                        "JVM profile '" + candidate.name + "' requires Java "
+                            + candidate.minimumJavaVersion + "+, configured: " + javaVersion);
+                }
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Unknown JVM profile: " + value + " (expected latency, throughput, small-footprint or none)");
+    }
+
+    /**
+     * JVM options for this profile.
+     *
+     * @param javaVersion          target Java version
+     * @param activeProcessorCount CPUs the JVM should assume, or 0 to use the container limit
+     * @throws IllegalArgumentException if the processor count does not suit the profile's collector
+     */
+    public List<String> options(String javaVersion, int activeProcessorCount) {
+        List<String> options = new ArrayList<>();
+        switch (this) {
+            case NONE -> {
+                // Only the processor count, if configured
+            }
+            case LATENCY -> {
+                // ZGC needs heap headroom for concurrent relocation
+                options.add("-XX:MaxRAMPercentage=75.0");
+                options.add("-XX:+UseZGC");
+                int feature = JavaVersion.feature(javaVersion);
+                if (feature < 23) {
+                    // Generational mode is the default from Java 23 and the flag is obsolete after
+                    options.add("-XX:+ZGenerational");
+                }
+            }
+            case THROUGHPUT -> {
+                options.add("-XX:MaxRAMPercentage=80.0");
+                options.add("-XX:+UseParallelGC");
+            }
+            case SMALL_FOOTPRINT -> {
+                options.add("-XX:MaxRAMPercentage=70.0");
+                options.add("-XX:+UseSerialGC");
+                options.add("-XX:TieredStopAtLevel=1");
+                options.add("-Xss512k");
+            }
+        }
+
+        if (activeProcessorCount < 0) {
+            throw new IllegalArgumentException("activeProcessorCount must not be negative");
+        }
+        if (activeProcessorCount == 1 && (this == LATENCY || this == THROUGHPUT)) {
+            throw new IllegalArgumentException(
+                "JVM profile '" + name + "' needs at least 2 processors; use small-footprint for single-CPU containers");
+        }
+        if (activeProcessorCount > 0) {
+            options.add("-XX:ActiveProcessorCount=" + activeProcessorCount);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,99 @@
+package com.jci.docker;
+
+import java.util.List;
+
+/**
+ * Startup acceleration applied to generated Dockerfiles. A training stage runs the
+ * application once so the JVM can record the classes it loads; the runtime stage then
+ * starts from that archive.
+ */
+public enum StartupOptimization {
+    NONE("none", 0, null),
+    CDS("cds", 13, "app.jsa"),   // dynamic AppCDS archive (-XX:ArchiveClassesAtExit)
+    AOT("aot", 24, "app.aot");   // JEP 483 ahead-of-time class loading & linking cache
+
+    static final String TRAINING_EXIT = "-Dspring.context.exit=onRefresh";
+
+    private final String name;
+    private final int minimumJavaVersion;
+    private final String archiveFile;
+
+    StartupOptimization(String name, int minimumJavaVersion, String archiveFile) {
+        this.name = name;
+        this.minimumJavaVersion = minimumJavaVersion;
+        this.archiveFile = archiveFile;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinimumJavaVersion() {
+        return minimumJavaVersion;
+    }
+
+    public String getArchiveFile() {
+        return archiveFile;
+    }
+
+    /**
+     * Resolves a configured value (none, cds, aot or auto) against the target Java version.
+     * "auto" picks the AOT cache when the JDK supports it and falls back to AppCDS.
+     *
+     * @throws IllegalArgumentException if the value is unknown or the JDK is too old
+     */
+    public static StartupOptimization resolve(String value, String javaVersion) {
+        if (value == null || value.isBlank() || "none".equalsIgnoreCase(value)) {
+            return NONE;
+        }
+
+        int feature = JavaVersion.feature(javaVersion);
+        if ("auto".equalsIgnoreCase(value)) {
+            if (feature >= AOT.minimumJavaVersion) {
+                return AOT;
+            }
+            if (feature >= CDS.minimumJavaVersion) {
+                return CDS;
+            }
+            throw new IllegalArgumentException(
+                "Startup optimization requires Java " + CDS.minimumJavaVersion + "+, configured: " + javaVersion);
+        }
+
+        for (StartupOptimization candidate : values()) {
+            if (candidate.name.equalsIgnoreCase(value.trim())) {
+                if (feature < candidate.minimumJavaVersion) {
+                    throw new IllegalArgumentException(
+                        "Startup optimization '" + candidate.name + "' requires Java "
+                            + candidate.minimumJavaVersion + "+, configured: " + javaVersion);
+                }
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Unknown startup optimization: " + value + " (expected none, cds, aot or auto)");
+    }
+
+    /**
+     * Shell command run in the training stage to produce the archive.
+     */
+    public String trainingCommand(String launchTarget) {
+        return switch (this) {
+            case NONE -> "";
+            case CDS -> "java -XX:ArchiveClassesAtExit=" + archiveFile + " " + TRAINING_EXIT + " " + launchTarget;
+            case AOT -> "java -XX:AOTMode=record -XX:AOTConfiguration=app.aotconf " + TRAINING_EXIT + " " + launchTarget
+                + " && \\\n    java -XX:AOTMode=create -XX:AOTConfiguration=app.aotconf -XX:AOTCache=" + archiveFile
+                + " " + launchTarget;
+        };
+    }
+
+    /**
+     * JVM options added to the runtime entrypoint to use the archive.
+     */
+    public List<String> runtimeOptions() {
+        return switch (this) {
+            case NONE -> List.of();
+            case CDS -> List.of("-XX:SharedArchiveFile=" + archiveFile);
+            case AOT -> List.of("-XX:AOTCache=" + archiveFile);
+        };
+    }
+}
@@ -1,19 +1,31 @@
 package com.jci.git;
 
-import java.io.BufferedReader;
+import com.jci.process.ProcessRunner;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 public class GitOperations {
 
-    private final Path workingDirectory;
+    // Network failures worth another attempt; anything else (rejected push, auth) is final
+    private static final ProcessRunner.RetryPolicy NETWORK_RETRY = ProcessRunner.RetryPolicy.onError(3,
+        Duration.ofSeconds(2), Pattern.compile(
+            "Could not resolve host|Connection (timed out|reset|refused)|remote end hung up unexpectedly"
+                + "|early EOF|RPC failed|The requested URL returned error: 5\\d\\d",
+            Pattern.CASE_INSENSITIVE));
+
+    private static final Duration PUSH_TIMEOUT = Duration.ofMinutes(10);
+
+    private final ProcessRunner runner;
 
     public GitOperations(Path workingDirectory) {
-        this.workingDirectory = workingDirectory;
+        this.runner = new ProcessRunner(workingDirectory);
     }
 
     public record CommandResult(int exitCode, String output, String error) {
@@ -23,32 +35,17 @@ public class GitOperations {
     }
 
     public CommandResult execute(String... args) throws IOException, InterruptedException {
+        return execute(ProcessRunner.Options.defaults(), args);
+    }
+
+    private CommandResult execute(ProcessRunner.Options options, String... args)
+            throws IOException, InterruptedException {
         List<String> command = new ArrayList<>();
         command.add("git");
         command.addAll(List.of(args));
 
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(workingDirectory.toFile());
-
-        Process process = pb.start();
-
-        String output = readStream(process.getInputStream());
-        String error = readStream(process.getErrorStream());
-
-        int exitCode = process.waitFor();
-        return new CommandResult(exitCode, output, error);
-    }
-
-    private String readStream(java.io.InputStream stream) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (sb.length() > 0) sb.append("\n");
-                sb.append(line);
-            }
-        }
-        return sb.toString();
+        ProcessRunner.Result result = runner.run(command, options);
+        return new CommandResult(result.exitCode(), result.output(), result.error());
     }
 
     public boolean isGitRepository() {
@@ -115,6 +112,30 @@ public class GitOperations {
         return execute("status", "--porcelain");
     }
 
+    /**
+     * Files changed on this branch since it diverged from {@code base}, relative to the working directory.
+     */
+    public List<String> changedFiles(String base) throws IOException, InterruptedException {
+        CommandResult result = execute("diff", "--name-only", "--relative", base + "...HEAD");
+        if (!result.isSuccess()) {
+            throw new IOException("git diff against " + base + " failed: " + result.error().trim());
+        }
+        return result.output().lines().filter(line -> !line.isBlank()).toList();
+    }
+
+    /**
+     * Streams the zero-context diff of this branch against {@code base} to {@code lines}, one line at
+     * a time, so large diffs are never held in memory.
+     */
+    public void diff(String base, Consumer<String> lines) throws IOException, InterruptedException {
+        ProcessRunner.Result result = runner.stream(List.of("git", "diff", "-U0", "--no-color", "--no-ext-diff",
+            "--src-prefix=a/", "--dst-prefix=b/", "--relative", base + "...HEAD"),
+            ProcessRunner.Options.defaults(), lines);
+        if (!result.isSuccess()) {
+            throw new IOException("git diff against " + base + " failed: " + result.error().trim());
+        }
+    }
+
     public CommandResult add(String... files) throws IOException, InterruptedException {
         String[] args = new String[files.length + 1];
         args[0] = "add";
@@ -127,10 +148,14 @@ public class GitOperations {
     }
 
     public CommandResult push() throws IOException, InterruptedException {
-        return execute("push");
+        return execute(pushOptions(), "push");
     }
 
     public CommandResult pushUpstream(String branch) throws IOException, InterruptedException {
-        return execute("push", "-u", "origin", branch);
+        return execute(pushOptions(), "push", "-u", "origin", branch);
+    }
+
+    private static ProcessRunner.Options pushOptions() {
+        return ProcessRunner.Options.defaults().withTimeout(PUSH_TIMEOUT).withRetry(NETWORK_RETRY);
     }
 }
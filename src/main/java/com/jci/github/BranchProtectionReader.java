@@ -0,0 +1,349 @@
+package com.jci.github;
+
+import com.jci.config.JciConfig.BranchProtectionConfig.BranchRules;
+import com.jci.json.Json;
+import com.jci.json.JsonReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads branch protection of many repositories at once. Targets are combined into aliased GraphQL
+ * queries ({@code r0: repository(...) { b0: ref(...) { branchProtectionRule { ... } } }}), chunked
+ * so each query stays well under GitHub's cost and timeout limits, and the chunks are sent
+ * concurrently through the {@link RateLimitScheduler}. Rules are mapped onto {@link BranchRules},
+ * the model the configuration uses.
+ */
+public class BranchProtectionReader {
+
+    // Refs per query; each costs one node, and large queries risk GitHub's 10 second timeout
+    static final int DEFAULT_CHUNK_SIZE = 50;
+    public static final int MAX_CHUNK_SIZE = 100;
+
+    private static final String RULE_FIELDS = "requiresApprovingReviews requiredApprovingReviewCount "
+        + "dismissesStaleReviews requiresStatusChecks requiredStatusCheckContexts isAdminEnforced";
+
+    // Marks an alias whose ref is null, i.e. the branch does not exist
+    private static final Object NO_REF = new Object();
+
+    public record Target(String owner, String repo, String branch) {
+        public String repository() {
+            return owner + "/" + repo;
+        }
+
+        @Override
+        public String toString() {
+            return repository() + "@" + branch;
+        }
+    }
+
+    /**
+     * Protection of one target: {@code rules} is null when the branch is not protected, and
+     * {@code error} is set when it could not be read (e.g. no such repository or branch).
+     */
+    public record Result(Target target, BranchRules rules, String error) {
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public boolean isProtected() {
+            return rules != null;
+        }
+    }
+
+    private final GitHubApi api;
+    private final int chunkSize;
+
+    public BranchProtectionReader(GitHubApi api) {
+        this(api, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize refs per query, at least 1; larger values are capped at {@link #MAX_CHUNK_SIZE}
+     */
+    public BranchProtectionReader(GitHubApi api, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1, got " + chunkSize);
+        }
+        this.api = api;
+        this.chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Results in the order of {@code targets}.
+     */
+    public List<Result> read(List<Target> targets) throws IOException, InterruptedException {
+        List<List<Target>> chunks = chunk(targets, chunkSize);
+        Map<Target, Result> results = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Result>>> futures = new ArrayList<>();
+            for (List<Target> chunk : chunks) {
+                futures.add(executor.submit(() -> readChunk(chunk)));
+            }
+            for (Future<List<Result>> future : futures) {
+                for (Result result : future.get()) {
+                    results.put(result.target(), result);
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        return targets.stream().map(results::get).toList();
+    }
+
+    private List<Result> readChunk(List<Target> chunk) throws IOException, InterruptedException {
+        RateLimitScheduler.Response response = api.query(query(chunk));
+        if (!response.isSuccess()) {
+            String error = GitHubApi.errorMessage(response);
+            return chunk.stream().map(target -> new Result(target, null, error)).toList();
+        }
+        return parse(response.body(), chunk);
+    }
+
+    /**
+     * Splits targets into chunks of at most {@code size} refs, keeping the branches of one
+     * repository together where they fit.
+     */
+    static List<List<Target>> chunk(List<Target> targets, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1, got " + size);
+        }
+        List<List<Target>> chunks = new ArrayList<>();
+        List<Target> current = new ArrayList<>();
+        for (List<Target> repository : byRepository(targets).values()) {
+            if (!current.isEmpty() && current.size() + repository.size() > size) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+            for (Target target : repository) {
+                if (current.size() == size) {
+                    chunks.add(current);
+                    current = new ArrayList<>();
+                }
+                current.add(target);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    static String query(List<Target> chunk) {
+        StringBuilder sb = new StringBuilder("query {");
+        int r = 0;
+        for (List<Target> repository : byRepository(chunk).values()) {
+            Target first = repository.get(0);
+            sb.append(" r").append(r++).append(": repository(owner: ").append(Json.quote(first.owner()))
+                .append(", name: ").append(Json.quote(first.repo())).append(") {");
+            for (int b = 0; b < repository.size(); b++) {
+                sb.append(" b").append(b).append(": ref(qualifiedName: ")
+                    .append(Json.quote("refs/heads/" + repository.get(b).branch()))
+                    .append(") { branchProtectionRule { ").append(RULE_FIELDS).append(" } }");
+            }
+            sb.append(" }");
+        }
+        return sb.append(" }").toString();
+    }
+
+    /**
+     * Maps a GraphQL response for {@code chunk} back onto its targets.
+     */
+    static List<Result> parse(String body, List<Target> chunk) throws IOException {
+        List<List<Target>> repositories = List.copyOf(byRepository(chunk).values());
+        Map<String, Map<String, Object>> data = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        String generalError = null;
+
+        JsonReader json = new JsonReader(new StringReader(body));
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "data" -> readData(json, data);
+                case "errors" -> generalError = readErrors(json, errors);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        List<Result> results = new ArrayList<>();
+        for (int r = 0; r < repositories.size(); r++) {
+            List<Target> repository = repositories.get(r);
+            String alias = "r" + r;
+            Map<String, Object> refs = data.get(alias);
+            for (int b = 0; b < repository.size(); b++) {
+                Target target = repository.get(b);
+                String error = errors.getOrDefault(alias + ".b" + b, errors.get(alias));
+                if (refs == null) {
+                    results.add(new Result(target, null, Objects.requireNonNullElse(error,
+                        generalError != null ? generalError : "repository not found")));
+                } else if (!refs.containsKey("b" + b) || refs.get("b" + b) == NO_REF) {
+                    results.add(new Result(target, null, error != null ? error : "branch not found"));
+                } else {
+                    results.add(new Result(target, (BranchRules) refs.get("b" + b), null));
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void readData(JsonReader json, Map<String, Map<String, Object>> data) throws IOException {
+        if (json.peek() == JsonReader.Token.NULL) {
+            json.nextNull();
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            String repositoryAlias = json.nextName();
+            if (json.peek() == JsonReader.Token.NULL) {
+                json.nextNull();
+                continue;
+            }
+            Map<String, Object> refs = new HashMap<>();
+            json.beginObject();
+            while (json.hasNext()) {
+                String refAlias = json.nextName();
+                if (json.peek() == JsonReader.Token.NULL) {
+                    json.nextNull();
+                    refs.put(refAlias, NO_REF);
+                    continue;
+                }
+                BranchRules rules = null;
+                json.beginObject();
+                while (json.hasNext()) {
+                    if (json.nextName().equals("branchProtectionRule") && json.peek() != JsonReader.Token.NULL) {
+                        rules = readRule(json);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+                // A ref without a rule is an unprotected branch; the map value is then null
+                refs.put(refAlias, rules);
+            }
+            json.endObject();
+            data.put(repositoryAlias, refs);
+        }
+        json.endObject();
+    }
+
+    private static BranchRules readRule(JsonReader json) throws IOException {
+        BranchRules rules = new BranchRules();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonReader.Token.NULL) {
+                json.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "requiresApprovingReviews" -> rules.setRequirePullRequest(json.nextBoolean());
+                case "requiredApprovingReviewCount" -> rules.setRequiredApprovals((int) json.nextLong());
+                case "dismissesStaleReviews" -> rules.setDismissStaleReviews(json.nextBoolean());
+                case "requiresStatusChecks" -> rules.setRequireStatusChecks(json.nextBoolean());
+                case "requiredStatusCheckContexts" -> {
+                    List<String> checks = new ArrayList<>();
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        checks.add(json.nextString());
+                    }
+                    json.endArray();
+                    rules.setStatusChecks(checks);
+                }
+                case "isAdminEnforced" -> rules.setEnforceAdmins(json.nextBoolean());
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+        if (!rules.isRequirePullRequest()) {
+            rules.setRequiredApprovals(0);
+        }
+        return rules;
+    }
+
+    /**
+     * Reads the {@code errors} array into {@code errors}, keyed by alias path (e.g. {@code r3} or
+     * {@code r3.b0}); returns the first error that has no path.
+     */
+    private static String readErrors(JsonReader json, Map<String, String> errors) throws IOException {
+        String general = null;
+        json.beginArray();
+        while (json.hasNext()) {
+            String message = null;
+            List<String> path = new ArrayList<>();
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "message" -> message = json.nextString();
+                    case "path" -> {
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            path.add(json.nextString());
+                        }
+                        json.endArray();
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+            if (path.isEmpty()) {
+                general = general != null ? general : message;
+            } else {
+                errors.putIfAbsent(String.join(".", path.subList(0, Math.min(2, path.size()))), message);
+            }
+        }
+        json.endArray();
+        return general;
+    }
+
+    private static Map<String, List<Target>> byRepository(List<Target> targets) {
+        Map<String, List<Target>> repositories = new LinkedHashMap<>();
+        for (Target target : targets) {
+            List<Target> branches = repositories.computeIfAbsent(target.repository(), key -> new ArrayList<>());
+            if (!branches.contains(target)) {
+                branches.add(target);
+            }
+        }
+        return repositories;
+    }
+
+    /**
+     * Settings where {@code actual} falls short of or differs from {@code expected}, e.g.
+     * {@code "requiredApprovals: 1 (expected 2)"}.
+     */
+    public static List<String> differences(BranchRules expected, BranchRules actual) {
+        List<String> differences = new ArrayList<>();
+        compare(differences, "requirePullRequest", expected.isRequirePullRequest(), actual.isRequirePullRequest());
+        if (expected.isRequirePullRequest()) {
+            compare(differences, "requiredApprovals", expected.getRequiredApprovals(), actual.getRequiredApprovals());
+            compare(differences, "dismissStaleReviews", expected.isDismissStaleReviews(), actual.isDismissStaleReviews());
+        }
+        compare(differences, "requireStatusChecks", expected.isRequireStatusChecks(), actual.isRequireStatusChecks());
+        if (expected.isRequireStatusChecks()) {
+            compare(differences, "statusChecks", new LinkedHashSet<>(expected.getStatusChecks()),
+                new LinkedHashSet<>(actual.getStatusChecks()));
+        }
+        compare(differences, "enforceAdmins", expected.isEnforceAdmins(), actual.isEnforceAdmins());
+        return differences;
+    }
+
+    private static void compare(List<String> differences, String name, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            differences.add(name + ": " + actual + " (expected " + expected + ")");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.jci.github;
+
+import com.jci.json.Json;
+import com.jci.json.JsonReader;
+import com.jci.profile.HttpRequestEvent;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Direct HTTP access to the GitHub API for calls made in bulk, where one {@code gh} process per
+ * request would dominate the run time. Every request goes through a {@link RateLimitScheduler}.
+ */
+public class GitHubApi {
+
+    public static final String DEFAULT_URL = "https://api.github.com";
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final String token;
+    private final String credential;
+    private final RateLimitScheduler scheduler;
+
+    public GitHubApi(String baseUrl, String token, RateLimitScheduler scheduler) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.token = token;
+        // Buckets are per token; the key must not reveal it
+        this.credential = "token-" + Integer.toHexString(token.hashCode());
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Uses {@code GH_TOKEN} or {@code GITHUB_TOKEN}, else the token {@code gh} is logged in with,
+     * against {@code GITHUB_API_URL} or github.com.
+     */
+    public static GitHubApi fromEnvironment(GitHubCli gh) throws IOException, InterruptedException {
+        String token = System.getenv("GH_TOKEN");
+        if (token == null || token.isBlank()) {
+            token = System.getenv("GITHUB_TOKEN");
+        }
+        if (token == null || token.isBlank()) {
+            token = gh.authToken();
+        }
+        String url = System.getenv("GITHUB_API_URL");
+        return new GitHubApi(url != null && !url.isBlank() ? url : DEFAULT_URL, token, RateLimitScheduler.shared());
+    }
+
+    public RateLimitScheduler.Response get(String path) throws IOException, InterruptedException {
+        return send("GET", path, null, RateLimitScheduler.Cost.READ);
+    }
+
+    public RateLimitScheduler.Response post(String path, String json) throws IOException, InterruptedException {
+        return send("POST", path, json, RateLimitScheduler.Cost.write(1));
+    }
+
+    /**
+     * Runs a read-only GraphQL query; it is sent as a POST but paced like a read.
+     */
+    public RateLimitScheduler.Response query(String graphql) throws IOException, InterruptedException {
+        return send("POST", "/graphql", "{\"query\": " + Json.quote(graphql) + "}", RateLimitScheduler.Cost.READ);
+    }
+
+    private RateLimitScheduler.Response send(String method, String path, String json, RateLimitScheduler.Cost cost)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/vnd.github+json")
+            .header("Authorization", "Bearer " + token)
+            .header("X-GitHub-Api-Version", "2022-11-28");
+        if (json != null) {
+            builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpRequest request = builder.build();
+        return scheduler.execute(credential, cost, () -> {
+            HttpResponse<String> response = HttpRequestEvent.send(CLIENT, request);
+            return new RateLimitScheduler.Response(response.statusCode(), headers(response), response.body());
+        });
+    }
+
+    private static Map<String, String> headers(HttpResponse<String> response) {
+        Map<String, String> headers = new HashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                headers.put(name.toLowerCase(Locale.ROOT), values.get(0));
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * The {@code message} of a GitHub error body, or the status when there is none.
+     */
+    public static String errorMessage(RateLimitScheduler.Response response) {
+        try (JsonReader json = new JsonReader(new StringReader(response.body() != null ? response.body() : ""))) {
+            if (json.peek() == JsonReader.Token.BEGIN_OBJECT) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    if (json.nextName().equals("message") && json.peek() == JsonReader.Token.STRING) {
+                        return "HTTP " + response.status() + ": " + json.nextString();
+                    }
+                    json.skipValue();
+                }
+            }
+        } catch (IOException e) {
+            // Not JSON; fall through
+        }
+        return "HTTP " + response.status();
+    }
+}
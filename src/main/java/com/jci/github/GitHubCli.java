@@ -1,18 +1,42 @@
 package com.jci.github;
 
-import java.io.BufferedReader;
+import com.jci.process.ProcessRunner;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class GitHubCli {
 
-    private final Path workingDirectory;
+    private static final ProcessRunner.RetryPolicy API_RETRY = ProcessRunner.RetryPolicy.onError(3,
+        Duration.ofSeconds(1), Pattern.compile(
+            "HTTP 5\\d\\d|connection reset|i/o timeout|TLS handshake timeout|unexpected EOF", Pattern.CASE_INSENSITIVE));
+
+    // gh reports failed API calls as e.g. "HTTP 403: You have exceeded a secondary rate limit"
+    private static final Pattern HTTP_STATUS = Pattern.compile("HTTP (\\d{3})");
+
+    // gh uses one login per host; all its calls share a bucket
+    private static final String CREDENTIAL = "gh";
+
+    private final ProcessRunner runner;
+    private final RateLimitScheduler scheduler;
 
     public GitHubCli(Path workingDirectory) {
-        this.workingDirectory = workingDirectory;
+        this(workingDirectory, RateLimitScheduler.shared());
+    }
+
+    public GitHubCli(Path workingDirectory, RateLimitScheduler scheduler) {
+        this.runner = new ProcessRunner(workingDirectory);
+        this.scheduler = scheduler;
     }
 
     public record CommandResult(int exitCode, String output, String error) {
@@ -26,28 +50,72 @@ public class GitHubCli {
         command.add("gh");
         command.addAll(List.of(args));
 
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(workingDirectory.toFile());
+        // Only API calls are retried; GET and PUT are idempotent, other methods are not
+        ProcessRunner.Options options = ProcessRunner.Options.defaults();
+        if (args.length > 0 && args[0].equals("api") && isIdempotent(args)) {
+            options = options.withRetry(API_RETRY);
+        }
+        if (args.length > 0 && (args[0].equals("api") || args[0].equals("secret"))) {
+            return scheduled(command, options, cost(args));
+        }
+        return toCommandResult(runner.run(command, options));
+    }
+
+    /**
+     * Runs a {@code gh} call that talks to the API through the rate limit scheduler, so it is paced
+     * with the other calls and retried when GitHub reports a rate limit.
+     */
+    private CommandResult scheduled(List<String> command, ProcessRunner.Options options, RateLimitScheduler.Cost cost)
+            throws IOException, InterruptedException {
+        return scheduler.execute(CREDENTIAL, cost, () -> toCommandResult(runner.run(command, options)),
+            GitHubCli::asResponse);
+    }
 
-        Process process = pb.start();
+    static RateLimitScheduler.Response asResponse(CommandResult result) {
+        if (result.isSuccess()) {
+            return new RateLimitScheduler.Response(200, Map.of(), result.output());
+        }
+        Matcher status = HTTP_STATUS.matcher(result.error());
+        return new RateLimitScheduler.Response(status.find() ? Integer.parseInt(status.group(1)) : 0, Map.of(),
+            result.error());
+    }
 
-        String output = readStream(process.getInputStream());
-        String error = readStream(process.getErrorStream());
+    static RateLimitScheduler.Cost cost(String[] args) {
+        boolean mutating = args[0].equals("api") ? !method(args).equals("GET")
+            : args.length > 1 && !args[1].equals("list");
+        return mutating ? RateLimitScheduler.Cost.write(1) : RateLimitScheduler.Cost.READ;
+    }
 
-        int exitCode = process.waitFor();
-        return new CommandResult(exitCode, output, error);
+    private static boolean isIdempotent(String[] args) {
+        String method = method(args);
+        return method.equals("GET") || method.equals("PUT");
     }
 
-    private String readStream(java.io.InputStream stream) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (sb.length() > 0) sb.append("\n");
-                sb.append(line);
+    /**
+     * HTTP method of a {@code gh api} call. Like {@code gh}, a call with parameters or a request
+     * body and no explicit method is a POST.
+     */
+    static String method(String[] args) {
+        boolean hasBody = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ((arg.equals("-X") || arg.equals("--method")) && i + 1 < args.length) {
+                return args[i + 1].toUpperCase(Locale.ROOT);
             }
+            if (arg.startsWith("--method=")) {
+                return arg.substring("--method=".length()).toUpperCase(Locale.ROOT);
+            }
+            if (arg.startsWith("-X") && arg.length() > 2) {
+                return arg.substring(2).toUpperCase(Locale.ROOT);
+            }
+            hasBody |= arg.startsWith("-f") || arg.startsWith("-F") || arg.startsWith("--field")
+                || arg.startsWith("--raw-field") || arg.startsWith("--input");
         }
-        return sb.toString();
+        return hasBody ? "POST" : "GET";
+    }
+
+    private static CommandResult toCommandResult(ProcessRunner.Result result) {
+        return new CommandResult(result.exitCode(), result.output(), result.error());
     }
 
     public boolean isInstalled() {
@@ -59,6 +127,17 @@ public class GitHubCli {
         }
     }
 
+    /**
+     * The token {@code gh} is logged in with.
+     */
+    public String authToken() throws IOException, InterruptedException {
+        CommandResult result = execute("auth", "token");
+        if (!result.isSuccess() || result.output().isBlank()) {
+            throw new IOException("No GitHub token: set GH_TOKEN or run 'gh auth login'");
+        }
+        return result.output().trim();
+    }
+
     public boolean isAuthenticated() {
         try {
             CommandResult result = execute("auth", "status");
@@ -69,20 +148,11 @@ public class GitHubCli {
     }
 
     public CommandResult setSecret(String name, String value) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder("gh", "secret", "set", name);
-        pb.directory(workingDirectory.toFile());
-
-        Process process = pb.start();
-
-        // Write the secret value to stdin
-        process.getOutputStream().write(value.getBytes());
-        process.getOutputStream().close();
-
-        String output = readStream(process.getInputStream());
-        String error = readStream(process.getErrorStream());
-
-        int exitCode = process.waitFor();
-        return new CommandResult(exitCode, output, error);
+        // The value goes through stdin and is never part of the recorded command
+        ProcessRunner.Options options = ProcessRunner.Options.defaults()
+            .withStdin(value)
+            .withDisplayCommand("gh secret set " + name);
+        return scheduled(List.of("gh", "secret", "set", name), options, RateLimitScheduler.Cost.write(1));
     }
 
     public CommandResult listSecrets() throws IOException, InterruptedException {
@@ -93,7 +163,9 @@ public class GitHubCli {
         try {
             CommandResult result = listSecrets();
             if (result.isSuccess()) {
-                return result.output().contains(name);
+                // One secret per line, the name in the first tab-separated column
+                String wanted = SecretSync.normalize(name);
+                return result.output().lines().anyMatch(line -> SecretSync.normalize(line.split("\t", 2)[0]).equals(wanted));
             }
         } catch (Exception e) {
             // Ignore
@@ -101,6 +173,65 @@ public class GitHubCli {
         return false;
     }
 
+    public CommandResult setSecret(String name, String value, String repo) throws IOException, InterruptedException {
+        ProcessRunner.Options options = ProcessRunner.Options.defaults()
+            .withStdin(value)
+            .withDisplayCommand("gh secret set " + name + " -R " + repo);
+        return scheduled(List.of("gh", "secret", "set", name, "-R", repo), options, RateLimitScheduler.Cost.write(1));
+    }
+
+    /**
+     * Sets several secrets with one {@code gh} process. The values are passed as a dotenv file on
+     * stdin, so they must survive dotenv parsing; see {@link #isDotenvSafe(String)}.
+     */
+    public CommandResult setSecrets(String repo, Map<String, String> values) throws IOException, InterruptedException {
+        StringBuilder env = new StringBuilder();
+        values.forEach((name, value) -> {
+            if (!isDotenvSafe(value)) {
+                throw new IllegalArgumentException("Secret " + name + " cannot be passed in a dotenv file");
+            }
+            env.append(name).append("='").append(value).append("'\n");
+        });
+        ProcessRunner.Options options = ProcessRunner.Options.defaults()
+            .withStdin(env.toString())
+            .withDisplayCommand("gh secret set -f - -R " + repo);
+        // gh makes one PUT per secret
+        return scheduled(List.of("gh", "secret", "set", "-f", "-", "-R", repo), options,
+            RateLimitScheduler.Cost.write(values.size()));
+    }
+
+    /**
+     * Whether a value can be written single-quoted to a dotenv file and read back unchanged.
+     */
+    public static boolean isDotenvSafe(String value) {
+        return value.indexOf('\'') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+    }
+
+    /**
+     * Names and last update times of all Actions secrets of {@code repo} (owner/name), read with
+     * one paginated API listing.
+     */
+    public Map<String, Instant> secretTimestamps(String repo) throws IOException, InterruptedException {
+        CommandResult result = execute("api", "--paginate", "/repos/" + repo + "/actions/secrets?per_page=100",
+            "--jq", ".secrets[] | \"\\(.name)\\t\\(.updated_at)\"");
+        if (!result.isSuccess()) {
+            throw new IOException("Listing secrets of " + repo + " failed: " + result.error().trim());
+        }
+        Map<String, Instant> secrets = new LinkedHashMap<>();
+        for (String line : result.output().split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                continue;
+            }
+            try {
+                secrets.put(line.substring(0, tab), Instant.parse(line.substring(tab + 1).trim()));
+            } catch (DateTimeParseException e) {
+                secrets.put(line.substring(0, tab), Instant.EPOCH);
+            }
+        }
+        return secrets;
+    }
+
     public CommandResult applyBranchProtection(String branch, String owner, String repo,
                                                 boolean requirePr, int requiredApprovals,
                                                 boolean dismissStaleReviews, boolean requireStatusChecks,
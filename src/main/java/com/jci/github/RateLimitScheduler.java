@@ -0,0 +1,320 @@
+package com.jci.github;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Paces GitHub requests so fleet-wide operations stay under the primary and secondary rate limits
+ * instead of failing. Each credential gets a token bucket of secondary-limit points; callers queue
+ * on it in arrival order. Reads cost one point and mutating requests five, as GitHub counts them,
+ * and mutating requests are additionally held to GitHub's limit on content-creating requests per
+ * minute. Responses feed back into the bucket:
+ * <ul>
+ *   <li>{@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset} block the bucket until the reset
+ *       when the quota is used up, and slow it down so a low quota lasts until then;</li>
+ *   <li>{@code 403}/{@code 429} rate limit responses are retried after {@code Retry-After}, the
+ *       reset time, or an exponential backoff, and halve the bucket's rate; successful responses
+ *       raise it again step by step.</li>
+ * </ul>
+ */
+public class RateLimitScheduler {
+
+    // GitHub's secondary limits allow about 900 REST points per minute and 100 concurrent requests
+    static final int DEFAULT_BURST = 15;
+    static final double DEFAULT_RATE = 15;
+    static final int DEFAULT_CONCURRENCY = 10;
+    static final int DEFAULT_RETRIES = 3;
+    static final Duration DEFAULT_BACKOFF = Duration.ofMinutes(1);
+    // Content-creating requests are limited to about 80 per minute on top of the point budget
+    static final double DEFAULT_WRITES_PER_MINUTE = 80;
+    static final int WRITE_BURST = 10;
+
+    // Below this many remaining requests, the rest of the quota is spread until its reset
+    static final int LOW_QUOTA = 100;
+
+    private static final double MIN_RATE = 0.1;
+    private static final RateLimitScheduler SHARED = new RateLimitScheduler();
+
+    /**
+     * A response as far as rate limiting is concerned; header names are lower case.
+     */
+    public record Response(int status, Map<String, String> headers, String body) {
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        public String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Secondary-limit points and content-creating requests one call spends.
+     */
+    public record Cost(int points, int writes) {
+        public static final Cost READ = new Cost(1, 0);
+
+        /**
+         * Cost of a call making {@code requests} mutating requests, e.g. one {@code gh secret set -f}
+         * uploading several secrets.
+         */
+        public static Cost write(int requests) {
+            return new Cost(5 * requests, requests);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T send() throws IOException, InterruptedException;
+    }
+
+    public record Metrics(long requests, long throttled, int queueDepth, int maxQueueDepth,
+                          Duration totalWait, Duration maxWait) {}
+
+    private final int burst;
+    private final double rate;
+    private final double writeRate;
+    private final int concurrency;
+    private final int maxRetries;
+    private final Duration backoff;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public RateLimitScheduler() {
+        this(DEFAULT_BURST, DEFAULT_RATE, DEFAULT_CONCURRENCY, DEFAULT_RETRIES, DEFAULT_BACKOFF);
+    }
+
+    public RateLimitScheduler(int burst, double rate, int concurrency, int maxRetries, Duration backoff) {
+        this(burst, rate, DEFAULT_WRITES_PER_MINUTE, concurrency, maxRetries, backoff);
+    }
+
+    /**
+     * @param burst           points a credential may spend at once before pacing starts
+     * @param rate            sustained points per second per credential
+     * @param writesPerMinute sustained mutating requests per minute per credential
+     * @param concurrency     requests in flight per credential
+     * @param maxRetries      retries of a rate-limited request before its response is returned
+     * @param backoff         first wait after a secondary limit without {@code Retry-After}; doubles per retry
+     */
+    public RateLimitScheduler(int burst, double rate, double writesPerMinute, int concurrency, int maxRetries,
+                              Duration backoff) {
+        this.burst = burst;
+        this.rate = rate;
+        this.writeRate = writesPerMinute / 60;
+        this.concurrency = concurrency;
+        this.maxRetries = maxRetries;
+        this.backoff = backoff;
+    }
+
+    /**
+     * The scheduler used by {@link GitHubCli} and {@link GitHubApi} unless they are given one.
+     */
+    public static RateLimitScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sends {@code call} once the credential's bucket allows it, retrying rate-limited responses.
+     * The last response is returned whatever its status.
+     */
+    public Response execute(String credential, Cost cost, Call<Response> call) throws IOException, InterruptedException {
+        return execute(credential, cost, call, response -> response);
+    }
+
+    /**
+     * Like {@link #execute(String, Cost, Call)} for calls with their own result type;
+     * {@code response} tells the scheduler the status, headers and body of a result.
+     */
+    public <T> T execute(String credential, Cost cost, Call<T> call, Function<? super T, Response> response)
+            throws IOException, InterruptedException {
+        Bucket bucket = buckets.computeIfAbsent(credential, key -> new Bucket());
+        for (int attempt = 1; ; attempt++) {
+            bucket.acquire(cost);
+            T result;
+            try {
+                requests.increment();
+                result = call.send();
+            } finally {
+                bucket.inFlight.release();
+            }
+            Duration retryAfter = bucket.observe(response.apply(result), attempt);
+            if (retryAfter == null || attempt > maxRetries) {
+                return result;
+            }
+            throttled.increment();
+            bucket.blockFor(retryAfter);
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(requests.sum(), throttled.sum(), queueDepth.get(), (int) maxQueueDepth.get(),
+            Duration.ofNanos(waitNanos.sum()), Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    /**
+     * Current sustained rate of a credential in requests per second, after adaptive slowdowns.
+     */
+    double currentRate(String credential) {
+        Bucket bucket = buckets.get(credential);
+        return bucket == null ? rate : bucket.effectiveRate();
+    }
+
+    static boolean isRateLimited(Response response) {
+        if (response.status() == 429) {
+            return true;
+        }
+        if (response.status() == 200) {
+            // GraphQL reports an exhausted point budget as an error in a successful response
+            return response.body() != null && response.body().contains("\"RATE_LIMITED\"");
+        }
+        if (response.status() != 403) {
+            return false;
+        }
+        return response.header("Retry-After") != null || "0".equals(response.header("X-RateLimit-Remaining"))
+            || response.body() != null && response.body().toLowerCase(Locale.ROOT).contains("rate limit");
+    }
+
+    private final class Bucket {
+
+        // Fair, so queued requests go out in arrival order; the holder sleeps until its token is due
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Semaphore inFlight = new Semaphore(concurrency, true);
+
+        private double tokens = burst;
+        private double writeTokens = WRITE_BURST;
+        private long refilledAt = System.nanoTime();
+        private long blockedUntil = refilledAt;
+        private double adaptiveRate = rate;
+        private double quotaRate = Double.MAX_VALUE;
+
+        void acquire(Cost cost) throws InterruptedException {
+            int depth = queueDepth.incrementAndGet();
+            maxQueueDepth.accumulate(depth);
+            long start = System.nanoTime();
+            try {
+                lock.lockInterruptibly();
+                try {
+                    for (long wait = take(cost); wait > 0; wait = take(cost)) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                inFlight.acquire();
+            } finally {
+                queueDepth.decrementAndGet();
+                long waited = System.nanoTime() - start;
+                waitNanos.add(waited);
+                maxWaitNanos.accumulate(waited);
+            }
+        }
+
+        /**
+         * Updates the bucket from a response; returns how long to wait before retrying, or null
+         * when the response is final.
+         */
+        synchronized Duration observe(Response response, int attempt) {
+            long now = System.nanoTime();
+            Long remaining = parseLong(response.header("X-RateLimit-Remaining"));
+            Long reset = parseLong(response.header("X-RateLimit-Reset"));
+            long untilReset = reset == null ? -1
+                : TimeUnit.SECONDS.toNanos(reset) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
+            if (remaining != null && untilReset > 0) {
+                if (remaining <= 0) {
+                    blockedUntil = Math.max(blockedUntil, now + untilReset);
+                    quotaRate = Double.MAX_VALUE;
+                } else if (remaining < LOW_QUOTA) {
+                    // Spread what is left of the quota over the time until it resets
+                    quotaRate = Math.max(MIN_RATE, remaining / (untilReset / 1e9));
+                } else {
+                    quotaRate = Double.MAX_VALUE;
+                }
+            } else if (remaining != null) {
+                quotaRate = Double.MAX_VALUE;
+            }
+
+            if (!isRateLimited(response)) {
+                if (response.isSuccess()) {
+                    adaptiveRate = Math.min(rate, adaptiveRate + rate / 10);
+                }
+                return null;
+            }
+
+            Long retryAfter = parseLong(response.header("Retry-After"));
+            if (retryAfter != null) {
+                adaptiveRate = Math.max(MIN_RATE, adaptiveRate / 2);
+                return Duration.ofSeconds(Math.max(1, retryAfter));
+            }
+            if (remaining != null && remaining <= 0 && untilReset > 0) {
+                return Duration.ofNanos(untilReset);
+            }
+            // Secondary limit without guidance: back off exponentially and slow down
+            adaptiveRate = Math.max(MIN_RATE, adaptiveRate / 2);
+            return backoff.multipliedBy(1L << Math.min(attempt - 1, 10));
+        }
+
+        synchronized void blockFor(Duration wait) {
+            blockedUntil = Math.max(blockedUntil, System.nanoTime() + wait.toNanos());
+        }
+
+        synchronized double effectiveRate() {
+            return Math.min(adaptiveRate, quotaRate);
+        }
+
+        /**
+         * Spends the cost if the bucket holds it and is not blocked; otherwise returns how long to
+         * wait before trying again. A cost above the burst only waits for a full bucket and leaves
+         * it in debt, which the following requests wait out.
+         */
+        private synchronized long take(Cost cost) {
+            long now = System.nanoTime();
+            double elapsed = (now - refilledAt) / 1e9;
+            tokens = Math.min(burst, tokens + elapsed * effectiveRate());
+            writeTokens = Math.min(WRITE_BURST, writeTokens + elapsed * writeRate);
+            refilledAt = now;
+
+            long wait = blockedUntil - now;
+            double points = Math.min(cost.points(), burst);
+            if (tokens < points) {
+                wait = Math.max(wait, (long) ((points - tokens) / effectiveRate() * 1e9));
+            }
+            double writes = Math.min(cost.writes(), WRITE_BURST);
+            if (writeTokens < writes) {
+                wait = Math.max(wait, (long) ((writes - writeTokens) / writeRate * 1e9));
+            }
+            if (wait <= 0) {
+                tokens -= cost.points();
+                writeTokens -= cost.writes();
+            }
+            return wait;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.jci.github;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Brings the Actions secrets of one or more repositories in line with a declared set. One paginated
+ * listing per repository finds the missing and stale secrets, and only those are uploaded.
+ * Repositories are synced concurrently. Values that fit in a dotenv file go up in one bulk
+ * {@code gh secret set -f -} call per repository; the rest are set one by one, also concurrently.
+ * GitHub treats secret names case-insensitively and lists them uppercased, so names are compared
+ * and uploaded in upper case.
+ */
+public class SecretSync {
+
+    public enum Action { CREATE, UPDATE, KEEP }
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * A declared secret; {@code modified} is when its source last changed, if known (e.g. the
+     * env file's modification time).
+     */
+    public record Secret(String name, String value, Instant modified) {}
+
+    public record Change(String name, Action action, String reason) {}
+
+    public record RepoResult(String repo, List<Change> changes, String error) {
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public long count(Action action) {
+            return changes.stream().filter(change -> change.action() == action).count();
+        }
+    }
+
+    private final GitHubCli gh;
+    private final Map<String, Secret> secrets = new LinkedHashMap<>();
+    private final Duration maxAge;
+    private final boolean force;
+
+    /**
+     * @param maxAge re-upload secrets last set longer ago than this; null or zero to disable
+     * @param force  re-upload every declared secret
+     */
+    public SecretSync(GitHubCli gh, Collection<Secret> secrets, Duration maxAge, boolean force) {
+        this.gh = gh;
+        validateNames(secrets.stream().map(Secret::name).toList());
+        for (Secret secret : secrets) {
+            String name = normalize(secret.name());
+            this.secrets.put(name, new Secret(name, secret.value(), secret.modified()));
+        }
+        this.maxAge = maxAge;
+        this.force = force;
+    }
+
+    /**
+     * Rejects names GitHub would refuse, or that only differ in case and so name the same secret.
+     *
+     * @throws IllegalArgumentException listing the offending names
+     */
+    public static void validateNames(Collection<String> names) {
+        List<String> invalid = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String name : names) {
+            String normalized = normalize(name);
+            if (!NAME.matcher(name).matches() || normalized.startsWith("GITHUB_")) {
+                invalid.add(name + " (letters, digits and _ only, not starting with a digit or GITHUB_)");
+            } else if (!seen.add(normalized)) {
+                invalid.add(name + " (declared twice; secret names are case-insensitive)");
+            }
+        }
+        if (!invalid.isEmpty()) {
+            throw new IllegalArgumentException("Invalid secret name: " + String.join(", ", invalid));
+        }
+    }
+
+    /**
+     * GitHub secret names are case-insensitive and stored in upper case.
+     */
+    public static String normalize(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * The value for secret {@code name} in an env file or the environment: an exact match, else
+     * the first key that differs only in case; null when there is none.
+     */
+    public static String lookup(Map<String, String> values, String name) {
+        String value = values.get(name);
+        if (value != null) {
+            return value;
+        }
+        String normalized = normalize(name);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (normalize(entry.getKey()).equals(normalized)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decides per declared secret whether it must be created, updated or kept, given the
+     * {@code remote} update times of one repository.
+     */
+    static List<Change> plan(Collection<Secret> secrets, Map<String, Instant> remote, Duration maxAge,
+                             boolean force, Instant now) {
+        Map<String, Instant> remoteByName = new HashMap<>();
+        remote.forEach((name, updated) -> remoteByName.put(normalize(name), updated));
+        List<Change> changes = new ArrayList<>();
+        for (Secret secret : secrets) {
+            String name = normalize(secret.name());
+            Instant updated = remoteByName.get(name);
+            if (updated == null) {
+                changes.add(new Change(name, Action.CREATE, "missing"));
+            } else if (force) {
+                changes.add(new Change(name, Action.UPDATE, "forced"));
+            } else if (secret.modified() != null && secret.modified().isAfter(updated)) {
+                changes.add(new Change(name, Action.UPDATE, "source changed since " + updated));
+            } else if (maxAge != null && !maxAge.isZero() && updated.plus(maxAge).isBefore(now)) {
+                changes.add(new Change(name, Action.UPDATE, "last set " + updated));
+            } else {
+                changes.add(new Change(name, Action.KEEP, "up to date"));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Syncs all repositories (owner/name) concurrently; with {@code dryRun} only the plan is computed.
+     * Failures are reported per repository and do not stop the others.
+     */
+    public List<RepoResult> sync(List<String> repos, boolean dryRun) throws InterruptedException {
+        List<RepoResult> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<RepoResult>> futures = new ArrayList<>();
+            for (String repo : repos) {
+                futures.add(executor.submit(() -> syncRepo(repo, dryRun, executor)));
+            }
+            for (int i = 0; i < repos.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new RepoResult(repos.get(i), List.of(), e.getCause().getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private RepoResult syncRepo(String repo, boolean dryRun, ExecutorService executor)
+            throws IOException, InterruptedException {
+        List<Change> changes = plan(secrets.values(), gh.secretTimestamps(repo), maxAge, force, Instant.now());
+        if (dryRun) {
+            return new RepoResult(repo, changes, null);
+        }
+
+        Map<String, String> bulk = new LinkedHashMap<>();
+        List<Future<GitHubCli.CommandResult>> uploads = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.action() == Action.KEEP) {
+                continue;
+            }
+            String value = secrets.get(change.name()).value();
+            if (GitHubCli.isDotenvSafe(value)) {
+                bulk.put(change.name(), value);
+            } else {
+                uploads.add(executor.submit(() -> gh.setSecret(change.name(), value, repo)));
+            }
+        }
+        if (!bulk.isEmpty()) {
+            uploads.add(executor.submit(() -> gh.setSecrets(repo, bulk)));
+        }
+
+        String error = null;
+        for (Future<GitHubCli.CommandResult> upload : uploads) {
+            try {
+                GitHubCli.CommandResult result = upload.get();
+                if (!result.isSuccess() && error == null) {
+                    error = result.error().trim();
+                }
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause().getMessage();
+                }
+            }
+        }
+        return new RepoResult(repo, changes, error);
+    }
+
+    /**
+     * Reads {@code NAME=value} lines of a dotenv file. Values may be single-quoted (literal) or
+     * double-quoted (with {@code \n}, {@code \"} and {@code \\} escapes); {@code export} prefixes,
+     * blank lines and {@code #} comments are ignored.
+     */
+    public static Map<String, String> readEnvFile(Path file) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        int number = 0;
+        for (String line : Files.readAllLines(file)) {
+            number++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.startsWith("export ")) {
+                trimmed = trimmed.substring("export ".length()).stripLeading();
+            }
+            int equals = trimmed.indexOf('=');
+            if (equals <= 0) {
+                throw new IOException(file + ":" + number + ": expected NAME=value");
+            }
+            values.put(trimmed.substring(0, equals).strip(), value(trimmed.substring(equals + 1).strip()));
+        }
+        return values;
+    }
+
+    private static String value(String raw) {
+        if (raw.length() >= 2 && raw.startsWith("'") && raw.endsWith("'")) {
+            return raw.substring(1, raw.length() - 1);
+        }
+        if (raw.length() >= 2 && raw.startsWith("\"") && raw.endsWith("\"")) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 1; i < raw.length() - 1; i++) {
+                char c = raw.charAt(i);
+                if (c == '\\' && i + 1 < raw.length() - 1) {
+                    char next = raw.charAt(++i);
+                    sb.append(switch (next) {
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        case 't' -> '\t';
+                        default -> next;
+                    });
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+        int comment = raw.indexOf(" #");
+        return comment >= 0 ? raw.substring(0, comment).stripTrailing() : raw;
+    }
+}
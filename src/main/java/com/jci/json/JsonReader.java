@@ -0,0 +1,285 @@
+package com.jci.json;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Pull reader for JSON, one token at a time, so callers can process large documents without
+ * building a tree. JSON is a subset of YAML, so the tokens come from SnakeYAML's streaming event
+ * parser rather than a tokenizer of our own.
+ */
+public class JsonReader implements Closeable {
+
+    public enum Token { BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT }
+
+    // What the next scalar of the enclosing collection is
+    private static final int KEY = 0;
+    private static final int VALUE = 1;
+    private static final int ELEMENT = 2;
+
+    private final Reader in;
+    private final Iterator<Event> events;
+    private final Deque<Integer> contexts = new ArrayDeque<>();
+    private int offset;
+
+    private Token peeked;
+    private String peekedValue;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+        LoaderOptions options = new LoaderOptions();
+        // Responses and JMH results can be large and deeply nested; the limits guard untrusted YAML
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        options.setNestingDepthLimit(Integer.MAX_VALUE);
+        this.events = new Yaml(options).parse(new SolidusReader(in)).iterator();
+    }
+
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+    }
+
+    /**
+     * Whether the current array or object has another element.
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_ARRAY && token != Token.END_OBJECT && token != Token.END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return peekedValue;
+    }
+
+    /**
+     * Returns a string value, or the literal text of a number or boolean.
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        peeked = null;
+        return peekedValue;
+    }
+
+    /**
+     * Returns a number value; strings such as {@code "NaN"} are parsed as well.
+     */
+    public double nextDouble() throws IOException {
+        Token token = peek();
+        if (token != Token.NUMBER && token != Token.STRING) {
+            throw syntaxError("Expected a number but was " + token);
+        }
+        try {
+            double value = Double.parseDouble(peekedValue);
+            peeked = null;
+            return value;
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected a number but was \"" + peekedValue + "\"");
+        }
+    }
+
+    public long nextLong() throws IOException {
+        double value = nextDouble();
+        if (value != Math.rint(value)) {
+            throw syntaxError("Expected an integer but was " + value);
+        }
+        return (long) value;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return Boolean.parseBoolean(peekedValue);
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Skips the next value, including nested arrays and objects, without materializing it.
+     */
+    public void skipValue() throws IOException {
+        int count = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY -> { beginArray(); count++; }
+                case BEGIN_OBJECT -> { beginObject(); count++; }
+                case END_ARRAY -> { endArray(); count--; }
+                case END_OBJECT -> { endObject(); count--; }
+                case END_DOCUMENT -> throw syntaxError("Unexpected end of document");
+                default -> peeked = null;
+            }
+        } while (count > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private Token doPeek() throws IOException {
+        Event event;
+        try {
+            event = events.hasNext() ? events.next() : null;
+        } catch (YAMLException e) {
+            throw new IOException(e instanceof MarkedYAMLException marked && marked.getProblemMark() != null
+                ? marked.getProblem() + " at offset " + marked.getProblemMark().getIndex()
+                : e.getMessage(), e);
+        }
+        if (event == null || event instanceof StreamEndEvent || event instanceof DocumentEndEvent) {
+            return Token.END_DOCUMENT;
+        }
+        offset = event.getStartMark() != null ? event.getStartMark().getIndex() : offset;
+        if (event instanceof StreamStartEvent || event instanceof DocumentStartEvent) {
+            return doPeek();
+        }
+        if (event instanceof MappingStartEvent) {
+            contexts.push(KEY);
+            return Token.BEGIN_OBJECT;
+        }
+        if (event instanceof SequenceStartEvent) {
+            contexts.push(ELEMENT);
+            return Token.BEGIN_ARRAY;
+        }
+        if (event instanceof MappingEndEvent) {
+            contexts.pop();
+            valueRead();
+            return Token.END_OBJECT;
+        }
+        if (event instanceof SequenceEndEvent) {
+            contexts.pop();
+            valueRead();
+            return Token.END_ARRAY;
+        }
+        if (event instanceof ScalarEvent scalar) {
+            peekedValue = scalar.getValue();
+            if (!contexts.isEmpty() && contexts.peek() == KEY) {
+                contexts.pop();
+                contexts.push(VALUE);
+                return Token.NAME;
+            }
+            valueRead();
+            if (scalar.getScalarStyle() != DumperOptions.ScalarStyle.PLAIN) {
+                return Token.STRING;
+            }
+            return switch (peekedValue) {
+                case "null" -> Token.NULL;
+                case "true", "false" -> Token.BOOLEAN;
+                default -> Token.NUMBER;
+            };
+        }
+        // Anchors, aliases and tags are YAML, not JSON
+        throw syntaxError("Unexpected " + event.getEventId());
+    }
+
+    private void valueRead() {
+        if (!contexts.isEmpty() && contexts.peek() == VALUE) {
+            contexts.pop();
+            contexts.push(KEY);
+        }
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at offset " + offset);
+    }
+
+    /**
+     * Replaces the JSON escape {@code \/}, which YAML 1.1 lacks, with a plain {@code /}. Other
+     * escapes pass through; the character after a backslash is never taken as a new escape.
+     */
+    private static class SolidusReader extends FilterReader {
+
+        private int pending = -1;
+
+        SolidusReader(Reader in) {
+            super(in instanceof BufferedReader ? in : new BufferedReader(in));
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pending >= 0) {
+                int c = pending;
+                pending = -1;
+                return c;
+            }
+            int c = in.read();
+            if (c == '\\') {
+                int escaped = in.read();
+                if (escaped == '/') {
+                    return '/';
+                }
+                pending = escaped;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = 0;
+            while (count < length) {
+                int c = read();
+                if (c < 0) {
+                    return count == 0 ? -1 : count;
+                }
+                buffer[offset + count++] = (char) c;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jci.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Measurements of one JMH benchmark (method plus parameter values). Each entry in {@code forks}
+ * holds the measurement iteration scores of one forked JVM.
+ */
+public record BenchmarkRun(String benchmark, String mode, Map<String, String> params, String unit,
+                           List<double[]> forks) {
+
+    public BenchmarkRun {
+        params = new TreeMap<>(params);
+        forks = List.copyOf(forks);
+    }
+
+    /**
+     * Identity used to pair runs across result files, e.g. {@code com.example.Bench.parse [size=100]}.
+     */
+    public String key() {
+        if (params.isEmpty()) {
+            return benchmark;
+        }
+        StringBuilder sb = new StringBuilder(benchmark).append(" [");
+        params.forEach((name, value) -> sb.append(name).append('=').append(value).append(", "));
+        sb.setLength(sb.length() - 2);
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Key plus mode; the same method can be measured in several modes within one run.
+     */
+    public String id() {
+        return key() + " (" + mode + ")";
+    }
+
+    /**
+     * Throughput is better when higher; average time, sample time and single shot when lower.
+     */
+    public boolean higherIsBetter() {
+        return "thrpt".equals(mode);
+    }
+
+    public double mean() {
+        double sum = 0;
+        int count = 0;
+        for (double[] fork : forks) {
+            for (double value : fork) {
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Combines the forks of repeated runs of the same benchmark, e.g. from several result files.
+     */
+    public BenchmarkRun merge(BenchmarkRun other) {
+        List<double[]> combined = new ArrayList<>(forks);
+        combined.addAll(other.forks);
+        return new BenchmarkRun(benchmark, mode, params, unit, combined);
+    }
+}
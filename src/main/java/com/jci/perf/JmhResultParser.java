@@ -0,0 +1,117 @@
+package com.jci.perf;
+
+import com.jci.json.JsonReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams JMH JSON result files ({@code -rf json}) one benchmark at a time, so memory use does not
+ * grow with the number of parameterized benchmarks in a file. Fields the comparison does not need
+ * (secondary metrics, histograms, percentiles) are skipped without being materialized.
+ */
+public class JmhResultParser {
+
+    /**
+     * Calls {@code consumer} for every benchmark entry in the file, in file order.
+     */
+    public static void stream(Reader reader, Consumer<BenchmarkRun> consumer) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        if (json.peek() == JsonReader.Token.END_DOCUMENT) {
+            return; // empty file
+        }
+        json.beginArray();
+        while (json.hasNext()) {
+            consumer.accept(readRun(json));
+        }
+        json.endArray();
+    }
+
+    /**
+     * Reads result files and merges repeated runs of the same benchmark into one entry with all forks.
+     */
+    public static Map<String, BenchmarkRun> load(List<Path> files) throws IOException {
+        Map<String, BenchmarkRun> runs = new LinkedHashMap<>();
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                stream(reader, run -> runs.merge(run.id(), run, BenchmarkRun::merge));
+            } catch (IOException e) {
+                throw new IOException(file + ": " + e.getMessage(), e);
+            }
+        }
+        return runs;
+    }
+
+    private static BenchmarkRun readRun(JsonReader json) throws IOException {
+        String benchmark = null;
+        String mode = null;
+        String unit = "";
+        double score = Double.NaN;
+        Map<String, String> params = new LinkedHashMap<>();
+        List<double[]> forks = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "benchmark" -> benchmark = json.nextString();
+                case "mode" -> mode = json.nextString();
+                case "params" -> {
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        params.put(json.nextName(), json.nextString());
+                    }
+                    json.endObject();
+                }
+                case "primaryMetric" -> {
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        switch (json.nextName()) {
+                            case "score" -> score = json.nextDouble();
+                            case "scoreUnit" -> unit = json.nextString();
+                            case "rawData" -> readForks(json, forks);
+                            default -> json.skipValue();
+                        }
+                    }
+                    json.endObject();
+                }
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (benchmark == null || mode == null) {
+            throw new IOException("JMH result entry is missing benchmark or mode");
+        }
+        if (forks.isEmpty() && !Double.isNaN(score)) {
+            // Sample-time results only carry histograms; fall back to the aggregate score
+            forks.add(new double[] {score});
+        }
+        return new BenchmarkRun(benchmark, mode, params, unit, forks);
+    }
+
+    private static void readForks(JsonReader json, List<double[]> forks) throws IOException {
+        double[] values = new double[16];
+        json.beginArray();
+        while (json.hasNext()) {
+            int count = 0;
+            json.beginArray();
+            while (json.hasNext()) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = json.nextDouble();
+            }
+            json.endArray();
+            forks.add(Arrays.copyOf(values, count));
+        }
+        json.endArray();
+    }
+}
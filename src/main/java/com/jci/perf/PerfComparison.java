@@ -0,0 +1,141 @@
+package com.jci.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compares baseline and candidate JMH runs using a hierarchical bootstrap: forks are resampled
+ * first, then iterations within each chosen fork, because run-to-run JVM variance is usually
+ * larger than iteration-to-iteration variance. A side with fewer than two forks has no
+ * run-to-run variance to resample, so such benchmarks get no interval and no verdict.
+ */
+public class PerfComparison {
+
+    public enum Verdict { IMPROVED, REGRESSED, NOISE, INSUFFICIENT_DATA, ADDED, REMOVED }
+
+    /**
+     * Change of the candidate mean relative to the baseline mean, in percent, with its confidence interval.
+     */
+    public record Delta(String key, String mode, String unit, double baseMean, double candidateMean,
+                        double deltaPercent, double ciLow, double ciHigh, Verdict verdict) {}
+
+    private final int resamples;
+    private final double confidence;
+    private final double threshold;
+    private final long seed;
+
+    /**
+     * @param resamples  bootstrap iterations per benchmark
+     * @param confidence confidence level of the interval, e.g. 0.95
+     * @param threshold  minimum change in percent that counts as a regression or improvement
+     * @param seed       random seed, fixed so reports are reproducible
+     */
+    public PerfComparison(int resamples, double confidence, double threshold, long seed) {
+        if (resamples < 100) {
+            throw new IllegalArgumentException("resamples must be at least 100");
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        this.resamples = resamples;
+        this.confidence = confidence;
+        this.threshold = threshold;
+        this.seed = seed;
+    }
+
+    public List<Delta> compare(Map<String, BenchmarkRun> baseline, Map<String, BenchmarkRun> candidate) {
+        // Benchmarks are independent and seeded individually, so they can be bootstrapped in parallel
+        List<Delta> deltas = new ArrayList<>(baseline.values().parallelStream()
+            .map(base -> {
+                BenchmarkRun next = candidate.get(base.id());
+                return next == null
+                    ? new Delta(base.key(), base.mode(), base.unit(), base.mean(), Double.NaN,
+                        Double.NaN, Double.NaN, Double.NaN, Verdict.REMOVED)
+                    : compare(base, next);
+            })
+            .toList());
+        for (BenchmarkRun next : candidate.values()) {
+            if (!baseline.containsKey(next.id())) {
+                deltas.add(new Delta(next.key(), next.mode(), next.unit(), Double.NaN, next.mean(),
+                    Double.NaN, Double.NaN, Double.NaN, Verdict.ADDED));
+            }
+        }
+        return deltas;
+    }
+
+    Delta compare(BenchmarkRun base, BenchmarkRun candidate) {
+        double baseMean = base.mean();
+        double candidateMean = candidate.mean();
+        double delta = percentChange(baseMean, candidateMean);
+        if (measuredForks(base) < 2 || measuredForks(candidate) < 2) {
+            // One fork (or a score without rawData) would give a zero-width interval around the mean
+            return new Delta(base.key(), base.mode(), base.unit(), baseMean, candidateMean, delta,
+                Double.NaN, Double.NaN, Verdict.INSUFFICIENT_DATA);
+        }
+
+        // Seed per benchmark so a result does not depend on which other benchmarks are in the file
+        SplittableRandom random = new SplittableRandom(seed ^ base.id().hashCode());
+        double[] samples = new double[resamples];
+        for (int i = 0; i < resamples; i++) {
+            samples[i] = percentChange(resampleMean(base.forks(), random), resampleMean(candidate.forks(), random));
+        }
+        Arrays.sort(samples);
+        double alpha = (1 - confidence) / 2;
+        double low = samples[(int) Math.floor(alpha * (resamples - 1))];
+        double high = samples[(int) Math.ceil((1 - alpha) * (resamples - 1))];
+
+        return new Delta(base.key(), base.mode(), base.unit(), baseMean, candidateMean, delta, low, high,
+            classify(delta, low, high, base.higherIsBetter()));
+    }
+
+    Verdict classify(double delta, double low, double high, boolean higherIsBetter) {
+        if (Double.isNaN(delta)) {
+            return Verdict.NOISE;
+        }
+        boolean increased = low > 0 && delta >= threshold;
+        boolean decreased = high < 0 && -delta >= threshold;
+        if (!increased && !decreased) {
+            return Verdict.NOISE;
+        }
+        return increased == higherIsBetter ? Verdict.IMPROVED : Verdict.REGRESSED;
+    }
+
+    private static int measuredForks(BenchmarkRun run) {
+        int count = 0;
+        for (double[] fork : run.forks()) {
+            if (fork.length > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? Double.NaN : (after - before) / before * 100;
+    }
+
+    private static double resampleMean(List<double[]> forks, SplittableRandom random) {
+        if (forks.isEmpty()) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        int count = 0;
+        for (int f = 0; f < forks.size(); f++) {
+            double[] fork = forks.get(random.nextInt(forks.size()));
+            if (fork.length == 0) {
+                continue;
+            }
+            for (int i = 0; i < fork.length; i++) {
+                sum += fork[random.nextInt(fork.length)];
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
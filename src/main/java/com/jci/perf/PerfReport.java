@@ -0,0 +1,116 @@
+package com.jci.perf;
+
+import com.jci.json.Json;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders {@link PerfComparison.Delta} lists as plain text, Markdown or JSON.
+ */
+public class PerfReport {
+
+    public enum Format { TEXT, MARKDOWN, JSON }
+
+    public static String render(List<PerfComparison.Delta> deltas, Format format, double confidence) {
+        return switch (format) {
+            case TEXT -> text(deltas, confidence);
+            case MARKDOWN -> markdown(deltas, confidence);
+            case JSON -> json(deltas, confidence);
+        };
+    }
+
+    static String text(List<PerfComparison.Delta> deltas, double confidence) {
+        int width = deltas.stream().mapToInt(delta -> delta.key().length()).max().orElse(9);
+        width = Math.max(width, "Benchmark".length());
+        String row = "%-" + width + "s  %-6s  %14s  %14s  %9s  %-21s  %s%n";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, row, "Benchmark", "Mode", "Base", "Candidate", "Change",
+            percent(confidence) + " CI", "Verdict"));
+        for (PerfComparison.Delta delta : deltas) {
+            sb.append(String.format(Locale.ROOT, row, delta.key(), delta.mode(),
+                score(delta.baseMean()), score(delta.candidateMean()), change(delta.deltaPercent()),
+                interval(delta), delta.verdict().name().toLowerCase(Locale.ROOT)));
+        }
+        sb.append(summary(deltas)).append('\n');
+        return sb.toString();
+    }
+
+    static String markdown(List<PerfComparison.Delta> deltas, double confidence) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| Benchmark | Mode | Base | Candidate | Change | ").append(percent(confidence))
+            .append(" CI | Verdict |\n");
+        sb.append("|---|---|---:|---:|---:|---|---|\n");
+        for (PerfComparison.Delta delta : deltas) {
+            sb.append("| `").append(delta.key().replace("|", "\\|")).append("` | ")
+                .append(delta.mode()).append(" | ")
+                .append(score(delta.baseMean())).append(" | ")
+                .append(score(delta.candidateMean())).append(' ').append(delta.unit()).append(" | ")
+                .append(change(delta.deltaPercent())).append(" | ")
+                .append(interval(delta)).append(" | ")
+                .append(delta.verdict() == PerfComparison.Verdict.REGRESSED ? "**regressed**"
+                    : delta.verdict().name().toLowerCase(Locale.ROOT))
+                .append(" |\n");
+        }
+        sb.append('\n').append(summary(deltas)).append('\n');
+        return sb.toString();
+    }
+
+    static String json(List<PerfComparison.Delta> deltas, double confidence) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"confidence\": ").append(number(confidence)).append(",\n  \"benchmarks\": [");
+        for (int i = 0; i < deltas.size(); i++) {
+            PerfComparison.Delta delta = deltas.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"benchmark\": ").append(Json.quote(delta.key()))
+                .append(", \"mode\": ").append(Json.quote(delta.mode()))
+                .append(", \"unit\": ").append(Json.quote(delta.unit()))
+                .append(", \"base\": ").append(number(delta.baseMean()))
+                .append(", \"candidate\": ").append(number(delta.candidateMean()))
+                .append(", \"changePercent\": ").append(number(delta.deltaPercent()))
+                .append(", \"ciLow\": ").append(number(delta.ciLow()))
+                .append(", \"ciHigh\": ").append(number(delta.ciHigh()))
+                .append(", \"verdict\": ").append(Json.quote(delta.verdict().name().toLowerCase(Locale.ROOT)))
+                .append('}');
+        }
+        sb.append(deltas.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    private static String summary(List<PerfComparison.Delta> deltas) {
+        long regressed = count(deltas, PerfComparison.Verdict.REGRESSED);
+        long improved = count(deltas, PerfComparison.Verdict.IMPROVED);
+        long noise = count(deltas, PerfComparison.Verdict.NOISE);
+        long insufficient = count(deltas, PerfComparison.Verdict.INSUFFICIENT_DATA);
+        return deltas.size() + " benchmark(s): " + regressed + " regressed, " + improved + " improved, "
+            + noise + " within noise" + (insufficient > 0 ? ", " + insufficient + " with fewer than 2 forks" : "");
+    }
+
+    private static long count(List<PerfComparison.Delta> deltas, PerfComparison.Verdict verdict) {
+        return deltas.stream().filter(delta -> delta.verdict() == verdict).count();
+    }
+
+    private static String percent(double confidence) {
+        return String.format(Locale.ROOT, "%.0f%%", confidence * 100);
+    }
+
+    private static String score(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String change(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%+.2f%%", value);
+    }
+
+    private static String interval(PerfComparison.Delta delta) {
+        if (Double.isNaN(delta.ciLow()) || Double.isNaN(delta.ciHigh())) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "[%+.2f%%, %+.2f%%]", delta.ciLow(), delta.ciHigh());
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.format(Locale.ROOT, "%.6g", value);
+    }
+}
@@ -0,0 +1,273 @@
+package com.jci.process;
+
+import com.jci.profile.ProcessEvent;
+import com.jci.profile.Span;
+import com.jci.profile.Tracer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs external commands (git, gh) with a deadline, retries for transient failures and a global
+ * cap on concurrently running children. A call that runs past its deadline, or whose thread is
+ * interrupted, kills the child together with everything it spawned.
+ */
+public class ProcessRunner {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(2);
+
+    /** Exit code reported for a call that was killed at its deadline, as with coreutils {@code timeout}. */
+    public static final int TIMEOUT_EXIT_CODE = 124;
+
+    static final int MAX_CONCURRENT = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT, true);
+    private static final LongAdder SPAWNS = new LongAdder();
+    private static final LongAdder RETRIES = new LongAdder();
+    private static final LongAdder TIMEOUTS = new LongAdder();
+    private static final LongAdder CHILD_NANOS = new LongAdder();
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(2);
+
+    public record Result(int exitCode, String output, String error, boolean timedOut) {
+        public boolean isSuccess() {
+            return exitCode == 0;
+        }
+    }
+
+    /**
+     * How often to retry a failed call and which failures count as transient. Backoff doubles
+     * after every attempt.
+     */
+    public record RetryPolicy(int maxAttempts, Duration backoff, Predicate<Result> retryable) {
+
+        public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, result -> false);
+
+        /**
+         * Retries up to {@code maxAttempts} times when stderr matches one of the given patterns.
+         */
+        public static RetryPolicy onError(int maxAttempts, Duration backoff, Pattern transientError) {
+            return new RetryPolicy(maxAttempts, backoff,
+                result -> !result.timedOut() && transientError.matcher(result.error()).find());
+        }
+
+        Duration backoff(int attempt) {
+            return backoff.multipliedBy(1L << Math.min(attempt - 1, 10));
+        }
+    }
+
+    /**
+     * Per-call settings. {@code displayCommand} replaces the command line in spans, JFR events
+     * and timeout messages, e.g. to keep arguments out of recordings.
+     */
+    public record Options(Duration timeout, RetryPolicy retry, String stdin, String displayCommand) {
+
+        public static Options defaults() {
+            return new Options(DEFAULT_TIMEOUT, RetryPolicy.NONE, null, null);
+        }
+
+        public Options withTimeout(Duration timeout) {
+            return new Options(timeout, retry, stdin, displayCommand);
+        }
+
+        public Options withRetry(RetryPolicy retry) {
+            return new Options(timeout, retry, stdin, displayCommand);
+        }
+
+        public Options withStdin(String stdin) {
+            return new Options(timeout, retry, stdin, displayCommand);
+        }
+
+        public Options withDisplayCommand(String displayCommand) {
+            return new Options(timeout, retry, stdin, displayCommand);
+        }
+    }
+
+    public record Stats(long spawns, long retries, long timeouts, Duration childTime) {}
+
+    private final Path workingDirectory;
+
+    public ProcessRunner(Path workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    public Result run(List<String> command) throws IOException, InterruptedException {
+        return run(command, Options.defaults());
+    }
+
+    /**
+     * Runs {@code command} until it succeeds, fails with a non-retryable error, or the deadline
+     * (shared by all attempts) passes.
+     */
+    public Result run(List<String> command, Options options) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + options.timeout().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            Result result = runOnce(command, options, deadline, attempt, null);
+            if (result.isSuccess() || attempt >= options.retry().maxAttempts()
+                || !options.retry().retryable().test(result)) {
+                return result;
+            }
+            Duration backoff = options.retry().backoff(attempt);
+            if (System.nanoTime() + backoff.toNanos() >= deadline) {
+                return result;
+            }
+            RETRIES.increment();
+            Thread.sleep(backoff);
+        }
+    }
+
+    /**
+     * Like {@link #run(List, Options)}, but passes stdout to {@code lines} line by line instead of
+     * buffering it; the result's output is empty. Lines are delivered on a reader thread, and
+     * calls are not retried because lines already delivered cannot be taken back.
+     */
+    public Result stream(List<String> command, Options options, Consumer<String> lines)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + options.timeout().toNanos();
+        return runOnce(command, options, deadline, 1, lines);
+    }
+
+    /**
+     * Counters across all runners since startup.
+     */
+    public static Stats stats() {
+        return new Stats(SPAWNS.sum(), RETRIES.sum(), TIMEOUTS.sum(), Duration.ofNanos(CHILD_NANOS.sum()));
+    }
+
+    private Result runOnce(List<String> command, Options options, long deadline, int attempt, Consumer<String> lines)
+            throws IOException, InterruptedException {
+        String display = options.displayCommand() != null ? options.displayCommand() : String.join(" ", command);
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(workingDirectory.toFile());
+
+        PERMITS.acquire();
+        ProcessEvent event = new ProcessEvent();
+        event.begin();
+        event.command = display;
+        Span span = Tracer.span(spanName(display)).attribute("command", display);
+        if (attempt > 1) {
+            span.attribute("attempt", attempt);
+        }
+        long start = System.nanoTime();
+        try {
+            Process process = pb.start();
+            SPAWNS.increment();
+            FutureTask<String> output = lines != null ? feed(process.getInputStream(), lines) : drain(process.getInputStream());
+            FutureTask<String> error = drain(process.getErrorStream());
+            write(process.getOutputStream(), options.stdin());
+
+            boolean exited;
+            try {
+                exited = process.waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                destroyTree(process);
+                throw e;
+            }
+            if (!exited) {
+                destroyTree(process);
+                TIMEOUTS.increment();
+            }
+
+            int exitCode = exited ? process.exitValue() : TIMEOUT_EXIT_CODE;
+            // Output of a killed call is best effort; a call that exited must be read completely
+            String errorText = collect(error, exited, display);
+            if (!exited) {
+                String message = display + " timed out after " + options.timeout().toSeconds() + "s";
+                errorText = errorText.isEmpty() ? message : errorText + "\n" + message;
+            }
+            event.exitCode = exitCode;
+            span.attribute("exitCode", exitCode);
+            return new Result(exitCode, collect(output, exited, display), errorText, !exited);
+        } finally {
+            CHILD_NANOS.add(System.nanoTime() - start);
+            PERMITS.release();
+            event.commit();
+            span.close();
+        }
+    }
+
+    private static String spanName(String display) {
+        String[] words = display.split(" ", 3);
+        return words.length > 1 ? words[0] + " " + words[1] : words[0];
+    }
+
+    private static void write(OutputStream stream, String stdin) {
+        // On its own thread, so a child that never reads its input cannot hold the caller past the
+        // deadline; killing the child breaks the pipe and ends the write
+        Thread.ofVirtual().start(() -> {
+            try (OutputStream out = stream) {
+                if (stdin != null) {
+                    out.write(stdin.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                // The child exited without reading its input; its exit code tells the rest
+            }
+        });
+    }
+
+    private static FutureTask<String> drain(InputStream stream) {
+        // stdout and stderr are read concurrently so a child filling one pipe cannot block on the other
+        FutureTask<String> task = new FutureTask<>(() -> {
+            try (InputStream in = stream) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                    .lines().collect(Collectors.joining("\n"));
+            }
+        });
+        Thread.ofVirtual().start(task);
+        return task;
+    }
+
+    private static FutureTask<String> feed(InputStream stream, Consumer<String> lines) {
+        FutureTask<String> task = new FutureTask<>(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.accept(line);
+                }
+            }
+            return "";
+        });
+        Thread.ofVirtual().start(task);
+        return task;
+    }
+
+    private static String collect(FutureTask<String> task, boolean complete, String display)
+            throws IOException, InterruptedException {
+        try {
+            return task.get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A detached grandchild may still hold the pipe open
+            task.cancel(true);
+            if (complete) {
+                throw new IOException(display + " exited, but its output was still open after "
+                    + DRAIN_TIMEOUT.toSeconds() + "s (held by a background process it started?)");
+            }
+            return "";
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read process output", e.getCause());
+        }
+    }
+
+    private static void destroyTree(Process process) {
+        // Children first, while they are still reachable as descendants
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
@@ -0,0 +1,17 @@
+package com.jci.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jci.ConfigLoad")
+@Label("Config Load")
+@Category("jci")
+@Description("Reading and parsing .jci.yaml")
+public class ConfigLoadEvent extends Event {
+
+    @Label("Path")
+    public String path;
+}
@@ -0,0 +1,47 @@
+package com.jci.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+@Name("com.jci.HttpRequest")
+@Label("HTTP Request")
+@Category("jci")
+@Description("An HTTP request made by jci, until the response body is read")
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status = -1;
+
+    /**
+     * Sends {@code request} and records it as an event and a span.
+     */
+    public static HttpResponse<String> send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        event.method = request.method();
+        // Query strings are left out so tokens or keys passed as parameters are not recorded
+        event.uri = request.uri().getScheme() + "://" + request.uri().getHost() + request.uri().getPath();
+        try (Span span = Tracer.span("http " + request.method()).attribute("uri", event.uri)) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            event.status = response.statusCode();
+            span.attribute("status", event.status);
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+}
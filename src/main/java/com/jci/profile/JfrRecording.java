@@ -0,0 +1,68 @@
+package com.jci.profile;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Records the jci event types for the lifetime of one CLI invocation and writes them to a .jfr file.
+ */
+public class JfrRecording implements AutoCloseable {
+
+    static final List<Class<? extends Event>> EVENT_TYPES = List.of(
+        ConfigLoadEvent.class,
+        TemplateCompileEvent.class,
+        TemplateRenderEvent.class,
+        ProcessEvent.class,
+        HttpRequestEvent.class
+    );
+
+    private final Recording recording;
+
+    private JfrRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    public static JfrRecording start(Path file) throws IOException {
+        Recording recording = new Recording();
+        recording.setName("jci");
+        for (Class<? extends Event> type : EVENT_TYPES) {
+            recording.enable(type).withThreshold(Duration.ZERO).withoutStackTrace();
+        }
+        // JFR's own shutdown hook stops the recording on Ctrl+C; with a destination it writes the file then
+        recording.setDestination(file);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return new JfrRecording(recording);
+    }
+
+    /**
+     * Runs {@code command} while recording and writes the recording to {@code file} afterwards.
+     */
+    public static int record(Path file, IntSupplier command) throws IOException {
+        JfrRecording recording = start(file);
+        try {
+            return command.getAsInt();
+        } finally {
+            recording.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                // Writes the destination
+                recording.stop();
+            }
+        } finally {
+            recording.close();
+        }
+    }
+}
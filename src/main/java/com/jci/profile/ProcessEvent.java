@@ -0,0 +1,20 @@
+package com.jci.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jci.Process")
+@Label("Process")
+@Category("jci")
+@Description("An external git or gh process, from spawn until exit")
+public class ProcessEvent extends Event {
+
+    @Label("Command")
+    public String command;
+
+    @Label("Exit Code")
+    public int exitCode = -1;
+}
@@ -0,0 +1,95 @@
+package com.jci.profile;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregates the jci events of a JFR recording by event type and by subject
+ * (config path, template, command or request).
+ */
+public class ProfileSummary {
+
+    public record Entry(String type, String subject, int count, Duration total, Duration max) {}
+
+    private final Map<String, Entry> byType = new LinkedHashMap<>();
+    private final Map<String, Entry> bySubject = new LinkedHashMap<>();
+
+    public static ProfileSummary read(Path file) throws IOException {
+        ProfileSummary summary = new ProfileSummary();
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                if (event.getEventType().getName().startsWith("com.jci.")) {
+                    summary.add(event.getEventType().getLabel(), subject(event), event.getDuration());
+                }
+            }
+        }
+        return summary;
+    }
+
+    void add(String type, String subject, Duration duration) {
+        byType.merge(type, new Entry(type, "", 1, duration, duration), ProfileSummary::combine);
+        bySubject.merge(type + '\0' + subject, new Entry(type, subject, 1, duration, duration), ProfileSummary::combine);
+    }
+
+    private static Entry combine(Entry a, Entry b) {
+        return new Entry(a.type(), a.subject(), a.count() + b.count(), a.total().plus(b.total()),
+            a.max().compareTo(b.max()) >= 0 ? a.max() : b.max());
+    }
+
+    private static String subject(RecordedEvent event) {
+        return switch (event.getEventType().getName()) {
+            case "com.jci.ConfigLoad" -> event.getString("path");
+            case "com.jci.TemplateCompile", "com.jci.TemplateRender" -> event.getString("template");
+            case "com.jci.Process" -> event.getString("command");
+            case "com.jci.HttpRequest" -> event.getString("method") + " " + event.getString("uri");
+            default -> "";
+        };
+    }
+
+    public List<Entry> types() {
+        return sorted(byType);
+    }
+
+    public List<Entry> top(int limit) {
+        return sorted(bySubject).stream().limit(limit).toList();
+    }
+
+    private static List<Entry> sorted(Map<String, Entry> entries) {
+        List<Entry> list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparing(Entry::total).reversed());
+        return list;
+    }
+
+    public String format(int limit) {
+        StringBuilder sb = new StringBuilder();
+        if (byType.isEmpty()) {
+            return "No jci events in recording\n";
+        }
+        sb.append("Time by event type:\n");
+        for (Entry entry : types()) {
+            sb.append(String.format(Locale.ROOT, "  %-18s %5dx %10s total %10s max%n",
+                entry.type(), entry.count(), millis(entry.total()), millis(entry.max())));
+        }
+        sb.append('\n').append("Top ").append(limit).append(" consumers:\n");
+        for (Entry entry : top(limit)) {
+            sb.append(String.format(Locale.ROOT, "  %10s %5dx  %-18s %s%n",
+                millis(entry.total()), entry.count(), entry.type(), entry.subject()));
+        }
+        return sb.toString();
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.1f ms", duration.toNanos() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.jci.profile;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation. Spans are opened with {@link Tracer#span(String)} and closed with
+ * try-with-resources; a span opened while another is open on the same thread becomes its child.
+ */
+public class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span(null, null, null, null);
+
+    private final Tracer tracer;
+    private final String name;
+    private final String spanId;
+    private final Span parent;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, String> attributes;
+    private long durationNanos = -1;
+
+    Span(Tracer tracer, String name, String spanId, Span parent) {
+        this.tracer = tracer;
+        this.name = name;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.startEpochNanos = tracer == null ? 0 : tracer.epochNanos();
+        this.startNanos = System.nanoTime();
+        this.attributes = tracer == null ? Collections.emptyMap() : new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds an attribute; does nothing when tracing is disabled.
+     */
+    public Span attribute(String key, Object value) {
+        if (tracer != null) {
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (tracer != null && durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+            tracer.end(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public int depth() {
+        int depth = 0;
+        for (Span span = parent; span != null; span = span.parent) {
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,109 @@
+package com.jci.profile;
+
+import com.jci.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes finished spans as JSON lines or as an OTLP/JSON trace file that OpenTelemetry collectors
+ * and viewers such as Jaeger can import, and formats them as a timing tree for the console.
+ */
+public class SpanExporter {
+
+    public enum Format { JSONL, OTLP }
+
+    public static void write(Tracer tracer, Format format, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            if (format == Format.OTLP) {
+                writeOtlp(tracer, writer);
+            } else {
+                writeJsonLines(tracer, writer);
+            }
+        }
+    }
+
+    static void writeJsonLines(Tracer tracer, Writer writer) throws IOException {
+        for (Span span : tracer.spans()) {
+            writer.write("{\"traceId\":" + Json.quote(tracer.getTraceId()));
+            writer.write(",\"spanId\":" + Json.quote(span.getSpanId()));
+            if (span.getParent() != null) {
+                writer.write(",\"parentSpanId\":" + Json.quote(span.getParent().getSpanId()));
+            }
+            writer.write(",\"name\":" + Json.quote(span.getName()));
+            writer.write(",\"startTimeUnixNano\":" + span.getStartEpochNanos());
+            writer.write(",\"durationMs\":" + millis(span.getDurationNanos()));
+            writer.write(",\"attributes\":{");
+            String separator = "";
+            for (Map.Entry<String, String> attribute : span.getAttributes().entrySet()) {
+                writer.write(separator + Json.quote(attribute.getKey()) + ":" + Json.quote(attribute.getValue()));
+                separator = ",";
+            }
+            writer.write("}}\n");
+        }
+    }
+
+    static void writeOtlp(Tracer tracer, Writer writer) throws IOException {
+        writer.write("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        writer.write("{\"key\":\"service.name\",\"value\":{\"stringValue\":\"jci\"}}]},");
+        writer.write("\"scopeSpans\":[{\"scope\":{\"name\":\"com.jci\"},\"spans\":[");
+        String separator = "\n";
+        for (Span span : tracer.spans()) {
+            writer.write(separator);
+            separator = ",\n";
+            writer.write("{\"traceId\":" + Json.quote(tracer.getTraceId()));
+            writer.write(",\"spanId\":" + Json.quote(span.getSpanId()));
+            if (span.getParent() != null) {
+                writer.write(",\"parentSpanId\":" + Json.quote(span.getParent().getSpanId()));
+            }
+            writer.write(",\"name\":" + Json.quote(span.getName()));
+            writer.write(",\"kind\":1");
+            // OTLP/JSON encodes 64-bit integers as strings
+            writer.write(",\"startTimeUnixNano\":\"" + span.getStartEpochNanos() + "\"");
+            writer.write(",\"endTimeUnixNano\":\"" + (span.getStartEpochNanos() + span.getDurationNanos()) + "\"");
+            writer.write(",\"attributes\":[");
+            String attributeSeparator = "";
+            for (Map.Entry<String, String> attribute : span.getAttributes().entrySet()) {
+                writer.write(attributeSeparator + "{\"key\":" + Json.quote(attribute.getKey())
+                    + ",\"value\":{\"stringValue\":" + Json.quote(attribute.getValue()) + "}}");
+                attributeSeparator = ",";
+            }
+            writer.write("]}");
+        }
+        writer.write("\n]}]}]}\n");
+    }
+
+    /**
+     * Indented timing tree; child spans show their first attribute (template, path, command) as subject.
+     */
+    public static String summary(Tracer tracer) {
+        List<Span> spans = tracer.spans();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%10s  %s%n", "Time (ms)", "Span"));
+        for (Span span : spans) {
+            String label = "  ".repeat(span.depth()) + span.getName();
+            if (span.getParent() != null && !span.getAttributes().isEmpty()) {
+                label += "  " + span.getAttributes().values().iterator().next();
+            }
+            sb.append(String.format(Locale.ROOT, "%10s  %s%n", millis(span.getDurationNanos()), label));
+        }
+        if (tracer.dropped() > 0) {
+            sb.append(String.format(Locale.ROOT, "%10s  %d more span(s) not recorded (limit %d)%n",
+                "", tracer.dropped(), Tracer.MAX_SPANS));
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
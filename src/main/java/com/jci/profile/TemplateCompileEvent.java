@@ -0,0 +1,17 @@
+package com.jci.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jci.TemplateCompile")
+@Label("Template Compile")
+@Category("jci")
+@Description("Loading and compiling a mustache template")
+public class TemplateCompileEvent extends Event {
+
+    @Label("Template")
+    public String template;
+}
@@ -0,0 +1,17 @@
+package com.jci.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jci.TemplateRender")
+@Label("Template Render")
+@Category("jci")
+@Description("Executing a compiled mustache template against its context")
+public class TemplateRenderEvent extends Event {
+
+    @Label("Template")
+    public String template;
+}
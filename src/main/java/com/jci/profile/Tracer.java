@@ -0,0 +1,100 @@
+package com.jci.profile;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects hierarchical timing spans for one CLI invocation. Tracing is off unless
+ * {@link #enable()} was called; {@link #span(String)} then returns a shared no-op span, so
+ * instrumented code costs one field read.
+ */
+public class Tracer {
+
+    /** Spans kept per invocation; a long --watch session would otherwise grow without bound. */
+    static final int MAX_SPANS = 10_000;
+
+    private static volatile Tracer active;
+
+    private final String traceId = randomHex(16);
+    private final long epochOffsetNanos;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final List<Span> started = new ArrayList<>();
+    private long dropped;
+
+    private Tracer() {
+        Instant now = Instant.now();
+        epochOffsetNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+    }
+
+    public static Tracer enable() {
+        Tracer tracer = new Tracer();
+        active = tracer;
+        return tracer;
+    }
+
+    public static void disable() {
+        active = null;
+    }
+
+    /**
+     * Opens a span as a child of the span currently open on this thread.
+     */
+    public static Span span(String name) {
+        Tracer tracer = active;
+        return tracer == null ? Span.NOOP : tracer.start(name);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Finished spans ordered by start time, so parents precede their children.
+     */
+    public List<Span> spans() {
+        synchronized (started) {
+            return started.stream().filter(span -> span.getDurationNanos() >= 0).toList();
+        }
+    }
+
+    /**
+     * Spans not kept because {@link #MAX_SPANS} were already recorded.
+     */
+    public long dropped() {
+        synchronized (started) {
+            return dropped;
+        }
+    }
+
+    long epochNanos() {
+        return epochOffsetNanos + System.nanoTime();
+    }
+
+    private Span start(String name) {
+        Span span = new Span(this, name, randomHex(8), current.get());
+        current.set(span);
+        synchronized (started) {
+            // Keep the earliest spans: the root and its first children stay intact, and once the
+            // buffer is full every later span (and so every child of a dropped span) is dropped too
+            if (started.size() < MAX_SPANS) {
+                started.add(span);
+            } else {
+                dropped++;
+            }
+        }
+        return span;
+    }
+
+    void end(Span span) {
+        current.set(span.getParent());
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] value = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(value);
+        return HexFormat.of().formatHex(value);
+    }
+}
@@ -0,0 +1,148 @@
+package com.jci.template;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code .jci/generated.lock} file: for every generated file, the hashes of the template, of
+ * the context values the template reads, and of the output that was written. A file whose three
+ * hashes still match can be skipped without rendering; one whose content no longer matches the
+ * recorded output was edited by hand.
+ */
+public class GenerationManifest {
+
+    public static final String FILE = ".jci/generated.lock";
+
+    private static final String HEADER = "# Generated by jci. Records the inputs of generated files so unchanged ones are not rewritten.";
+
+    // Variable, section and inverted-section tags in either the default or the <% %> delimiters
+    private static final Pattern TAG = Pattern.compile("(?:\\{\\{|<%)[{#^&]?\\s*([A-Za-z_][\\w.]*)");
+
+    public enum Status { CREATED, UPDATED, UNCHANGED, MODIFIED }
+
+    public record Entry(String templateHash, String contextHash, String outputHash) {}
+
+    private final Path file;
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private boolean dirty;
+
+    private GenerationManifest(Path file) {
+        this.file = file;
+    }
+
+    public static GenerationManifest load(Path projectPath) throws IOException {
+        GenerationManifest manifest = new GenerationManifest(projectPath.resolve(FILE));
+        if (Files.exists(manifest.file)) {
+            for (String line : Files.readAllLines(manifest.file)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    throw new IOException("Malformed line in " + FILE + ": " + line);
+                }
+                manifest.entries.put(fields[0], new Entry(fields[1], fields[2], fields[3]));
+            }
+        }
+        return manifest;
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    public void put(String path, Entry entry) {
+        if (!entry.equals(entries.put(path, entry))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the manifest if any entry changed since it was loaded.
+     */
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        entries.forEach((path, entry) ->
+            lines.add(path + "\t" + entry.templateHash() + "\t" + entry.contextHash() + "\t" + entry.outputHash()));
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+        dirty = false;
+    }
+
+    public static String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Hash of the top-level context entries the template references, so config changes that a
+     * template does not read leave its hash alone.
+     */
+    public static String contextHash(String templateSource, Map<String, Object> context) {
+        Set<String> names = new TreeSet<>();
+        Matcher matcher = TAG.matcher(templateSource);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            int dot = name.indexOf('.');
+            names.add(dot < 0 ? name : name.substring(0, dot));
+        }
+
+        StringBuilder canonical = new StringBuilder();
+        for (String name : names) {
+            if (context.containsKey(name)) {
+                canonical.append(name).append('=');
+                appendCanonical(canonical, context.get(name));
+                canonical.append('\n');
+            }
+        }
+        return hash(canonical.toString());
+    }
+
+    private static void appendCanonical(StringBuilder sb, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            new TreeMap<>(map).forEach((key, item) -> {
+                sb.append(key).append('=');
+                appendCanonical(sb, item);
+                sb.append(',');
+            });
+            sb.append('}');
+        } else if (value instanceof Collection<?> items) {
+            sb.append('[');
+            for (Object item : items) {
+                appendCanonical(sb, item);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof String text) {
+            sb.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else {
+            sb.append(value);
+        }
+    }
+}
@@ -2,53 +2,268 @@ package com.jci.template;
 
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
+import com.github.mustachejava.MustacheResolver;
+import com.jci.profile.Span;
+import com.jci.profile.TemplateCompileEvent;
+import com.jci.profile.TemplateRenderEvent;
+import com.jci.profile.Tracer;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Renders Mustache templates. Templates are looked up in the override roots in order (by default
+ * the project's {@code .jci/templates}, {@code ~/.jci/templates} and {@code $JCI_ORG_TEMPLATES})
+ * and then in the templates bundled on the classpath. Partials ({@code <%> partials/name%>}) are
+ * resolved relative to the including template and go through the same lookup, so an override root
+ * can replace a shared partial without copying every template that includes it.
+ */
 public class TemplateEngine {
 
-    private final MustacheFactory mustacheFactory;
+    public static final String TEMPLATES_DIR = ".jci/templates";
+    public static final String ORG_TEMPLATES_ENV = "JCI_ORG_TEMPLATES";
 
+    // Partial tags in either delimiter style; the name is relative to the including template
+    private static final Pattern PARTIAL = Pattern.compile("(?:\\{\\{|<%)>\\s*([\\w./-]+)\\s*(?:}}|%>)");
+
+    private record Source(String name, Path file, FileTime modified) {}
+
+    private record Compiled(Mustache mustache, List<Source> sources) {}
+
+    // Dropped on refresh(), since the factory caches compiled partials for its lifetime
+    private volatile DefaultMustacheFactory mustacheFactory;
+    private final List<Path> roots;
+    private final List<TemplateIndex> indexes = new ArrayList<>();
+
+    // Compiled once per engine; overrides are recompiled only after refresh() sees them change
+    private final Map<String, Compiled> compiled = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> bundled = new ConcurrentHashMap<>();
+
+    /**
+     * Engine for the bundled templates only.
+     */
     public TemplateEngine() {
-        this.mustacheFactory = new DefaultMustacheFactory();
+        this(List.of());
     }
 
-    public String render(String templateName, Map<String, Object> context) throws IOException {
-        String templatePath = "templates/" + templateName;
+    public TemplateEngine(List<Path> roots) {
+        this.roots = List.copyOf(roots);
+        for (Path root : this.roots) {
+            indexes.add(TemplateIndex.of(root));
+        }
+    }
 
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(templatePath)) {
-            if (is == null) {
-                throw new IOException("Template not found: " + templatePath);
+    /**
+     * Engine with the standard override roots for {@code projectPath}, highest precedence first.
+     */
+    public static TemplateEngine forProject(Path projectPath) {
+        return new TemplateEngine(defaultRoots(projectPath, System.getenv(ORG_TEMPLATES_ENV)));
+    }
+
+    static List<Path> defaultRoots(Path projectPath, String orgTemplates) {
+        List<Path> roots = new ArrayList<>();
+        roots.add(projectPath.resolve(TEMPLATES_DIR));
+        roots.add(Path.of(System.getProperty("user.home"), TEMPLATES_DIR));
+        if (orgTemplates != null && !orgTemplates.isBlank()) {
+            roots.add(Path.of(orgTemplates.trim()));
+        }
+        return roots;
+    }
+
+    public List<Path> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Re-checks the override roots against their directory modification times and drops compiled
+     * templates whose file, or any partial they include, changed or is now shadowed by another
+     * root. Used between runs in watch mode; a single run never needs it.
+     */
+    public synchronized void refresh() {
+        for (int i = 0; i < indexes.size(); i++) {
+            if (indexes.get(i).isStale()) {
+                indexes.set(i, TemplateIndex.of(roots.get(i)));
+            }
+        }
+        boolean dropped = compiled.values().removeIf(template -> template.sources().stream().anyMatch(source -> {
+            Path file = resolve(source.name());
+            if (!Objects.equals(file, source.file())) {
+                return true;
             }
+            return file != null && !modified(file).equals(source.modified());
+        }));
+        if (dropped) {
+            mustacheFactory = null;
+        }
+    }
 
-            Mustache mustache = mustacheFactory.compile(new InputStreamReader(is), templateName);
+    /**
+     * The override file providing {@code templateName}, or null when the bundled one is used.
+     */
+    public Path resolve(String templateName) {
+        for (TemplateIndex index : indexes) {
+            Path file = index.find(templateName);
+            if (file != null) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    public String render(String templateName, Map<String, Object> context) throws IOException {
+        try (Span span = Tracer.span("template.render").attribute("template", templateName)) {
+            Compiled template = compiled.get(templateName);
+            span.attribute("cached", template != null);
+            if (template == null) {
+                template = compile(templateName);
+                compiled.put(templateName, template);
+            }
+
+            TemplateRenderEvent renderEvent = new TemplateRenderEvent();
+            renderEvent.begin();
             StringWriter writer = new StringWriter();
-            mustache.execute(writer, context);
+            template.mustache().execute(writer, context);
+            renderEvent.template = templateName;
+            renderEvent.commit();
             return writer.toString();
         }
     }
 
+    private Compiled compile(String templateName) throws IOException {
+        TemplateCompileEvent compileEvent = new TemplateCompileEvent();
+        compileEvent.begin();
+        List<Source> sources = new ArrayList<>();
+        for (String name : templateNames(templateName)) {
+            Path file = resolve(name);
+            sources.add(new Source(name, file, file != null ? modified(file) : null));
+        }
+        String source = templateSource(templateName);
+        // Created on first use rather than in the constructor, whose 'this' must not escape to it
+        DefaultMustacheFactory factory = mustacheFactory;
+        if (factory == null) {
+            factory = newFactory();
+            mustacheFactory = factory;
+        }
+        Mustache mustache = factory.compile(new StringReader(source), templateName);
+        compileEvent.template = templateName;
+        compileEvent.commit();
+        return new Compiled(mustache, List.copyOf(sources));
+    }
+
+    private DefaultMustacheFactory newFactory() {
+        MustacheResolver resolver = name -> {
+            try {
+                return new StringReader(templateSource(name));
+            } catch (IOException e) {
+                return null;
+            }
+        };
+        return new DefaultMustacheFactory(resolver);
+    }
+
     public void renderToFile(String templateName, Map<String, Object> context, Path outputPath) throws IOException {
-        String content = render(templateName, context);
+        writeFile(outputPath, render(templateName, context));
+    }
 
+    public void writeFile(Path outputPath, String content) throws IOException {
         // Ensure parent directories exist
         Path parent = outputPath.getParent();
         if (parent != null && !Files.exists(parent)) {
             Files.createDirectories(parent);
         }
 
-        Files.writeString(outputPath, content);
+        try (Span span = Tracer.span("file.write").attribute("path", outputPath)) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            Files.write(outputPath, bytes);
+            span.attribute("bytes", bytes.length);
+        }
     }
 
-    public boolean templateExists(String templateName) {
+    /**
+     * Raw template text, e.g. to hash it without rendering.
+     */
+    public String templateSource(String templateName) throws IOException {
+        Path file = resolve(templateName);
+        if (file != null) {
+            return Files.readString(file);
+        }
         String templatePath = "templates/" + templateName;
-        return getClass().getClassLoader().getResource(templatePath) != null;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(templatePath)) {
+            if (is == null) {
+                throw new IOException("Template not found: " + templatePath);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Template text followed by the text of every partial it includes, transitively. Hashing this
+     * instead of {@link #templateSource} makes an edit to a shared partial outdate every output
+     * that includes it.
+     */
+    public String templateSourceWithPartials(String templateName) throws IOException {
+        StringBuilder sources = new StringBuilder();
+        for (String name : templateNames(templateName)) {
+            sources.append(templateSource(name));
+        }
+        return sources.toString();
+    }
+
+    /**
+     * {@code templateName} and the names of the partials it includes, in include order.
+     */
+    private List<String> templateNames(String templateName) throws IOException {
+        List<String> names = new ArrayList<>();
+        names.add(templateName);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            Matcher matcher = PARTIAL.matcher(templateSource(name));
+            while (matcher.find()) {
+                String partial = partialName(name, matcher.group(1));
+                if (!names.contains(partial)) {
+                    names.add(partial);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Same resolution as {@link DefaultMustacheFactory#resolvePartialPath}: relative to the
+     * including template's directory, with its extension unless the partial names its own.
+     */
+    static String partialName(String includingTemplate, String partial) {
+        int slash = includingTemplate.lastIndexOf('/');
+        String dir = includingTemplate.substring(0, slash + 1);
+        int dot = includingTemplate.lastIndexOf('.');
+        String extension = dot > slash ? includingTemplate.substring(dot) : "";
+        String path = partial.startsWith("/") ? partial.substring(1) : dir + partial;
+        return path.substring(path.lastIndexOf('/') + 1).contains(".") ? path : path + extension;
+    }
+
+    public boolean templateExists(String templateName) {
+        return resolve(templateName) != null || bundled.computeIfAbsent(templateName,
+            name -> getClass().getClassLoader().getResource("templates/" + name) != null);
+    }
+
+    private static FileTime modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
     }
 }
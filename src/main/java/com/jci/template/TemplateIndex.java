@@ -0,0 +1,101 @@
+package com.jci.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of the {@code .mustache} files below one template root, keyed by template name
+ * (e.g. {@code workflows/build-maven.yml.mustache}). Lookups never touch the filesystem; the
+ * snapshot is rebuilt when the modification time of any indexed directory changes, which
+ * happens whenever a file in it is added, removed or renamed.
+ */
+class TemplateIndex {
+
+    // Shared by all engines in the JVM, so user- and org-level roots are scanned once per fleet run
+    private static final Map<Path, TemplateIndex> SHARED = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final Map<String, Path> templates;
+    private final Map<Path, FileTime> directories;
+
+    private TemplateIndex(Path root, Map<String, Path> templates, Map<Path, FileTime> directories) {
+        this.root = root;
+        this.templates = templates;
+        this.directories = directories;
+    }
+
+    /**
+     * Returns the shared index for {@code root}, rescanning it first if it is stale.
+     */
+    static TemplateIndex of(Path root) {
+        Path key = root.toAbsolutePath().normalize();
+        return SHARED.compute(key, (path, index) -> index == null || index.isStale() ? scan(path) : index);
+    }
+
+    static TemplateIndex scan(Path root) {
+        Map<String, Path> templates = new HashMap<>();
+        Map<Path, FileTime> directories = new HashMap<>();
+        if (Files.isDirectory(root)) {
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        directories.put(dir, attrs.lastModifiedTime());
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".mustache")) {
+                            templates.put(root.relativize(file).toString().replace('\\', '/'), file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index templates in " + root, e);
+            }
+        }
+        return new TemplateIndex(root, Map.copyOf(templates), Map.copyOf(directories));
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * The file providing {@code templateName} in this root, or null.
+     */
+    Path find(String templateName) {
+        return templates.get(templateName);
+    }
+
+    int size() {
+        return templates.size();
+    }
+
+    boolean isStale() {
+        if (directories.isEmpty()) {
+            return Files.isDirectory(root);
+        }
+        for (Map.Entry<Path, FileTime> directory : directories.entrySet()) {
+            try {
+                if (!Files.getLastModifiedTime(directory.getKey()).equals(directory.getValue())) {
+                    return true;
+                }
+            } catch (IOException e) {
+                return true; // removed
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+package com.jci.testreport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams JUnit XML reports as written by Surefire, Failsafe and Gradle ({@code TEST-*.xml}) with
+ * StAX. Captured output and stack traces are skipped without being read into memory; failures keep
+ * only their message. Surefire reruns ({@code rerunFailure}, {@code flakyFailure}) are folded into
+ * the test case they belong to.
+ */
+public class JUnitXmlParser {
+
+    private static final int MAX_MESSAGE = 200;
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    public static List<TestCase> parse(Path file, String module) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            return parse(in, module);
+        } catch (IOException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static List<TestCase> parse(InputStream in, String module) throws IOException {
+        try {
+            XMLStreamReader xml = FACTORY.createXMLStreamReader(in);
+            try {
+                return read(xml, module);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid JUnit XML report: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<TestCase> read(XMLStreamReader xml, String module) throws XMLStreamException, IOException {
+        List<TestCase> tests = new ArrayList<>();
+        int depth = 0;
+        String suite = "";
+        boolean sawSuite = false;
+
+        int caseDepth = -1;
+        String className = null;
+        String name = null;
+        double seconds = 0;
+        TestCase.Status status = null;
+        String message = null;
+        int reruns = 0;
+        boolean flaky = false;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String element = xml.getLocalName();
+                if (depth == 1 && !element.equals("testsuite") && !element.equals("testsuites")) {
+                    throw new IOException("Not a JUnit XML report: root element is <" + element + ">");
+                }
+                if (caseDepth < 0) {
+                    if (element.equals("testsuite")) {
+                        String suiteName = xml.getAttributeValue(null, "name");
+                        suite = suiteName != null ? suiteName : "";
+                        sawSuite = true;
+                    } else if (element.equals("testcase")) {
+                        caseDepth = depth;
+                        String classAttribute = xml.getAttributeValue(null, "classname");
+                        className = classAttribute != null && !classAttribute.isEmpty() ? classAttribute : suite;
+                        name = xml.getAttributeValue(null, "name");
+                        seconds = seconds(xml.getAttributeValue(null, "time"));
+                        status = TestCase.Status.PASSED;
+                        message = null;
+                        reruns = 0;
+                        flaky = false;
+                    }
+                } else if (depth == caseDepth + 1) {
+                    switch (element) {
+                        case "failure" -> {
+                            status = TestCase.Status.FAILED;
+                            message = message(xml);
+                        }
+                        case "error" -> {
+                            status = TestCase.Status.ERROR;
+                            message = message(xml);
+                        }
+                        case "skipped" -> status = TestCase.Status.SKIPPED;
+                        case "rerunFailure", "rerunError" -> reruns++;
+                        case "flakyFailure", "flakyError" -> {
+                            reruns++;
+                            flaky = true;
+                            message = message(xml);
+                        }
+                        default -> { }
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == caseDepth) {
+                    // A test that ended up failing after reruns is not flaky, just failed
+                    boolean passed = status == TestCase.Status.PASSED;
+                    tests.add(new TestCase(module, className, name != null ? name : "", seconds, status,
+                        passed && !flaky ? null : message, reruns, flaky && passed));
+                    caseDepth = -1;
+                }
+                depth--;
+            }
+        }
+        if (!sawSuite) {
+            throw new IOException("Not a JUnit XML report: no <testsuite> element");
+        }
+        return tests;
+    }
+
+    private static String message(XMLStreamReader xml) {
+        String message = xml.getAttributeValue(null, "message");
+        if (message == null || message.isBlank()) {
+            message = xml.getAttributeValue(null, "type");
+        }
+        if (message == null) {
+            return null;
+        }
+        message = message.strip();
+        int newline = message.indexOf('\n');
+        if (newline >= 0) {
+            message = message.substring(0, newline).strip();
+        }
+        return message.length() > MAX_MESSAGE ? message.substring(0, MAX_MESSAGE - 3) + "..." : message;
+    }
+
+    private static double seconds(String time) {
+        if (time == null || time.isEmpty()) {
+            return 0;
+        }
+        try {
+            // Older Surefire versions format times with grouping separators, e.g. 1,234.5
+            return Double.parseDouble(time.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return factory;
+    }
+}
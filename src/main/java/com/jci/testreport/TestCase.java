@@ -0,0 +1,34 @@
+package com.jci.testreport;
+
+/**
+ * One test method of a JUnit XML report, after reruns are folded in: {@code reruns} counts the
+ * extra executions, and {@code flaky} is set when a test failed at first but passed on a rerun.
+ */
+public record TestCase(String module, String className, String name, double seconds, Status status,
+                       String message, int reruns, boolean flaky) {
+
+    public enum Status { PASSED, FAILED, ERROR, SKIPPED }
+
+    public boolean isFailure() {
+        return status == Status.FAILED || status == Status.ERROR;
+    }
+
+    /**
+     * Identity across report files, e.g. {@code core:com.example.ParserTest#parses}.
+     */
+    public String key() {
+        return module + ":" + className + "#" + name;
+    }
+
+    /**
+     * Folds in a later execution of the same test, as written by Gradle's test retry plugin:
+     * the last execution decides the status, and earlier failures make a passing test flaky.
+     */
+    public TestCase merge(TestCase retry) {
+        boolean failedBefore = isFailure() || flaky;
+        boolean nowFlaky = retry.status == Status.PASSED && (failedBefore || retry.flaky);
+        String lastMessage = retry.message != null ? retry.message : message;
+        return new TestCase(module, className, name, seconds + retry.seconds, retry.status, lastMessage,
+            reruns + retry.reruns + 1, nowFlaky);
+    }
+}
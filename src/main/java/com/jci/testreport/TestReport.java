@@ -0,0 +1,161 @@
+package com.jci.testreport;
+
+import com.jci.json.Json;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders {@link TestResults} as plain text or JSON.
+ */
+public class TestReport {
+
+    public enum Format { TEXT, JSON }
+
+    public static String render(TestResults results, Format format, int top) {
+        return switch (format) {
+            case TEXT -> text(results, top);
+            case JSON -> json(results, top);
+        };
+    }
+
+    static String text(TestResults results, int top) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(summary(results)).append('\n');
+
+        List<TestResults.ModuleTime> modules = results.modules();
+        if (modules.size() > 1) {
+            int width = Math.max("Module".length(), modules.stream().mapToInt(module -> module.module().length()).max().orElse(0));
+            String row = "%-" + width + "s  %10s  %7s%n";
+            sb.append('\n').append(String.format(Locale.ROOT, row, "Module", "Time", "Tests"));
+            for (TestResults.ModuleTime module : modules) {
+                sb.append(String.format(Locale.ROOT, row, module.module(), seconds(module.seconds()), module.tests()));
+            }
+        }
+
+        List<TestResults.ClassTime> classes = results.slowestClasses(top);
+        if (!classes.isEmpty()) {
+            sb.append("\nSlowest classes:\n");
+            for (TestResults.ClassTime time : classes) {
+                sb.append(String.format(Locale.ROOT, "  %10s  %s (%d tests)%s%n", seconds(time.seconds()),
+                    time.className(), time.tests(), moduleSuffix(time.module(), modules)));
+            }
+        }
+
+        List<TestCase> tests = results.slowestTests(top);
+        if (!tests.isEmpty()) {
+            sb.append("\nSlowest tests:\n");
+            for (TestCase test : tests) {
+                sb.append(String.format(Locale.ROOT, "  %10s  %s#%s%s%n", seconds(test.seconds()),
+                    test.className(), test.name(), moduleSuffix(test.module(), modules)));
+            }
+        }
+
+        List<TestCase> failures = results.failures();
+        if (!failures.isEmpty()) {
+            sb.append("\nFailures:\n");
+            for (TestCase test : failures) {
+                sb.append("  ").append(test.className()).append('#').append(test.name());
+                if (test.status() == TestCase.Status.ERROR) {
+                    sb.append(" (error)");
+                }
+                if (test.message() != null) {
+                    sb.append(": ").append(test.message());
+                }
+                sb.append('\n');
+            }
+        }
+
+        List<TestCase> rerun = results.rerun();
+        if (!rerun.isEmpty()) {
+            sb.append("\nRerun:\n");
+            for (TestCase test : rerun) {
+                sb.append("  ").append(test.className()).append('#').append(test.name())
+                    .append(" (").append(test.reruns()).append(test.reruns() == 1 ? " rerun, " : " reruns, ")
+                    .append(test.flaky() ? "flaky" : test.isFailure() ? "still failing" : test.status().name().toLowerCase(Locale.ROOT))
+                    .append(")\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    static String json(TestResults results, int top) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"files\": ").append(results.files())
+            .append(",\n  \"tests\": ").append(results.tests().size())
+            .append(",\n  \"passed\": ").append(results.count(TestCase.Status.PASSED))
+            .append(",\n  \"failed\": ").append(results.count(TestCase.Status.FAILED))
+            .append(",\n  \"errors\": ").append(results.count(TestCase.Status.ERROR))
+            .append(",\n  \"skipped\": ").append(results.count(TestCase.Status.SKIPPED))
+            .append(",\n  \"flaky\": ").append(results.flaky().size())
+            .append(",\n  \"seconds\": ").append(number(results.seconds()));
+
+        sb.append(",\n  \"modules\": [");
+        List<TestResults.ModuleTime> modules = results.modules();
+        for (int i = 0; i < modules.size(); i++) {
+            TestResults.ModuleTime module = modules.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"module\": ").append(Json.quote(module.module()))
+                .append(", \"seconds\": ").append(number(module.seconds()))
+                .append(", \"tests\": ").append(module.tests()).append('}');
+        }
+        sb.append(modules.isEmpty() ? "]" : "\n  ]");
+
+        sb.append(",\n  \"slowestClasses\": [");
+        List<TestResults.ClassTime> classes = results.slowestClasses(top);
+        for (int i = 0; i < classes.size(); i++) {
+            TestResults.ClassTime time = classes.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"module\": ").append(Json.quote(time.module()))
+                .append(", \"class\": ").append(Json.quote(time.className()))
+                .append(", \"seconds\": ").append(number(time.seconds()))
+                .append(", \"tests\": ").append(time.tests()).append('}');
+        }
+        sb.append(classes.isEmpty() ? "]" : "\n  ]");
+
+        appendTests(sb, "slowestTests", results.slowestTests(top));
+        appendTests(sb, "failures", results.failures());
+        appendTests(sb, "rerun", results.rerun());
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private static void appendTests(StringBuilder sb, String field, List<TestCase> tests) {
+        sb.append(",\n  ").append(Json.quote(field)).append(": [");
+        for (int i = 0; i < tests.size(); i++) {
+            TestCase test = tests.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"module\": ").append(Json.quote(test.module()))
+                .append(", \"class\": ").append(Json.quote(test.className()))
+                .append(", \"test\": ").append(Json.quote(test.name()))
+                .append(", \"seconds\": ").append(number(test.seconds()))
+                .append(", \"status\": ").append(Json.quote(test.status().name().toLowerCase(Locale.ROOT)))
+                .append(", \"reruns\": ").append(test.reruns())
+                .append(", \"flaky\": ").append(test.flaky());
+            if (test.message() != null) {
+                sb.append(", \"message\": ").append(Json.quote(test.message()));
+            }
+            sb.append('}');
+        }
+        sb.append(tests.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static String summary(TestResults results) {
+        return String.format(Locale.ROOT, "%d test(s) in %d file(s): %d passed, %d failed, %d errors, %d skipped, %d flaky; %s total",
+            results.tests().size(), results.files(), results.count(TestCase.Status.PASSED),
+            results.count(TestCase.Status.FAILED), results.count(TestCase.Status.ERROR),
+            results.count(TestCase.Status.SKIPPED), results.flaky().size(), seconds(results.seconds()));
+    }
+
+    private static String moduleSuffix(String module, List<TestResults.ModuleTime> modules) {
+        return modules.size() > 1 ? "  [" + module + "]" : "";
+    }
+
+    private static String seconds(double value) {
+        return String.format(Locale.ROOT, "%.3fs", value);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,193 @@
+package com.jci.testreport;
+
+import com.jci.detector.ModuleGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Test results of one or more JUnit XML report directories, with the aggregates used to triage
+ * slow and unreliable tests. Report files are parsed in parallel, one task per file.
+ */
+public class TestResults {
+
+    // Where Surefire, Failsafe and Gradle write their reports, relative to a module
+    static final List<String> REPORT_DIRS = List.of(
+        "target/surefire-reports",
+        "target/failsafe-reports",
+        "build/test-results"
+    );
+
+    public record ClassTime(String module, String className, double seconds, int tests) {}
+
+    public record ModuleTime(String module, double seconds, int tests) {}
+
+    private final Collection<TestCase> tests;
+    private final int files;
+
+    TestResults(Collection<TestCase> tests, int files) {
+        this.tests = tests;
+        this.files = files;
+    }
+
+    /**
+     * {@code TEST-*.xml} files in the report directories of the project root and of every module.
+     */
+    public static List<Path> find(Path projectPath) throws IOException {
+        Set<Path> moduleDirs = new LinkedHashSet<>();
+        moduleDirs.add(projectPath);
+        Optional<ModuleGraph> graph = ModuleGraph.load(projectPath);
+        if (graph.isPresent()) {
+            for (ModuleGraph.Module module : graph.get().getModules()) {
+                moduleDirs.add(projectPath.resolve(module.directory()).normalize());
+            }
+        }
+        List<Path> files = new ArrayList<>();
+        for (Path moduleDir : moduleDirs) {
+            for (String reportDir : REPORT_DIRS) {
+                files.addAll(scan(moduleDir.resolve(reportDir)));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * {@code TEST-*.xml} files below a directory, or the file itself.
+     */
+    public static List<Path> scan(Path path) throws IOException {
+        if (Files.isRegularFile(path)) {
+            return List.of(path);
+        }
+        if (!Files.isDirectory(path)) {
+            return List.of();
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            return walk.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith("TEST-") && name.endsWith(".xml") && Files.isRegularFile(file);
+            }).sorted().toList();
+        }
+    }
+
+    /**
+     * The module a report file belongs to: its path relative to the project up to the build
+     * output directory, or {@code .} for the root module.
+     */
+    static String module(Path projectPath, Path file) {
+        Path relative = file.isAbsolute() && file.startsWith(projectPath) ? projectPath.relativize(file) : file;
+        for (int i = 0; i < relative.getNameCount() - 1; i++) {
+            String name = relative.getName(i).toString();
+            String next = relative.getName(i + 1).toString();
+            boolean output = name.equals("target") && (next.equals("surefire-reports") || next.equals("failsafe-reports"))
+                || name.equals("build") && next.equals("test-results");
+            if (output) {
+                return i == 0 ? "." : relative.subpath(0, i).toString().replace('\\', '/');
+            }
+        }
+        return ".";
+    }
+
+    public static TestResults read(Path projectPath, List<Path> files, int threads) throws IOException {
+        List<List<TestCase>> parsed = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())))) {
+            List<Future<List<TestCase>>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> JUnitXmlParser.parse(file, module(projectPath, file))));
+            }
+            for (Future<List<TestCase>> future : futures) {
+                parsed.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading test reports", e);
+        }
+
+        // Merged in file order, so retries written later in a run follow the first attempt
+        Map<String, TestCase> tests = new LinkedHashMap<>();
+        for (List<TestCase> fileTests : parsed) {
+            for (TestCase test : fileTests) {
+                tests.merge(test.key(), test, TestCase::merge);
+            }
+        }
+        return new TestResults(tests.values(), files.size());
+    }
+
+    public int files() {
+        return files;
+    }
+
+    public Collection<TestCase> tests() {
+        return tests;
+    }
+
+    public long count(TestCase.Status status) {
+        return tests.stream().filter(test -> test.status() == status).count();
+    }
+
+    public double seconds() {
+        return tests.stream().mapToDouble(TestCase::seconds).sum();
+    }
+
+    public List<TestCase> slowestTests(int limit) {
+        return tests.stream().sorted(Comparator.comparingDouble(TestCase::seconds).reversed()).limit(limit).toList();
+    }
+
+    public List<ClassTime> slowestClasses(int limit) {
+        Map<String, ClassTime> classes = new LinkedHashMap<>();
+        for (TestCase test : tests) {
+            classes.merge(test.module() + ":" + test.className(),
+                new ClassTime(test.module(), test.className(), test.seconds(), 1),
+                (a, b) -> new ClassTime(a.module(), a.className(), a.seconds() + b.seconds(), a.tests() + b.tests()));
+        }
+        return classes.values().stream().sorted(Comparator.comparingDouble(ClassTime::seconds).reversed())
+            .limit(limit).toList();
+    }
+
+    /**
+     * Time per module, slowest first.
+     */
+    public List<ModuleTime> modules() {
+        Map<String, ModuleTime> modules = new TreeMap<>();
+        for (TestCase test : tests) {
+            modules.merge(test.module(), new ModuleTime(test.module(), test.seconds(), 1),
+                (a, b) -> new ModuleTime(a.module(), a.seconds() + b.seconds(), a.tests() + b.tests()));
+        }
+        return modules.values().stream().sorted(Comparator.comparingDouble(ModuleTime::seconds).reversed()).toList();
+    }
+
+    public List<TestCase> failures() {
+        return tests.stream().filter(TestCase::isFailure).toList();
+    }
+
+    public List<TestCase> flaky() {
+        return tests.stream().filter(TestCase::flaky).toList();
+    }
+
+    /**
+     * Tests that ran more than once, whatever the outcome.
+     */
+    public List<TestCase> rerun() {
+        return tests.stream().filter(test -> test.reruns() > 0).toList();
+    }
+}
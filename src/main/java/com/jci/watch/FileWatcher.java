@@ -0,0 +1,157 @@
+package com.jci.watch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches individual files and directory trees for changes and reports them in debounced
+ * batches: a burst of events (an editor writing a temp file, renaming it, touching the
+ * directory) is returned as one set once nothing has changed for the debounce interval.
+ */
+public class FileWatcher implements Closeable {
+
+    private final WatchService service;
+    private final Duration debounce;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path> files = new LinkedHashSet<>();
+    private final Set<Path> trees = new LinkedHashSet<>();
+
+    public FileWatcher(Duration debounce) throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.debounce = debounce;
+    }
+
+    /**
+     * Watches one file; it does not have to exist yet. Only its parent directory is registered.
+     */
+    public void watchFile(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        files.add(absolute);
+        register(absolute.getParent());
+    }
+
+    /**
+     * Watches every file below {@code directory}, including directories created later.
+     */
+    public void watchTree(Path directory) throws IOException {
+        Path absolute = directory.toAbsolutePath().normalize();
+        trees.add(absolute);
+        if (!Files.isDirectory(absolute) && Files.isDirectory(absolute.getParent())) {
+            // Picked up by the create event once the directory appears
+            register(absolute.getParent());
+        }
+        registerTree(absolute);
+    }
+
+    /**
+     * Blocks until at least one watched path changed, then returns all paths changed within
+     * the debounce window.
+     */
+    public Set<Path> take() throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        while (changed.isEmpty()) {
+            collect(service.take(), changed);
+        }
+        settle(changed);
+        return changed;
+    }
+
+    /**
+     * Like {@link #take()}, but returns an empty set if nothing changed within {@code timeout}.
+     */
+    public Set<Path> poll(Duration timeout) throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (changed.isEmpty()) {
+            WatchKey key = service.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (key == null) {
+                return changed;
+            }
+            collect(key, changed);
+        }
+        settle(changed);
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+
+    private void settle(Set<Path> changed) throws InterruptedException {
+        WatchKey key;
+        while ((key = service.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+            collect(key, changed);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were dropped; report every watched input as changed
+                changed.addAll(files);
+                changed.addAll(trees);
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path) && isInTree(path)) {
+                try {
+                    registerTree(path);
+                } catch (IOException e) {
+                    // Removed again before it could be registered
+                }
+            }
+            if (files.contains(path) || isInTree(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private boolean isInTree(Path path) {
+        for (Path tree : trees) {
+            if (path.startsWith(tree)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) walk.filter(Files::isDirectory)::iterator) {
+                register(path);
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, directory);
+    }
+}
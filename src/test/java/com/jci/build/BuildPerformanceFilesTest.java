@@ -0,0 +1,115 @@
+package com.jci.build;
+
+import com.jci.config.JciConfig;
+import com.jci.template.TemplateEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildPerformanceFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BuildPerformanceFiles files;
+    private JciConfig.BuildConfig build;
+
+    @BeforeEach
+    void setUp() {
+        files = new BuildPerformanceFiles(new TemplateEngine());
+        build = new JciConfig.BuildConfig();
+    }
+
+    @Test
+    void writesNothingWhenBuildCacheDisabled() throws IOException {
+        List<Path> written = files.writeMaven(tempDir, build, false);
+
+        assertTrue(written.isEmpty());
+        assertFalse(Files.exists(tempDir.resolve(".mvn")));
+    }
+
+    @Test
+    void createsExtensionsAndCacheConfig() throws IOException {
+        build.setBuildCache(true);
+
+        List<Path> written = files.writeMaven(tempDir, build, false);
+
+        assertEquals(2, written.size());
+        String extensions = Files.readString(tempDir.resolve(".mvn/extensions.xml"));
+        assertTrue(extensions.contains("<artifactId>maven-build-cache-extension</artifactId>"));
+        assertTrue(Files.readString(tempDir.resolve(".mvn/maven-build-cache-config.xml")).contains("<enabled>true</enabled>"));
+    }
+
+    @Test
+    void mergesIntoExistingExtensions() throws IOException {
+        build.setBuildCache(true);
+        Path extensionsPath = tempDir.resolve(".mvn/extensions.xml");
+        Files.createDirectories(extensionsPath.getParent());
+        Files.writeString(extensionsPath, """
+            <extensions>
+                <extension>
+                    <groupId>kr.motd.maven</groupId>
+                    <artifactId>os-maven-plugin</artifactId>
+                    <version>1.7.1</version>
+                </extension>
+            </extensions>
+            """);
+
+        files.writeMaven(tempDir, build, false);
+        String merged = Files.readString(extensionsPath);
+
+        assertTrue(merged.contains("os-maven-plugin"));
+        assertTrue(merged.contains("maven-build-cache-extension"));
+        assertTrue(merged.indexOf("maven-build-cache-extension") < merged.indexOf("</extensions>"));
+    }
+
+    @Test
+    void secondRunLeavesFilesUntouched() throws IOException {
+        build.setBuildCache(true);
+        files.writeMaven(tempDir, build, false);
+
+        List<Path> written = files.writeMaven(tempDir, build, false);
+
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void writesGradlePropertiesForEnabledSettings() throws IOException {
+        build.setParallel(true);
+        build.setBuildCache(true);
+
+        files.writeGradle(tempDir, build);
+        String properties = Files.readString(tempDir.resolve("gradle.properties"));
+
+        assertEquals("org.gradle.parallel=true\norg.gradle.caching=true\n", properties);
+    }
+
+    @Test
+    void mergesGradlePropertiesPreservingExistingEntries() throws IOException {
+        build.setParallel(true);
+        build.setConfigurationCache(true);
+        Files.writeString(tempDir.resolve("gradle.properties"), """
+            # JVM settings
+            org.gradle.jvmargs=-Xmx2g
+            org.gradle.parallel=false
+            """);
+
+        files.writeGradle(tempDir, build);
+        String properties = Files.readString(tempDir.resolve("gradle.properties"));
+
+        assertEquals("""
+            # JVM settings
+            org.gradle.jvmargs=-Xmx2g
+            org.gradle.parallel=true
+            org.gradle.configuration-cache=true
+            """, properties);
+        assertTrue(files.writeGradle(tempDir, build).isEmpty());
+    }
+}
@@ -26,9 +26,13 @@ class JciConfigTest {
         assertFalse(config.getGit().getCommit().isSign());
         assertEquals("ghcr.io", config.getDocker().getRegistry());
         assertEquals(8080, config.getDocker().getPort());
+        assertFalse(config.getDocker().isLayered());
+        assertFalse(config.getDocker().isJlink());
         assertTrue(config.getWorkflows().getBuild().isEnabled());
         assertTrue(config.getWorkflows().getTest().isEnabled());
         assertEquals(80, config.getWorkflows().getTest().getCoverage().getMinCoverage());
+        assertFalse(config.getWorkflows().getBench().isEnabled());
+        assertEquals(10, config.getWorkflows().getBench().getThreshold());
     }
 
     @Test
@@ -87,6 +91,9 @@ class JciConfigTest {
         // Should not contain Java class tags
         assertFalse(content.contains("!!com.jci"));
         assertFalse(content.contains("!!java"));
+        // Distinct default instances, so no YAML anchors or aliases
+        assertFalse(content.contains("&id"));
+        assertFalse(content.contains("*id"));
 
         // Should contain expected YAML keys
         assertTrue(content.contains("build:"));
@@ -0,0 +1,95 @@
+package com.jci.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageSummaryTest {
+
+    private static final String REPORT = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <!DOCTYPE report PUBLIC "-//JACOCO//DTD Report 1.1//EN" "report.dtd">
+        <report name="service">
+          <sessioninfo id="host-1" start="1" dump="2"/>
+          <package name="com/example/api">
+            <class name="com/example/api/Handler" sourcefilename="Handler.java">
+              <method name="handle" desc="()V" line="5">
+                <counter type="INSTRUCTION" missed="1" covered="9"/>
+              </method>
+              <counter type="INSTRUCTION" missed="1" covered="9"/>
+            </class>
+            <sourcefile name="Handler.java">
+              <line nr="5" mi="1" ci="3" mb="0" cb="0"/>
+              <counter type="LINE" missed="1" covered="3"/>
+            </sourcefile>
+            <counter type="INSTRUCTION" missed="20" covered="80"/>
+            <counter type="BRANCH" missed="5" covered="5"/>
+            <counter type="LINE" missed="4" covered="16"/>
+          </package>
+          <group name="legacy">
+            <package name="com/example/legacy">
+              <counter type="INSTRUCTION" missed="50" covered="50"/>
+              <counter type="LINE" missed="10" covered="10"/>
+            </package>
+            <counter type="INSTRUCTION" missed="50" covered="50"/>
+          </group>
+          <counter type="INSTRUCTION" missed="70" covered="130"/>
+          <counter type="BRANCH" missed="5" covered="5"/>
+          <counter type="LINE" missed="14" covered="26"/>
+          <counter type="FUTURE_COUNTER" missed="1" covered="1"/>
+        </report>
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsReportAndPackageTotals() throws IOException {
+        Path report = tempDir.resolve("jacoco.xml");
+        Files.writeString(report, REPORT);
+
+        CoverageSummary summary = CoverageSummary.read(List.of(report));
+
+        assertEquals(new Coverage(70, 130), summary.total(CoverageCounter.INSTRUCTION));
+        assertEquals(65.0, summary.total(CoverageCounter.LINE).percent(), 1e-9);
+        assertEquals(Coverage.EMPTY, summary.total(CoverageCounter.METHOD));
+        assertTrue(Double.isNaN(summary.total(CoverageCounter.METHOD).percent()));
+
+        assertEquals(List.of("com.example.api", "com.example.legacy"), List.copyOf(summary.packages().keySet()));
+        // Class, method and source file counters are not added to the package
+        assertEquals(new Coverage(20, 80), summary.forPackage("com.example.api", CoverageCounter.INSTRUCTION));
+        assertEquals(new Coverage(50, 50), summary.forPackage("com.example.legacy", CoverageCounter.INSTRUCTION));
+        assertEquals(Coverage.EMPTY, summary.forPackage("com.example.legacy", CoverageCounter.BRANCH));
+    }
+
+    @Test
+    void mergesReportsOfSeveralModules() throws IOException {
+        Path first = tempDir.resolve("core.xml");
+        Path second = tempDir.resolve("web.xml");
+        Files.writeString(first, REPORT);
+        Files.writeString(second, REPORT.replace("com/example/api", "com/example/web"));
+
+        CoverageSummary summary = CoverageSummary.read(List.of(first, second));
+
+        assertEquals(new Coverage(140, 260), summary.total(CoverageCounter.INSTRUCTION));
+        assertEquals(new Coverage(100, 100), summary.forPackage("com.example.legacy", CoverageCounter.INSTRUCTION));
+        assertEquals(3, summary.packages().size());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotJacocoReports() throws IOException {
+        Path surefire = tempDir.resolve("TEST-Example.xml");
+        Files.writeString(surefire, "<testsuite name=\"Example\"/>");
+        Path truncated = tempDir.resolve("jacoco.xml");
+        Files.writeString(truncated, REPORT.substring(0, REPORT.length() / 2));
+
+        assertThrows(IOException.class, () -> CoverageSummary.read(List.of(surefire)));
+        assertThrows(IOException.class, () -> CoverageSummary.read(List.of(truncated)));
+    }
+}
@@ -0,0 +1,203 @@
+package com.jci.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NewCodeCoverageTest {
+
+    private static final String DIFF = """
+        diff --git a/core/src/main/java/com/example/Parser.java b/core/src/main/java/com/example/Parser.java
+        index 1111111..2222222 100644
+        --- a/core/src/main/java/com/example/Parser.java
+        +++ b/core/src/main/java/com/example/Parser.java
+        @@ -10,0 +11,3 @@ class Parser {
+        +    int a;
+        +++ looks like a header but is an added line
+        +    int c;
+        @@ -20 +23 @@ class Parser {
+        -    old();
+        +    current();
+        @@ -30,2 +33,0 @@ class Parser {
+        -    removed();
+        -    removed();
+        \\ No newline at end of file
+        @@ -40 +41,2 @@ class Parser {
+        -    x();
+        +    y();
+        +    z();
+        diff --git a/README.md b/README.md
+        --- a/README.md
+        +++ b/README.md
+        @@ -1 +1 @@
+        -old
+        +new
+        diff --git a/core/src/main/java/com/example/Gone.java b/core/src/main/java/com/example/Gone.java
+        deleted file mode 100644
+        --- a/core/src/main/java/com/example/Gone.java
+        +++ /dev/null
+        @@ -1,2 +0,0 @@
+        -class Gone {
+        -}
+        """;
+
+    private static final String REPORT = """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <report name="core">
+          <package name="com/example">
+            <sourcefile name="Parser.java">
+              <line nr="11" mi="0" ci="3" mb="0" cb="0"/>
+              <line nr="13" mi="2" ci="0" mb="0" cb="0"/>
+              <line nr="23" mi="0" ci="4" mb="1" cb="1"/>
+              <line nr="30" mi="5" ci="0" mb="0" cb="0"/>
+              <line nr="42" mi="1" ci="1" mb="0" cb="0"/>
+              <counter type="LINE" missed="2" covered="3"/>
+            </sourcefile>
+            <sourcefile name="Other.java">
+              <line nr="11" mi="3" ci="0" mb="0" cb="0"/>
+            </sourcefile>
+          </package>
+        </report>
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void indexesAddedLinesPerFile() {
+        ChangedLines changes = changes();
+
+        assertEquals(List.of("core/src/main/java/com/example/Parser.java", "README.md"),
+            List.copyOf(changes.files().keySet()));
+        ChangedLines.Ranges ranges = changes.files().get("core/src/main/java/com/example/Parser.java");
+        // 11-13, 23 and 41-42; the pure deletion at 33 adds nothing
+        assertEquals(6, ranges.lineCount());
+        assertTrue(ranges.contains(11));
+        assertTrue(ranges.contains(13));
+        assertFalse(ranges.contains(14));
+        assertTrue(ranges.contains(23));
+        assertFalse(ranges.contains(33));
+        assertTrue(ranges.contains(42));
+        assertFalse(ranges.contains(1));
+    }
+
+    @Test
+    void mergesAdjacentHunks() {
+        ChangedLines changes = new ChangedLines();
+        """
+            +++ b/A.java
+            @@ -1 +1,2 @@
+            -a
+            +b
+            +c
+            @@ -5 +3,2 @@
+            -d
+            +e
+            +f
+            """.lines().forEach(changes);
+
+        ChangedLines.Ranges ranges = changes.files().get("A.java");
+        assertEquals(4, ranges.lineCount());
+        assertTrue(ranges.contains(1));
+        assertTrue(ranges.contains(4));
+        assertFalse(ranges.contains(5));
+    }
+
+    @Test
+    void intersectsChangedLinesWithReportLines() throws IOException {
+        Path report = tempDir.resolve("jacoco.xml");
+        Files.writeString(report, REPORT);
+
+        List<NewCodeCoverage.FileCoverage> files = NewCodeCoverage.compute(changes(), tempDir, List.of(report));
+
+        assertEquals(1, files.size());
+        NewCodeCoverage.FileCoverage parser = files.get(0);
+        assertEquals("core/src/main/java/com/example/Parser.java", parser.path());
+        // Lines 11, 23 and 42 ran, 13 did not; 30 has coverage data but was not changed
+        assertEquals(new Coverage(1, 3), parser.lines());
+        assertEquals(new Coverage(1, 1), parser.branches());
+    }
+
+    @Test
+    void matchesOnlyProductionSourcesOfTheReportsModule() throws IOException {
+        ChangedLines changes = new ChangedLines();
+        """
+            +++ b/Foo.java
+            @@ -0,0 +1 @@
+            +class Foo {}
+            +++ b/core/src/test/java/com/example/Foo.java
+            @@ -0,0 +1 @@
+            +class Foo {}
+            +++ b/core/src/main/java/com/example/Foo.java
+            @@ -0,0 +1 @@
+            +class Foo {}
+            +++ b/api/src/main/java/com/example/Foo.java
+            @@ -0,0 +1 @@
+            +class Foo {}
+            """.lines().forEach(changes);
+        Path core = report("core/target/site/jacoco/jacoco.xml", "com/example", "Foo.java", 1, 1);
+        Path api = report("api/build/reports/jacoco/test/jacocoTestReport.xml", "com/example", "Foo.java", 1, 0);
+        Path root = report("target/site/jacoco/jacoco.xml", "", "Foo.java", 1, 1);
+
+        List<NewCodeCoverage.FileCoverage> files = NewCodeCoverage.compute(changes, tempDir, List.of(core, api, root));
+
+        assertEquals(List.of(
+            new NewCodeCoverage.FileCoverage("core/src/main/java/com/example/Foo.java", new Coverage(0, 1), Coverage.EMPTY),
+            new NewCodeCoverage.FileCoverage("api/src/main/java/com/example/Foo.java", new Coverage(1, 0), Coverage.EMPTY)),
+            files);
+    }
+
+    @Test
+    void countsALineCoveredByTwoReportsOnce() throws IOException {
+        ChangedLines changes = new ChangedLines();
+        """
+            +++ b/core/src/main/java/com/example/Foo.java
+            @@ -0,0 +1 @@
+            +class Foo {}
+            """.lines().forEach(changes);
+        Path module = report("core/target/site/jacoco/jacoco.xml", "com/example", "Foo.java", 1, 0);
+        Path aggregate = report("report/target/site/jacoco-aggregate/jacoco.xml", "com/example", "Foo.java", 1, 1);
+
+        List<NewCodeCoverage.FileCoverage> files = NewCodeCoverage.compute(changes, tempDir, List.of(module, aggregate));
+
+        assertEquals(1, files.size());
+        assertEquals(new Coverage(0, 1), files.get(0).lines());
+    }
+
+    @Test
+    void findsTheModuleOfAReport() {
+        assertEquals("core/", NewCodeCoverage.module(tempDir, tempDir.resolve("core/target/site/jacoco/jacoco.xml")));
+        assertEquals("a/b/", NewCodeCoverage.module(tempDir, tempDir.resolve("a/b/build/reports/jacoco/test/x.xml")));
+        assertEquals("", NewCodeCoverage.module(tempDir, tempDir.resolve("target/site/jacoco/jacoco.xml")));
+        assertNull(NewCodeCoverage.module(tempDir, tempDir.resolve("r/target/site/jacoco-aggregate/jacoco.xml")));
+        assertNull(NewCodeCoverage.module(tempDir, tempDir.resolve("jacoco.xml")));
+        assertNull(NewCodeCoverage.module(tempDir.resolve("project"), tempDir.resolve("core/target/site/jacoco.xml")));
+    }
+
+    private Path report(String path, String pkg, String file, int line, int covered) throws IOException {
+        Path report = tempDir.resolve(path);
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, """
+            <report name="r">
+              <package name="%s">
+                <sourcefile name="%s">
+                  <line nr="%d" mi="%d" ci="%d" mb="0" cb="0"/>
+                </sourcefile>
+              </package>
+            </report>
+            """.formatted(pkg, file, line, 1 - covered, covered));
+        return report;
+    }
+
+    private static ChangedLines changes() {
+        ChangedLines changes = new ChangedLines();
+        DIFF.lines().forEach(changes);
+        return changes;
+    }
+}
@@ -50,6 +50,21 @@ class BuildToolDetectorTest {
         assertFalse(result.get().useKotlinDsl());
     }
 
+    @Test
+    void mavenProjectNameIsNotTheParents() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+            <project>
+                <parent>
+                    <groupId>org.springframework.boot</groupId>
+                    <artifactId>spring-boot-starter-parent</artifactId>
+                </parent>
+                <artifactId>my-app</artifactId>
+            </project>
+            """);
+
+        assertEquals("my-app", detector.detect(tempDir).orElseThrow().projectName());
+    }
+
     @Test
     void detectGradleProject() throws IOException {
         // Create a build.gradle
@@ -135,4 +150,37 @@ class BuildToolDetectorTest {
         assertTrue(result.isPresent());
         assertEquals("17", result.get().javaVersion());
     }
+
+    @Test
+    void detectConfigurationCacheIncompatibleGradleBuild() throws IOException {
+        String gradleContent = """
+            plugins {
+                id 'java'
+                id 'com.github.johnrengelman.shadow' version '7.1.2'
+            }
+
+            tasks.register('printVersion') {
+                doLast {
+                    println project.version
+                }
+            }
+            """;
+        Files.writeString(tempDir.resolve("build.gradle"), gradleContent);
+
+        Optional<BuildToolDetector.DetectionResult> result = detector.detect(tempDir);
+
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isConfigurationCacheCompatible());
+        assertEquals(2, result.get().configurationCacheIssues().size());
+    }
+
+    @Test
+    void plainGradleBuildIsConfigurationCacheCompatible() throws IOException {
+        Files.writeString(tempDir.resolve("build.gradle"), "plugins { id 'java' }");
+
+        Optional<BuildToolDetector.DetectionResult> result = detector.detect(tempDir);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isConfigurationCacheCompatible());
+    }
 }
@@ -0,0 +1,168 @@
+package com.jci.detector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void writePom(String directory, String artifactId, String body) throws IOException {
+        Path dir = tempDir.resolve(directory);
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("pom.xml"), """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <parent>
+                    <groupId>com.example</groupId>
+                    <artifactId>parent</artifactId>
+                    <version>1.0.0</version>
+                </parent>
+                <artifactId>%s</artifactId>
+                %s
+            </project>
+            """.formatted(artifactId, body));
+    }
+
+    private ModuleGraph mavenReactor() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>parent</artifactId>
+                <version>1.0.0</version>
+                <packaging>pom</packaging>
+                <modules>
+                    <module>app</module>
+                    <module>core</module>
+                    <module>services/api</module>
+                    <module>tools</module>
+                </modules>
+            </project>
+            """);
+        writePom("core", "core", "");
+        writePom("services/api", "api", """
+            <dependencies>
+                <dependency>
+                    <groupId>${project.groupId}</groupId>
+                    <artifactId>core</artifactId>
+                </dependency>
+                <dependency>
+                    <groupId>org.slf4j</groupId>
+                    <artifactId>slf4j-api</artifactId>
+                </dependency>
+            </dependencies>
+            """);
+        writePom("app", "app", """
+            <dependencies>
+                <dependency>
+                    <groupId>com.example</groupId>
+                    <artifactId>api</artifactId>
+                </dependency>
+            </dependencies>
+            """);
+        writePom("tools", "tools", "");
+        return ModuleGraph.load(tempDir).orElseThrow();
+    }
+
+    private static List<String> ids(List<ModuleGraph.Module> modules) {
+        return modules.stream().map(ModuleGraph.Module::id).toList();
+    }
+
+    @Test
+    void mavenModulesAreInDependencyOrder() throws IOException {
+        ModuleGraph graph = mavenReactor();
+
+        assertEquals(BuildToolDetector.BuildTool.MAVEN, graph.getBuildTool());
+        assertEquals(List.of("core", "services/api", "app", "tools"), ids(graph.getModules()));
+        assertEquals(2, graph.levels().get(0).size());
+        assertEquals(List.of("app"), ids(graph.levels().get(2)));
+    }
+
+    @Test
+    void independentModulesFormSeparateGroups() throws IOException {
+        ModuleGraph graph = mavenReactor();
+
+        assertEquals(List.of(List.of("core", "services/api", "app"), List.of("tools")),
+            graph.groups().stream().map(ModuleGraphTest::ids).toList());
+    }
+
+    @Test
+    void mavenChangeAffectsModuleAndDependents() throws IOException {
+        ModuleGraph graph = mavenReactor();
+
+        assertEquals(List.of("core", "services/api", "app"),
+            ids(graph.affected(List.of("core/src/main/java/Core.java"))));
+        assertEquals(List.of("tools"), ids(graph.affected(List.of("tools/pom.xml", "README.md"))));
+        assertTrue(graph.affected(List.of("docs/index.md")).isEmpty());
+    }
+
+    @Test
+    void rootBuildFileAffectsEveryModule() throws IOException {
+        ModuleGraph graph = mavenReactor();
+
+        assertEquals(4, graph.affected(List.of("pom.xml")).size());
+        assertEquals(4, graph.affected(List.of(".mvn/wrapper/maven-wrapper.properties")).size());
+    }
+
+    @Test
+    void singleModuleMavenProjectIsNotMultiModule() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+            <project>
+                <groupId>com.example</groupId>
+                <artifactId>app</artifactId>
+            </project>
+            """);
+
+        ModuleGraph graph = ModuleGraph.load(tempDir).orElseThrow();
+
+        assertFalse(graph.isMultiModule());
+        assertTrue(graph.affected(List.of("src/main/java/App.java")).isEmpty());
+    }
+
+    @Test
+    void gradleProjectDependencies() throws IOException {
+        Files.writeString(tempDir.resolve("settings.gradle.kts"), """
+            rootProject.name = "demo"
+            include("app", ":shared-utils")
+            include(":libs:core")
+            """);
+        Files.createDirectories(tempDir.resolve("app"));
+        Files.createDirectories(tempDir.resolve("shared-utils"));
+        Files.createDirectories(tempDir.resolve("libs/core"));
+        Files.writeString(tempDir.resolve("app/build.gradle.kts"), """
+            dependencies {
+                implementation(project(":libs:core"))
+                implementation(projects.sharedUtils)
+            }
+            """);
+        Files.writeString(tempDir.resolve("shared-utils/build.gradle.kts"), """
+            dependencies {
+                api(project(path = ":libs:core"))
+            }
+            """);
+
+        ModuleGraph graph = ModuleGraph.load(tempDir).orElseThrow();
+
+        assertEquals(BuildToolDetector.BuildTool.GRADLE, graph.getBuildTool());
+        assertEquals(List.of(":libs:core", ":shared-utils", ":app"), ids(graph.getModules()));
+        assertEquals(List.of(":shared-utils", ":app"),
+            ids(graph.affected(List.of("shared-utils/src/main/kotlin/Util.kt"))));
+        assertEquals(3, graph.affected(List.of("gradle/libs.versions.toml")).size());
+    }
+
+    @Test
+    void accessorToPathConvertsCamelCase() {
+        assertEquals(":shared-utils:core", ModuleGraph.accessorToPath("sharedUtils.core"));
+    }
+}
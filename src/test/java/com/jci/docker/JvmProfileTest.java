@@ -0,0 +1,48 @@
+package com.jci.docker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JvmProfileTest {
+
+    @Test
+    void noneWhenUnset() {
+        assertEquals(JvmProfile.NONE, JvmProfile.resolve(null, "21"));
+        assertTrue(JvmProfile.NONE.options("21", 0).isEmpty());
+    }
+
+    @Test
+    void latencyUsesGenerationalZgc() {
+        List<String> java21 = JvmProfile.resolve("latency", "21").options("21", 0);
+        List<String> java25 = JvmProfile.LATENCY.options("25", 0);
+
+        assertTrue(java21.contains("-XX:+UseZGC"));
+        assertTrue(java21.contains("-XX:+ZGenerational"));
+        assertTrue(java25.contains("-XX:+UseZGC"));
+        assertFalse(java25.contains("-XX:+ZGenerational"));
+    }
+
+    @Test
+    void throughputAndSmallFootprintSelectCollectors() {
+        assertTrue(JvmProfile.resolve("throughput", "17").options("17", 0).contains("-XX:+UseParallelGC"));
+        assertTrue(JvmProfile.resolve("small-footprint", "11").options("11", 0).contains("-XX:+UseSerialGC"));
+    }
+
+    @Test
+    void rejectsProfilesUnsupportedByJavaVersion() {
+        assertThrows(IllegalArgumentException.class, () -> JvmProfile.resolve("latency", "17"));
+        assertThrows(IllegalArgumentException.class, () -> JvmProfile.resolve("throughput", "1.8"));
+        assertThrows(IllegalArgumentException.class, () -> JvmProfile.resolve("fast", "21"));
+    }
+
+    @Test
+    void activeProcessorCountHandling() {
+        assertTrue(JvmProfile.THROUGHPUT.options("21", 4).contains("-XX:ActiveProcessorCount=4"));
+        assertTrue(JvmProfile.SMALL_FOOTPRINT.options("21", 1).contains("-XX:ActiveProcessorCount=1"));
+        assertThrows(IllegalArgumentException.class, () -> JvmProfile.LATENCY.options("21", 1));
+        assertThrows(IllegalArgumentException.class, () -> JvmProfile.THROUGHPUT.options("21", -1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.jci.docker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupOptimizationTest {
+
+    @Test
+    void noneWhenUnset() {
+        assertEquals(StartupOptimization.NONE, StartupOptimization.resolve(null, "21"));
+        assertEquals(StartupOptimization.NONE, StartupOptimization.resolve("none", "8"));
+    }
+
+    @Test
+    void autoPicksAotWhenSupported() {
+        assertEquals(StartupOptimization.AOT, StartupOptimization.resolve("auto", "25"));
+        assertEquals(StartupOptimization.CDS, StartupOptimization.resolve("auto", "21"));
+    }
+
+    @Test
+    void rejectsIncompatibleJavaVersions() {
+        assertThrows(IllegalArgumentException.class, () -> StartupOptimization.resolve("aot", "21"));
+        assertThrows(IllegalArgumentException.class, () -> StartupOptimization.resolve("cds", "11"));
+        assertThrows(IllegalArgumentException.class, () -> StartupOptimization.resolve("auto", "1.8"));
+    }
+
+    @Test
+    void rejectsUnknownValue() {
+        assertThrows(IllegalArgumentException.class, () -> StartupOptimization.resolve("crac", "21"));
+    }
+
+    @Test
+    void cdsTrainingAndRuntimeOptions() {
+        StartupOptimization cds = StartupOptimization.resolve("cds", "17.0.2");
+
+        assertTrue(cds.trainingCommand("-jar app.jar").contains("-XX:ArchiveClassesAtExit=app.jsa"));
+        assertEquals("-XX:SharedArchiveFile=app.jsa", cds.runtimeOptions().get(0));
+    }
+
+    @Test
+    void aotTrainingRecordsThenCreatesCache() {
+        String command = StartupOptimization.AOT.trainingCommand("-jar app.jar");
+
+        assertTrue(command.contains("-XX:AOTMode=record"));
+        assertTrue(command.contains("-XX:AOTMode=create"));
+        assertEquals("-XX:AOTCache=app.aot", StartupOptimization.AOT.runtimeOptions().get(0));
+    }
+
+    @Test
+    void parsesJavaVersionFormats() {
+        assertEquals(21, JavaVersion.feature("21"));
+        assertEquals(17, JavaVersion.feature("17.0.9"));
+        assertEquals(8, JavaVersion.feature("1.8"));
+        assertThrows(IllegalArgumentException.class, () -> JavaVersion.feature("latest"));
+    }
+}
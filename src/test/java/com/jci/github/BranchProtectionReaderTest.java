@@ -0,0 +1,178 @@
+package com.jci.github;
+
+import com.jci.config.JciConfig.BranchProtectionConfig.BranchRules;
+import com.jci.json.JsonReader;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchProtectionReaderTest {
+
+    private static final Pattern ALIAS = Pattern.compile(
+        "(r\\d+): repository\\(owner: \"([^\"]*)\", name: \"([^\"]*)\"\\)|(b\\d+): ref\\(qualifiedName: \"refs/heads/([^\"]*)\"\\)");
+
+    private static final String RULE = "{\"requiresApprovingReviews\": true, \"requiredApprovingReviewCount\": 2, "
+        + "\"dismissesStaleReviews\": true, \"requiresStatusChecks\": true, "
+        + "\"requiredStatusCheckContexts\": [\"build\", \"test\"], \"isAdminEnforced\": false}";
+
+    private HttpServer server;
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/graphql", exchange -> {
+            queries.incrementAndGet();
+            String query;
+            try (JsonReader json = new JsonReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                json.beginObject();
+                json.nextName();
+                query = json.nextString();
+            }
+            byte[] bytes = answer(query).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsManyRepositoriesInFewQueries() throws Exception {
+        List<BranchProtectionReader.Target> targets = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            targets.add(new BranchProtectionReader.Target("org", "service-" + i, "main"));
+        }
+        targets.add(new BranchProtectionReader.Target("org", "missing", "main"));
+        targets.add(new BranchProtectionReader.Target("org", "open", "main"));
+        targets.add(new BranchProtectionReader.Target("org", "service-0", "gone"));
+
+        List<BranchProtectionReader.Result> results = reader(50).read(targets);
+
+        assertEquals(3, queries.get());
+        assertEquals(targets.size(), results.size());
+        BranchProtectionReader.Result first = results.get(0);
+        assertEquals(targets.get(0), first.target());
+        assertTrue(first.isProtected());
+        assertEquals(2, first.rules().getRequiredApprovals());
+        assertEquals(List.of("build", "test"), first.rules().getStatusChecks());
+        assertFalse(first.rules().isEnforceAdmins());
+
+        assertEquals("Could not resolve to a Repository with the name 'org/missing'.", results.get(120).error());
+        assertTrue(results.get(121).isSuccess());
+        assertFalse(results.get(121).isProtected());
+        assertEquals("branch not found", results.get(122).error());
+    }
+
+    @Test
+    void chunksKeepBranchesOfARepositoryTogether() {
+        List<BranchProtectionReader.Target> targets = List.of(
+            new BranchProtectionReader.Target("o", "a", "main"),
+            new BranchProtectionReader.Target("o", "b", "main"),
+            new BranchProtectionReader.Target("o", "a", "release"),
+            new BranchProtectionReader.Target("o", "b", "release"),
+            new BranchProtectionReader.Target("o", "c", "main"));
+
+        List<List<BranchProtectionReader.Target>> chunks = BranchProtectionReader.chunk(targets, 3);
+
+        assertEquals(List.of(2, 3), chunks.stream().map(List::size).toList());
+        assertEquals(List.of("a", "a"), chunks.get(0).stream().map(BranchProtectionReader.Target::repo).toList());
+        String query = BranchProtectionReader.query(chunks.get(0));
+        assertTrue(query.startsWith("query { r0: repository(owner: \"o\", name: \"a\") { b0: ref(qualifiedName: \"refs/heads/main\")"));
+        assertTrue(query.contains("b1: ref(qualifiedName: \"refs/heads/release\")"));
+    }
+
+    @Test
+    void rejectsEmptyChunks() {
+        List<BranchProtectionReader.Target> targets = List.of(new BranchProtectionReader.Target("o", "a", "main"));
+
+        assertThrows(IllegalArgumentException.class, () -> BranchProtectionReader.chunk(targets, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BranchProtectionReader(null, -1));
+    }
+
+    @Test
+    void reportsDriftFromConfiguredRules() {
+        BranchRules expected = new BranchRules();
+        BranchRules actual = new BranchRules();
+        actual.setRequiredApprovals(0);
+        actual.setStatusChecks(List.of("test", "build"));
+        actual.setEnforceAdmins(true);
+
+        List<String> differences = BranchProtectionReader.differences(expected, actual);
+
+        assertEquals(List.of("requiredApprovals: 0 (expected 1)", "statusChecks: [test, build] (expected "
+            + "[build, test, SonarCloud Code Analysis])", "enforceAdmins: true (expected false)"), differences);
+    }
+
+    private BranchProtectionReader reader(int chunkSize) {
+        RateLimitScheduler scheduler = new RateLimitScheduler(10, 100, 4, 1, Duration.ofMillis(10));
+        return new BranchProtectionReader(
+            new GitHubApi("http://127.0.0.1:" + server.getAddress().getPort(), "test-token", scheduler), chunkSize);
+    }
+
+    /**
+     * A GraphQL response for the aliases in {@code query}: repository "missing" does not exist,
+     * "open" has no protection, branch "gone" does not exist, everything else is protected.
+     */
+    private static String answer(String query) {
+        StringBuilder data = new StringBuilder();
+        List<String> errors = new ArrayList<>();
+        Matcher matcher = ALIAS.matcher(query);
+        String repository = null;
+        boolean firstRef = true;
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                if (repository != null && !repository.equals("missing")) {
+                    data.append('}');
+                }
+                data.append(data.isEmpty() ? "" : ", ").append('"').append(matcher.group(1)).append("\": ");
+                repository = matcher.group(3);
+                firstRef = true;
+                if (repository.equals("missing")) {
+                    data.append("null");
+                    errors.add("{\"type\": \"NOT_FOUND\", \"path\": [\"" + matcher.group(1) + "\"], "
+                        + "\"message\": \"Could not resolve to a Repository with the name 'org/missing'.\"}");
+                } else {
+                    data.append('{');
+                }
+            } else if (!repository.equals("missing")) {
+                data.append(firstRef ? "" : ", ").append('"').append(matcher.group(4)).append("\": ");
+                firstRef = false;
+                String branch = matcher.group(5);
+                if (branch.equals("gone")) {
+                    data.append("null");
+                } else {
+                    data.append("{\"branchProtectionRule\": ").append(repository.equals("open") ? "null" : RULE).append('}');
+                }
+            }
+        }
+        if (repository != null && !repository.equals("missing")) {
+            data.append('}');
+        }
+        return "{\"data\": {" + data + "}" + (errors.isEmpty() ? "" : ", \"errors\": [" + String.join(", ", errors) + "]") + "}";
+    }
+}
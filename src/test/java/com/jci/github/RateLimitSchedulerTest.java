@@ -0,0 +1,229 @@
+package com.jci.github;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitSchedulerTest {
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Long> arrivals = new ConcurrentLinkedQueue<>();
+    private volatile Stub stub = (exchange, call) -> respond(exchange, 200, Map.of(), "{}");
+
+    @FunctionalInterface
+    interface Stub {
+        void handle(HttpExchange exchange, int call) throws IOException;
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            arrivals.add(System.currentTimeMillis());
+            stub.handle(exchange, calls.incrementAndGet());
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesSecondaryLimitAfterRetryAfter() throws Exception {
+        stub = (exchange, call) -> {
+            if (call == 1) {
+                respond(exchange, 403, Map.of("Retry-After", "1"),
+                    "{\"message\": \"You have exceeded a secondary rate limit\"}");
+            } else {
+                respond(exchange, 200, Map.of(), "{\"ok\": true}");
+            }
+        };
+        RateLimitScheduler scheduler = new RateLimitScheduler(5, 50, 4, 3, Duration.ofMillis(10));
+
+        long start = System.nanoTime();
+        RateLimitScheduler.Response response = api(scheduler).get("/repos/o/r");
+
+        assertEquals(200, response.status());
+        assertEquals(2, calls.get());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(950).toNanos());
+        assertEquals(1, scheduler.metrics().throttled());
+        // Halved after the secondary limit, then raised a step by the success
+        assertTrue(scheduler.currentRate(credential()) < 50);
+    }
+
+    @Test
+    void waitsForResetWhenQuotaIsExhausted() throws Exception {
+        long reset = System.currentTimeMillis() / 1000 + 2;
+        stub = (exchange, call) -> respond(exchange, 200, call == 1
+            ? Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", Long.toString(reset))
+            : Map.of("X-RateLimit-Remaining", "4999", "X-RateLimit-Reset", Long.toString(reset + 3600)), "{}");
+        GitHubApi api = api(new RateLimitScheduler(5, 50, 4, 3, Duration.ofMillis(10)));
+
+        api.get("/rate_limit");
+        api.get("/rate_limit");
+
+        List<Long> times = new ArrayList<>(arrivals);
+        assertTrue(times.get(1) >= reset * 1000 - 50, "second request sent before the reset");
+    }
+
+    @Test
+    void backsOffExponentiallyWithoutGuidance() throws Exception {
+        stub = (exchange, call) -> respond(exchange, 429, Map.of(), "{\"message\": \"slow down\"}");
+        RateLimitScheduler scheduler = new RateLimitScheduler(5, 50, 4, 2, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        RateLimitScheduler.Response response = api(scheduler).get("/repos/o/r");
+
+        // Two retries, after 100 and 200 ms, then the 429 is returned
+        assertEquals(429, response.status());
+        assertEquals(3, calls.get());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(290).toNanos());
+        assertEquals("HTTP 429: slow down", GitHubApi.errorMessage(response));
+        // Every limited response halves the rate
+        assertEquals(6.25, scheduler.currentRate(credential()), 1e-9);
+    }
+
+    @Test
+    void pacesAndQueuesConcurrentRequests() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(1, 20, 4, 0, Duration.ofMillis(10));
+        GitHubApi api = api(scheduler);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<RateLimitScheduler.Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> api.get("/repos/o/r")));
+            }
+            for (Future<RateLimitScheduler.Response> future : futures) {
+                assertEquals(200, future.get().status());
+            }
+        }
+
+        // One request at once, then one every 50 ms
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(240).toNanos());
+        RateLimitScheduler.Metrics metrics = scheduler.metrics();
+        assertEquals(6, metrics.requests());
+        assertEquals(0, metrics.queueDepth());
+        assertTrue(metrics.maxQueueDepth() >= 2);
+        assertTrue(metrics.maxWait().toMillis() >= 200);
+    }
+
+    @Test
+    void mutatingRequestsCostFivePoints() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(5, 50, 4, 0, Duration.ofMillis(10));
+        RateLimitScheduler.Call<RateLimitScheduler.Response> ok = () -> new RateLimitScheduler.Response(200, Map.of(), "");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            scheduler.execute("reads", RateLimitScheduler.Cost.READ, ok);
+        }
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(50).toNanos());
+
+        // The first write empties the bucket; the second waits for five points at 50 per second
+        start = System.nanoTime();
+        scheduler.execute("writes", RateLimitScheduler.Cost.write(1), ok);
+        scheduler.execute("writes", RateLimitScheduler.Cost.write(1), ok);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(90).toNanos());
+    }
+
+    @Test
+    void mutatingRequestsAreHeldToTheWriteRate() throws Exception {
+        // Plenty of points, 600 writes per minute: the write burst goes at once, then one write every 100 ms
+        RateLimitScheduler scheduler = new RateLimitScheduler(1000, 1_000_000, 600, 4, 0, Duration.ofMillis(10));
+        RateLimitScheduler.Call<RateLimitScheduler.Response> ok = () -> new RateLimitScheduler.Response(200, Map.of(), "");
+
+        long start = System.nanoTime();
+        scheduler.execute("bulk", RateLimitScheduler.Cost.write(RateLimitScheduler.WRITE_BURST), ok);
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(50).toNanos());
+        scheduler.execute("bulk", RateLimitScheduler.Cost.write(2), ok);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(190).toNanos());
+    }
+
+    @Test
+    void returnsCallResultsOfAnyType() throws Exception {
+        RateLimitScheduler scheduler = new RateLimitScheduler(5, 50, 4, 1, Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        GitHubCli.CommandResult result = scheduler.execute("gh", RateLimitScheduler.Cost.READ,
+            () -> attempts.incrementAndGet() == 1
+                ? new GitHubCli.CommandResult(1, "", "gh: API rate limit exceeded (HTTP 429)")
+                : new GitHubCli.CommandResult(0, "done", ""),
+            GitHubCli::asResponse);
+
+        assertEquals("done", result.output());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void ghCallsArePricedByMethod() {
+        assertEquals(RateLimitScheduler.Cost.READ, GitHubCli.cost(new String[] {"api", "/repos/o/r"}));
+        assertEquals(RateLimitScheduler.Cost.READ, GitHubCli.cost(new String[] {"secret", "list"}));
+        assertEquals(RateLimitScheduler.Cost.write(1), GitHubCli.cost(new String[] {"api", "-X", "put", "/repos/o/r/x"}));
+        assertEquals(RateLimitScheduler.Cost.write(1), GitHubCli.cost(new String[] {"secret", "delete", "TOKEN"}));
+    }
+
+    @Test
+    void ghApiDefaultsToPostWithParameters() {
+        assertEquals("GET", GitHubCli.method(new String[] {"api", "--paginate", "/repos/o/r/actions/secrets"}));
+        assertEquals("POST", GitHubCli.method(new String[] {"api", "/repos/o/r/issues", "-f", "title=x"}));
+        assertEquals("POST", GitHubCli.method(new String[] {"api", "/repos/o/r/issues", "--raw-field", "title=x"}));
+        assertEquals("POST", GitHubCli.method(new String[] {"api", "/graphql", "-Fquery=@q.graphql"}));
+        assertEquals("POST", GitHubCli.method(new String[] {"api", "/repos/o/r/issues", "--input", "body.json"}));
+        assertEquals("GET", GitHubCli.method(new String[] {"api", "-X", "GET", "/search/issues", "-f", "q=repo:o/r"}));
+        assertEquals("PUT", GitHubCli.method(new String[] {"api", "--method=put", "/x", "--input", "-"}));
+        assertEquals(RateLimitScheduler.Cost.write(1), GitHubCli.cost(new String[] {"api", "/repos/o/r/issues", "-f", "title=x"}));
+    }
+
+    @Test
+    void detectsRateLimitResponses() {
+        assertTrue(RateLimitScheduler.isRateLimited(new RateLimitScheduler.Response(429, Map.of(), "")));
+        assertTrue(RateLimitScheduler.isRateLimited(new RateLimitScheduler.Response(403,
+            Map.of("x-ratelimit-remaining", "0"), "")));
+        assertFalse(RateLimitScheduler.isRateLimited(new RateLimitScheduler.Response(403, Map.of(),
+            "{\"message\": \"Resource not accessible by integration\"}")));
+        assertTrue(RateLimitScheduler.isRateLimited(GitHubCli.asResponse(new GitHubCli.CommandResult(1, "",
+            "gh: You have exceeded a secondary rate limit. (HTTP 403)"))));
+    }
+
+    private GitHubApi api(RateLimitScheduler scheduler) {
+        return new GitHubApi("http://127.0.0.1:" + server.getAddress().getPort(), "test-token", scheduler);
+    }
+
+    private static String credential() {
+        return "token-" + Integer.toHexString("test-token".hashCode());
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, String> headers, String body)
+            throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.jci.github;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecretSyncTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void plansOnlyMissingAndStaleSecrets() {
+        List<SecretSync.Secret> secrets = List.of(
+            new SecretSync.Secret("NEW_TOKEN", "a", null),
+            new SecretSync.Secret("SONAR_TOKEN", "b", Instant.parse("2026-05-20T00:00:00Z")),
+            new SecretSync.Secret("OLD_KEY", "c", null),
+            new SecretSync.Secret("FRESH_KEY", "d", Instant.parse("2026-05-01T00:00:00Z")));
+        Map<String, Instant> remote = Map.of(
+            "SONAR_TOKEN", Instant.parse("2026-05-10T00:00:00Z"),
+            "OLD_KEY", Instant.parse("2025-01-01T00:00:00Z"),
+            "FRESH_KEY", Instant.parse("2026-05-10T00:00:00Z"),
+            "NEW_TOKEN_2", Instant.parse("2026-05-10T00:00:00Z"));
+
+        List<SecretSync.Change> changes = SecretSync.plan(secrets, remote, Duration.ofDays(90), false, NOW);
+
+        // NEW_TOKEN_2 exists remotely, but only an exact name counts
+        assertEquals(List.of(SecretSync.Action.CREATE, SecretSync.Action.UPDATE, SecretSync.Action.UPDATE,
+            SecretSync.Action.KEEP), changes.stream().map(SecretSync.Change::action).toList());
+    }
+
+    @Test
+    void maxAgeOfZeroKeepsExistingSecrets() {
+        List<SecretSync.Secret> secrets = List.of(new SecretSync.Secret("OLD_KEY", "c", null));
+        Map<String, Instant> remote = Map.of("OLD_KEY", Instant.parse("2020-01-01T00:00:00Z"));
+
+        assertEquals(SecretSync.Action.KEEP, SecretSync.plan(secrets, remote, Duration.ZERO, false, NOW).get(0).action());
+        assertEquals(SecretSync.Action.UPDATE, SecretSync.plan(secrets, remote, Duration.ZERO, true, NOW).get(0).action());
+    }
+
+    @Test
+    void namesMatchRemoteSecretsRegardlessOfCase() {
+        // GitHub lists every secret uppercased, whatever case it was created with
+        List<SecretSync.Secret> secrets = List.of(new SecretSync.Secret("sonar_token", "b", null));
+        Map<String, Instant> remote = Map.of("SONAR_TOKEN", Instant.parse("2026-05-10T00:00:00Z"));
+
+        SecretSync.Change change = SecretSync.plan(secrets, remote, Duration.ZERO, false, NOW).get(0);
+
+        assertEquals(SecretSync.Action.KEEP, change.action());
+        assertEquals("SONAR_TOKEN", change.name());
+    }
+
+    @Test
+    void rejectsInvalidAndDuplicateNames() {
+        SecretSync.validateNames(List.of("SONAR_TOKEN", "_private", "key2"));
+
+        for (List<String> names : List.of(List.of("2FA_KEY"), List.of("MY-TOKEN"), List.of("github_token"),
+                List.of("API_KEY", "api_key"))) {
+            assertThrows(IllegalArgumentException.class, () -> SecretSync.validateNames(names), names.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SecretSync(null,
+            List.of(new SecretSync.Secret("bad name", "x", null)), Duration.ZERO, false));
+    }
+
+    @Test
+    void looksUpValuesRegardlessOfCase() {
+        Map<String, String> values = Map.of("SONAR_TOKEN", "upper", "npm_token", "lower");
+
+        assertEquals("upper", SecretSync.lookup(values, "sonar_token"));
+        assertEquals("lower", SecretSync.lookup(values, "NPM_TOKEN"));
+        assertNull(SecretSync.lookup(values, "OTHER"));
+        assertEquals("exact", SecretSync.lookup(Map.of("Key", "other", "KEY", "exact"), "KEY"));
+    }
+
+    @Test
+    void readsDotenvFiles() throws IOException {
+        Path file = tempDir.resolve("secrets.env");
+        Files.writeString(file, """
+            # deploy credentials
+            export SONAR_TOKEN=abc123 # comment
+            SINGLE='it is $literal'
+            DOUBLE="line one\\nline \\"two\\""
+            EMPTY=
+
+            """);
+
+        Map<String, String> values = SecretSync.readEnvFile(file);
+
+        assertEquals(Map.of("SONAR_TOKEN", "abc123", "SINGLE", "it is $literal",
+            "DOUBLE", "line one\nline \"two\"", "EMPTY", ""), values);
+        assertTrue(GitHubCli.isDotenvSafe(values.get("SINGLE")));
+        assertFalse(GitHubCli.isDotenvSafe(values.get("DOUBLE")));
+    }
+
+    @Test
+    void rejectsLinesWithoutName() throws IOException {
+        Path file = tempDir.resolve("bad.env");
+        Files.writeString(file, "=value\n");
+
+        assertThrows(IOException.class, () -> SecretSync.readEnvFile(file));
+    }
+}
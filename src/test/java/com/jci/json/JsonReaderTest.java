@@ -0,0 +1,103 @@
+package com.jci.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    @Test
+    void readsNestedValues() throws IOException {
+        JsonReader json = new JsonReader(new StringReader("""
+            {"name": "a\\"b\\u00e9", "n": -1.5e3, "ok": true, "none": null, "list": [1, [], {}]}
+            """));
+
+        json.beginObject();
+        assertEquals("name", json.nextName());
+        assertEquals("a\"bé", json.nextString());
+        assertEquals("n", json.nextName());
+        assertEquals(-1500.0, json.nextDouble());
+        assertEquals("ok", json.nextName());
+        assertTrue(json.nextBoolean());
+        assertEquals("none", json.nextName());
+        json.nextNull();
+        assertEquals("list", json.nextName());
+        json.beginArray();
+        assertEquals(1, json.nextLong());
+        json.beginArray();
+        assertFalse(json.hasNext());
+        json.endArray();
+        json.skipValue();
+        assertFalse(json.hasNext());
+        json.endArray();
+        json.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    void readsCompactJson() throws IOException {
+        JsonReader json = new JsonReader(new StringReader(
+            "{\"data\":{\"url\":\"https:\\/\\/x\",\"emoji\":\"\\ud83d\\ude00\",\"n\":[1,2],\"s\":\"true\"}}"));
+
+        json.beginObject();
+        assertEquals("data", json.nextName());
+        json.beginObject();
+        assertEquals("url", json.nextName());
+        assertEquals("https://x", json.nextString());
+        assertEquals("emoji", json.nextName());
+        assertEquals("\uD83D\uDE00", json.nextString());
+        assertEquals("n", json.nextName());
+        json.beginArray();
+        assertEquals(1, json.nextLong());
+        assertEquals(2, json.nextLong());
+        json.endArray();
+        assertEquals("s", json.nextName());
+        assertEquals(JsonReader.Token.STRING, json.peek());
+        assertEquals("true", json.nextString());
+        json.endObject();
+        json.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    void escapedBackslashBeforeSlashStaysABackslash() throws IOException {
+        JsonReader json = new JsonReader(new StringReader("[\"a\\\\/b\\\\\\/c\"]"));
+
+        json.beginArray();
+        assertEquals("a\\/b\\/c", json.nextString());
+    }
+
+    @Test
+    void skipValueSkipsWholeSubtree() throws IOException {
+        JsonReader json = new JsonReader(new StringReader("[{\"a\": [1, {\"b\": \"]\"}]}, 2]"));
+
+        json.beginArray();
+        json.skipValue();
+        assertEquals(2, json.nextLong());
+        json.endArray();
+    }
+
+    @Test
+    void readsStringsAcrossBufferBoundaries() throws IOException {
+        String value = "x".repeat(20_000);
+        JsonReader json = new JsonReader(new StringReader("[\"" + value + "\"]"));
+
+        json.beginArray();
+        assertEquals(value, json.nextString());
+    }
+
+    @Test
+    void malformedInputReportsOffset() {
+        JsonReader json = new JsonReader(new StringReader("[1 2]"));
+
+        IOException e = assertThrows(IOException.class, () -> {
+            json.beginArray();
+            json.nextLong();
+            json.nextLong();
+        });
+        assertTrue(e.getMessage().contains("offset"));
+    }
+}
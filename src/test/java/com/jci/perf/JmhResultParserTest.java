@@ -0,0 +1,84 @@
+package com.jci.perf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JmhResultParserTest {
+
+    private static final String RESULT = """
+        [
+            {
+                "jmhVersion": "1.37",
+                "benchmark": "com.example.ParserBench.parse",
+                "mode": "avgt",
+                "forks": 2,
+                "jvmArgs": ["-Xmx1g"],
+                "params": {"size": "100", "format": "json"},
+                "primaryMetric": {
+                    "score": 12.5,
+                    "scoreUnit": "ns/op",
+                    "scorePercentiles": {"0.0": 11.0, "100.0": 14.0},
+                    "rawData": [[12.0, 13.0], [12.5, 12.5]]
+                },
+                "secondaryMetrics": {"gc.alloc.rate": {"score": 1.0, "rawData": [[1.0]]}}
+            },
+            {
+                "benchmark": "com.example.ParserBench.parse",
+                "mode": "sample",
+                "primaryMetric": {"score": 15.0, "scoreUnit": "ns/op", "rawDataHistogram": [[[[1.0, 3]]]]}
+            }
+        ]
+        """;
+
+    @Test
+    void streamsForksAndParams() throws IOException {
+        List<BenchmarkRun> runs = new ArrayList<>();
+        JmhResultParser.stream(new StringReader(RESULT), runs::add);
+
+        assertEquals(2, runs.size());
+        BenchmarkRun run = runs.get(0);
+        assertEquals("com.example.ParserBench.parse [format=json, size=100]", run.key());
+        assertEquals("ns/op", run.unit());
+        assertEquals(2, run.forks().size());
+        assertEquals(12.5, run.mean());
+        assertFalse(run.higherIsBetter());
+
+        // Histogram-only sample results fall back to the aggregate score
+        assertEquals(1, runs.get(1).forks().size());
+        assertEquals(15.0, runs.get(1).mean());
+    }
+
+    @Test
+    void loadMergesRepeatedRuns() throws IOException {
+        Path first = tempDir.resolve("run1.json");
+        Path second = tempDir.resolve("run2.json");
+        Files.writeString(first, RESULT);
+        Files.writeString(second, RESULT);
+
+        Map<String, BenchmarkRun> runs = JmhResultParser.load(List.of(first, second));
+
+        assertEquals(2, runs.size());
+        assertEquals(4, runs.get("com.example.ParserBench.parse [format=json, size=100] (avgt)").forks().size());
+    }
+
+    @Test
+    void emptyFileHasNoRuns() throws IOException {
+        List<BenchmarkRun> runs = new ArrayList<>();
+        JmhResultParser.stream(new StringReader(""), runs::add);
+
+        assertTrue(runs.isEmpty());
+    }
+
+    @TempDir
+    Path tempDir;
+}
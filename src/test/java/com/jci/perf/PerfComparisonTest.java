@@ -0,0 +1,100 @@
+package com.jci.perf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfComparisonTest {
+
+    private final PerfComparison comparison = new PerfComparison(1000, 0.95, 2, 42);
+
+    private static BenchmarkRun run(String mode, double mean, double noise, long seed) {
+        Random random = new Random(seed);
+        double[][] forks = new double[3][10];
+        for (double[] fork : forks) {
+            for (int i = 0; i < fork.length; i++) {
+                fork[i] = mean + random.nextGaussian() * noise;
+            }
+        }
+        return new BenchmarkRun("com.example.Bench.run", mode, Map.of(), "ns/op", List.of(forks));
+    }
+
+    @Test
+    void slowerAverageTimeIsRegression() {
+        PerfComparison.Delta delta = comparison.compare(run("avgt", 100, 1, 1), run("avgt", 110, 1, 2));
+
+        assertEquals(PerfComparison.Verdict.REGRESSED, delta.verdict());
+        assertTrue(delta.ciLow() > 0);
+        assertTrue(delta.ciLow() <= delta.deltaPercent() && delta.deltaPercent() <= delta.ciHigh());
+    }
+
+    @Test
+    void higherThroughputIsImprovement() {
+        PerfComparison.Delta delta = comparison.compare(run("thrpt", 100, 1, 1), run("thrpt", 110, 1, 2));
+
+        assertEquals(PerfComparison.Verdict.IMPROVED, delta.verdict());
+    }
+
+    @Test
+    void overlappingNoisyRunsAreNoise() {
+        PerfComparison.Delta delta = comparison.compare(run("avgt", 100, 20, 1), run("avgt", 101, 20, 2));
+
+        assertEquals(PerfComparison.Verdict.NOISE, delta.verdict());
+        assertTrue(delta.ciLow() < 0 && delta.ciHigh() > 0);
+    }
+
+    @Test
+    void significantChangeBelowThresholdIsNoise() {
+        PerfComparison strict = new PerfComparison(1000, 0.95, 20, 42);
+
+        assertEquals(PerfComparison.Verdict.NOISE,
+            strict.compare(run("avgt", 100, 0.1, 1), run("avgt", 110, 0.1, 2)).verdict());
+    }
+
+    @Test
+    void singleForkIsInsufficientData() {
+        // Far apart, but one fork per side gives no run-to-run variance to build an interval from
+        BenchmarkRun base = new BenchmarkRun("com.example.Bench.run", "avgt", Map.of(), "ns/op",
+            List.of(new double[] {100, 100.1, 99.9}));
+        BenchmarkRun candidate = new BenchmarkRun("com.example.Bench.run", "avgt", Map.of(), "ns/op",
+            List.of(new double[] {150}));
+
+        PerfComparison.Delta delta = comparison.compare(base, candidate);
+
+        assertEquals(PerfComparison.Verdict.INSUFFICIENT_DATA, delta.verdict());
+        assertEquals(50, delta.deltaPercent(), 0.001);
+        assertTrue(Double.isNaN(delta.ciLow()) && Double.isNaN(delta.ciHigh()));
+        assertEquals(PerfComparison.Verdict.INSUFFICIENT_DATA, comparison.compare(run("avgt", 100, 1, 1), candidate).verdict());
+        assertTrue(PerfReport.render(List.of(delta), PerfReport.Format.TEXT, 0.95).contains("1 with fewer than 2 forks"));
+    }
+
+    @Test
+    void unmatchedBenchmarksAreReportedAsAddedOrRemoved() {
+        BenchmarkRun base = run("avgt", 100, 1, 1);
+        BenchmarkRun added = new BenchmarkRun("com.example.Bench.other", "avgt", Map.of(), "ns/op", List.of(new double[] {1}));
+
+        List<PerfComparison.Delta> deltas = comparison.compare(Map.of(base.id(), base), Map.of(added.id(), added));
+
+        assertEquals(List.of(PerfComparison.Verdict.REMOVED, PerfComparison.Verdict.ADDED),
+            deltas.stream().map(PerfComparison.Delta::verdict).toList());
+    }
+
+    @Test
+    void resultsAreReproducible() {
+        assertEquals(comparison.compare(run("avgt", 100, 5, 1), run("avgt", 103, 5, 2)),
+            comparison.compare(run("avgt", 100, 5, 1), run("avgt", 103, 5, 2)));
+    }
+
+    @Test
+    void reportsRenderEveryFormat() {
+        List<PerfComparison.Delta> deltas = List.of(comparison.compare(run("avgt", 100, 1, 1), run("avgt", 110, 1, 2)));
+
+        assertTrue(PerfReport.render(deltas, PerfReport.Format.TEXT, 0.95).contains("regressed"));
+        assertTrue(PerfReport.render(deltas, PerfReport.Format.MARKDOWN, 0.95).contains("| **regressed** |"));
+        assertTrue(PerfReport.render(deltas, PerfReport.Format.JSON, 0.95).contains("\"verdict\": \"regressed\""));
+    }
+}
@@ -0,0 +1,129 @@
+package com.jci.process;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void capturesOutputErrorAndStdin() throws IOException, InterruptedException {
+        ProcessRunner.Result result = new ProcessRunner(tempDir).run(List.of("sh", "-c", "cat; echo oops >&2; exit 3"),
+            ProcessRunner.Options.defaults().withStdin("line 1\nline 2\n"));
+
+        assertEquals(3, result.exitCode());
+        assertEquals("line 1\nline 2", result.output());
+        assertEquals("oops", result.error());
+        assertFalse(result.timedOut());
+    }
+
+    @Test
+    void killsProcessTreeAtDeadline() throws Exception {
+        Path pidFile = tempDir.resolve("child.pid");
+        long before = ProcessRunner.stats().timeouts();
+        long start = System.nanoTime();
+
+        ProcessRunner.Result result = new ProcessRunner(tempDir).run(
+            List.of("sh", "-c", "sleep 30 & echo $! > child.pid; wait"),
+            ProcessRunner.Options.defaults().withTimeout(Duration.ofMillis(500)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        assertTrue(result.timedOut());
+        assertEquals(ProcessRunner.TIMEOUT_EXIT_CODE, result.exitCode());
+        assertTrue(result.error().contains("timed out"));
+        assertTrue(ProcessRunner.stats().timeouts() > before);
+
+        long childPid = Long.parseLong(Files.readString(pidFile).trim());
+        assertChildGone(childPid);
+    }
+
+    @Test
+    void failsWhenOutputIsHeldOpenAfterExit() {
+        // The background sleep inherits stdout and keeps it open after sh exits successfully
+        IOException e = assertThrows(IOException.class, () -> new ProcessRunner(tempDir).run(
+            List.of("sh", "-c", "echo partial; sleep 5 & exit 0")));
+
+        assertTrue(e.getMessage().contains("output was still open"), e.getMessage());
+    }
+
+    @Test
+    void deadlineCoversAnUnreadStdin() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+
+        ProcessRunner.Result result = new ProcessRunner(tempDir).run(List.of("sleep", "30"),
+            ProcessRunner.Options.defaults().withTimeout(Duration.ofMillis(500)).withStdin("x".repeat(1 << 20)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        assertTrue(result.timedOut());
+    }
+
+    @Test
+    void interruptKillsChildAndPropagates() throws Exception {
+        Path pidFile = tempDir.resolve("child.pid");
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                new ProcessRunner(tempDir).run(List.of("sh", "-c", "echo $$ > child.pid; sleep 30"));
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        caller.start();
+        for (int i = 0; i < 100 && (!Files.exists(pidFile) || Files.size(pidFile) == 0); i++) {
+            Thread.sleep(50);
+        }
+        caller.interrupt();
+        caller.join(10_000);
+
+        assertFalse(caller.isAlive());
+        assertInstanceOf(InterruptedException.class, thrown.get());
+        assertChildGone(Long.parseLong(Files.readString(pidFile).trim()));
+    }
+
+    @Test
+    void retriesTransientFailures() throws IOException, InterruptedException {
+        String script = "if [ -f marker ]; then echo ok; else touch marker; echo 'Connection reset by peer' >&2; exit 128; fi";
+        ProcessRunner.RetryPolicy retry = ProcessRunner.RetryPolicy.onError(3, Duration.ofMillis(10),
+            Pattern.compile("Connection reset"));
+        long before = ProcessRunner.stats().retries();
+
+        ProcessRunner.Result result = new ProcessRunner(tempDir).run(List.of("sh", "-c", script),
+            ProcessRunner.Options.defaults().withRetry(retry));
+
+        assertTrue(result.isSuccess());
+        assertEquals("ok", result.output());
+        assertEquals(before + 1, ProcessRunner.stats().retries());
+    }
+
+    @Test
+    void doesNotRetryPermanentFailures() throws IOException, InterruptedException {
+        String script = "echo attempt >> attempts; echo 'rejected' >&2; exit 1";
+        ProcessRunner.RetryPolicy retry = ProcessRunner.RetryPolicy.onError(3, Duration.ofMillis(10),
+            Pattern.compile("Connection reset"));
+
+        ProcessRunner.Result result = new ProcessRunner(tempDir).run(List.of("sh", "-c", script),
+            ProcessRunner.Options.defaults().withRetry(retry));
+
+        assertEquals(1, result.exitCode());
+        assertEquals(1, Files.readAllLines(tempDir.resolve("attempts")).size());
+    }
+
+    private static void assertChildGone(long pid) throws InterruptedException {
+        for (int i = 0; i < 50 && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false), "child " + pid + " still alive");
+    }
+}
@@ -0,0 +1,60 @@
+package com.jci.profile;
+
+import com.jci.template.TemplateEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsAndSummarizesJciEvents() throws IOException {
+        Path file = tempDir.resolve("jci.jfr");
+
+        try (JfrRecording recording = JfrRecording.start(file)) {
+            new TemplateEngine().render("workflows/build-maven.yml.mustache", Map.of("mainBranch", "main"));
+
+            ProcessEvent event = new ProcessEvent();
+            event.begin();
+            event.command = "git status --porcelain";
+            event.exitCode = 0;
+            event.commit();
+        }
+
+        assertTrue(Files.size(file) > 0);
+        ProfileSummary summary = ProfileSummary.read(file);
+
+        List<String> types = summary.types().stream().map(ProfileSummary.Entry::type).toList();
+        assertTrue(types.containsAll(List.of("Template Compile", "Template Render", "Process")));
+        assertTrue(summary.format(5).contains("workflows/build-maven.yml.mustache"));
+        assertTrue(summary.format(5).contains("git status --porcelain"));
+    }
+
+    @Test
+    void topConsumersAreSortedByTotalTime() {
+        ProfileSummary summary = new ProfileSummary();
+        summary.add("Process", "git status", Duration.ofMillis(5));
+        summary.add("Process", "gh api", Duration.ofMillis(40));
+        summary.add("Process", "git status", Duration.ofMillis(10));
+        summary.add("Config Load", ".jci.yaml", Duration.ofMillis(1));
+
+        List<ProfileSummary.Entry> top = summary.top(2);
+
+        assertEquals("gh api", top.get(0).subject());
+        assertEquals("git status", top.get(1).subject());
+        assertEquals(2, top.get(1).count());
+        assertEquals(Duration.ofMillis(10), top.get(1).max());
+        assertEquals(Duration.ofMillis(55), summary.types().get(0).total());
+    }
+}
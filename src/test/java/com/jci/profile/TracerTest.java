@@ -0,0 +1,120 @@
+package com.jci.profile;
+
+import com.jci.json.JsonReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    @AfterEach
+    void disable() {
+        Tracer.disable();
+    }
+
+    @Test
+    void disabledTracerReturnsNoopSpan() {
+        Span span = Tracer.span("config.load").attribute("path", ".jci.yaml");
+        span.close();
+
+        assertSame(Span.NOOP, span);
+        assertTrue(span.getAttributes().isEmpty());
+    }
+
+    @Test
+    void nestsSpansOpenedOnTheSameThread() {
+        Tracer tracer = Tracer.enable();
+        try (Span root = Tracer.span("jci workflow generate")) {
+            try (Span render = Tracer.span("template.render").attribute("template", "build.yml")) {
+                Tracer.span("template.compile").close();
+            }
+            Tracer.span("file.write").close();
+        }
+
+        List<Span> spans = tracer.spans();
+        assertEquals(List.of("jci workflow generate", "template.render", "template.compile", "file.write"),
+            spans.stream().map(Span::getName).toList());
+        assertNull(spans.get(0).getParent());
+        assertSame(spans.get(0), spans.get(1).getParent());
+        assertSame(spans.get(1), spans.get(2).getParent());
+        assertSame(spans.get(0), spans.get(3).getParent());
+        assertTrue(spans.get(0).getDurationNanos() >= spans.get(1).getDurationNanos());
+
+        String summary = SpanExporter.summary(tracer);
+        assertTrue(summary.contains("      template.compile"), summary);
+        assertTrue(summary.contains("    template.render  build.yml"), summary);
+    }
+
+    @Test
+    void capsRecordedSpans() {
+        Tracer tracer = Tracer.enable();
+        try (Span root = Tracer.span("jci docker generate")) {
+            for (int i = 0; i < Tracer.MAX_SPANS + 5; i++) {
+                Tracer.span("template.render").close();
+            }
+        }
+
+        assertEquals(Tracer.MAX_SPANS, tracer.spans().size());
+        assertEquals("jci docker generate", tracer.spans().get(0).getName());
+        assertEquals(6, tracer.dropped());
+        assertTrue(SpanExporter.summary(tracer).contains("6 more span(s) not recorded"));
+    }
+
+    @Test
+    void writesJsonLines() throws IOException {
+        Tracer tracer = Tracer.enable();
+        try (Span root = Tracer.span("jci protect apply")) {
+            Tracer.span("gh auth").attribute("command", "gh auth \"status\"").close();
+        }
+
+        StringWriter out = new StringWriter();
+        SpanExporter.writeJsonLines(tracer, out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+
+        JsonReader json = new JsonReader(new StringReader(lines[1]));
+        String parent = null;
+        String command = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "parentSpanId" -> parent = json.nextString();
+                case "attributes" -> {
+                    json.beginObject();
+                    assertEquals("command", json.nextName());
+                    command = json.nextString();
+                    json.endObject();
+                }
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+        assertEquals(tracer.spans().get(0).getSpanId(), parent);
+        assertEquals("gh auth \"status\"", command);
+    }
+
+    @Test
+    void writesOtlpJson() throws IOException {
+        Tracer tracer = Tracer.enable();
+        try (Span root = Tracer.span("jci workflow generate")) {
+            Tracer.span("config.load").attribute("path", ".jci.yaml").close();
+        }
+
+        StringWriter out = new StringWriter();
+        SpanExporter.writeOtlp(tracer, out);
+        String otlp = out.toString();
+
+        JsonReader json = new JsonReader(new StringReader(otlp));
+        json.skipValue();
+        assertEquals(JsonReader.Token.END_DOCUMENT, json.peek());
+        assertTrue(otlp.contains("\"traceId\":\"" + tracer.getTraceId() + "\""));
+        assertTrue(otlp.contains("{\"key\":\"path\",\"value\":{\"stringValue\":\".jci.yaml\"}}"));
+        assertEquals(32, tracer.getTraceId().length());
+    }
+}
@@ -0,0 +1,77 @@
+package com.jci.template;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void savesAndLoadsEntries() throws IOException {
+        GenerationManifest manifest = GenerationManifest.load(tempDir);
+        assertNull(manifest.get(".github/workflows/build.yml"));
+
+        GenerationManifest.Entry entry = new GenerationManifest.Entry("t", "c", GenerationManifest.hash("out"));
+        manifest.put(".github/workflows/build.yml", entry);
+        manifest.save();
+
+        assertTrue(Files.exists(tempDir.resolve(GenerationManifest.FILE)));
+        assertEquals(entry, GenerationManifest.load(tempDir).get(".github/workflows/build.yml"));
+    }
+
+    @Test
+    void doesNotRewriteUnchangedManifest() throws IOException {
+        GenerationManifest manifest = GenerationManifest.load(tempDir);
+        manifest.put("build.yml", new GenerationManifest.Entry("t", "c", "o"));
+        manifest.save();
+        Path file = tempDir.resolve(GenerationManifest.FILE);
+        Files.writeString(file, Files.readString(file) + "# kept\n");
+
+        GenerationManifest reloaded = GenerationManifest.load(tempDir);
+        reloaded.put("build.yml", new GenerationManifest.Entry("t", "c", "o"));
+        reloaded.save();
+
+        assertTrue(Files.readString(file).endsWith("# kept\n"));
+    }
+
+    @Test
+    void contextHashOnlyCoversReferencedValues() {
+        String template = "{{=<% %>=}}\nbranches: [ <%mainBranch%> ]\n<%#modules%><%name%><%/modules%>\n"
+            + "run: echo ${{ github.sha }}\n";
+        Map<String, Object> context = Map.of(
+            "mainBranch", "main",
+            "modules", List.of(Map.of("name", "core")),
+            "dockerPort", 8080);
+
+        String hash = GenerationManifest.contextHash(template, context);
+
+        assertEquals(hash, GenerationManifest.contextHash(template, Map.of(
+            "mainBranch", "main",
+            "modules", List.of(Map.of("name", "core")),
+            "dockerPort", 9090)));
+        assertNotEquals(hash, GenerationManifest.contextHash(template, Map.of(
+            "mainBranch", "develop",
+            "modules", List.of(Map.of("name", "core")))));
+        assertNotEquals(hash, GenerationManifest.contextHash(template, Map.of(
+            "mainBranch", "main",
+            "modules", List.of(Map.of("name", "api")))));
+    }
+
+    @Test
+    void rejectsMalformedManifest() throws IOException {
+        Files.createDirectories(tempDir.resolve(".jci"));
+        Files.writeString(tempDir.resolve(GenerationManifest.FILE), "build.yml only-one-field\n");
+
+        assertThrows(IOException.class, () -> GenerationManifest.load(tempDir));
+    }
+}
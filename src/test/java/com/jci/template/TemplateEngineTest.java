@@ -7,7 +7,9 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,6 +49,23 @@ class TemplateEngineTest {
         assertTrue(result.contains("java-version: '21'"));
         assertTrue(result.contains("cache: maven"));
         assertTrue(result.contains("mvn -B package"));
+        assertFalse(result.contains("build-cache"));
+    }
+
+    @Test
+    void renderMavenWorkflowsWithBuildPerformanceSettings() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("mainBranch", "main");
+        context.put("javaVersion", "21");
+        context.put("mavenThreads", "1C");
+        context.put("mavenBuildCache", true);
+
+        for (String template : new String[]{"build-maven", "test-maven", "sonar-maven"}) {
+            String result = engine.render("workflows/" + template + ".yml.mustache", context);
+
+            assertTrue(result.contains("mvn -B -T 1C "), template);
+            assertTrue(result.contains("path: ~/.m2/build-cache"), template);
+        }
     }
 
     @Test
@@ -62,6 +81,13 @@ class TemplateEngineTest {
         assertTrue(result.contains("java-version: '17'"));
         assertTrue(result.contains("cache: gradle"));
         assertTrue(result.contains("./gradlew build"));
+        assertTrue(result.contains("cache-read-only: ${{ github.event_name == 'pull_request' }}"));
+        assertFalse(result.contains("cache-encryption-key"));
+
+        context.put("gradleConfigurationCache", true);
+        result = engine.render("workflows/build-gradle.yml.mustache", context);
+
+        assertTrue(result.contains("cache-encryption-key: ${{ secrets.GRADLE_ENCRYPTION_KEY }}"));
     }
 
     @Test
@@ -99,6 +125,167 @@ class TemplateEngineTest {
         assertTrue(result.contains("${{ secrets.GITHUB_TOKEN }}"));
         assertTrue(result.contains("./gradlew build -x test"));
         assertFalse(result.contains("mvn -B package"));
+        assertFalse(result.contains("buildkit-cache-dance"));
+
+        context.put("dockerCacheMounts", true);
+        result = engine.render("workflows/docker-publish.yml.mustache", context);
+
+        assertTrue(result.contains("reproducible-containers/buildkit-cache-dance@v3"));
+        assertTrue(result.contains("\"buildkit-cache/gradle\": \"/root/.gradle\""));
+        assertTrue(result.contains("cache-from: type=gha"));
+
+        context.put("dockerNative", true);
+        result = engine.render("workflows/docker-publish.yml.mustache", context);
+
+        assertFalse(result.contains("./gradlew build -x test"));
+        assertFalse(result.contains("actions/setup-java"));
+        assertTrue(result.contains("platforms: linux/amd64"));
+    }
+
+    @Test
+    void renderPipelineTemplateCompilesOnce() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("mainBranch", "main");
+        context.put("javaVersion", "21");
+        context.put("testEnabled", true);
+        context.put("sonarEnabled", true);
+        context.put("dockerEnabled", true);
+
+        String result = engine.render("workflows/pipeline-maven.yml.mustache", context);
+
+        assertEquals(1, result.split("mvn -B package", -1).length - 1);
+        assertTrue(result.contains("name: build-output"));
+        // A lifecycle phase, so sibling modules of a multi-module build resolve from the reactor
+        assertTrue(result.contains("jacoco-maven-plugin:prepare-agent \\\n            test \\\n"));
+        assertFalse(result.contains("surefire:test"));
+        assertTrue(result.contains("sonar-maven-plugin:sonar"));
+        assertTrue(result.contains("needs: [build, test]"));
+
+        context.put("testEnabled", false);
+        context.put("dockerEnabled", false);
+        result = engine.render("workflows/pipeline-gradle.yml.mustache", context);
+
+        assertFalse(result.contains("\n  test:"));
+        assertFalse(result.contains("\n  docker:"));
+        assertTrue(result.contains("needs: [build]"));
+        assertTrue(result.contains("./gradlew sonar -x compileJava"));
+    }
+
+    @Test
+    void renderSelectiveBuildWorkflows() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("mainBranch", "main");
+        context.put("javaVersion", "17");
+        context.put("selectiveBuild", true);
+        context.put("jciVersion", "1.2.0");
+        context.put("jciSha256", "ab".repeat(32));
+
+        String result = engine.render("workflows/build-maven.yml.mustache", context);
+
+        assertTrue(result.contains("fetch-depth: 0"));
+        assertTrue(result.contains("releases/download/v$JCI_VERSION/jci-$JCI_VERSION.jar"));
+        assertTrue(result.contains("JCI_SHA256: '" + "ab".repeat(32) + "'"));
+        assertTrue(result.contains("sha256sum -c -"));
+        assertFalse(result.contains("git clone"));
+        assertTrue(result.contains("jci build affected --base \"origin/${{ github.base_ref }}\" --github-output >> \"$GITHUB_OUTPUT\""));
+        assertTrue(result.contains("        if: steps.affected.outputs.skip != 'true'\n"
+            + "        run: mvn -B package ${{ steps.affected.outputs.args }} --file pom.xml"));
+        // jci's JDK has to be set up before the project's, which then owns JAVA_HOME
+        assertTrue(result.indexOf("Set up JDK 21 for jci") < result.indexOf("Set up JDK 17"));
+        assertFalse(result.contains("<%"));
+        assertFalse(result.contains("{{="));
+
+        context.put("isGradle", true);
+        context.put("affectedTasks", List.of("test", "jacocoTestReport"));
+        result = engine.render("workflows/test-gradle.yml.mustache", context);
+
+        assertTrue(result.contains("--github-output \\\n            --task test \\\n            --task jacocoTestReport >>"));
+        assertTrue(result.contains("./gradlew ${{ steps.affected.outputs.args || 'test jacocoTestReport' }}"));
+        assertTrue(result.contains("if: github.event_name == 'pull_request' && steps.affected.outputs.skip != 'true'"));
+
+        context.put("selectiveBuild", false);
+        result = engine.render("workflows/build-gradle.yml.mustache", context);
+
+        assertFalse(result.contains("build affected"));
+        assertFalse(result.contains("steps.affected"));
+        assertTrue(result.contains("run: ./gradlew build"));
+    }
+
+    @Test
+    void overrideRootsReplaceSharedPartials() throws IOException {
+        Path root = tempDir.resolve("templates");
+        Path partial = root.resolve("workflows/partials/jci-install.mustache");
+        Files.createDirectories(partial.getParent());
+        Files.writeString(partial, "      - name: Install jci from mirror\n");
+        TemplateEngine layered = new TemplateEngine(List.of(root));
+        Map<String, Object> context = Map.of("selectiveBuild", true);
+
+        String result = layered.render("workflows/build-maven.yml.mustache", context);
+
+        assertTrue(result.contains("- name: Install jci from mirror\n"));
+        assertTrue(result.contains("- name: Compute affected modules"));
+        assertFalse(result.contains("sha256sum"));
+        assertTrue(layered.templateSourceWithPartials("workflows/build-maven.yml.mustache")
+            .contains("Install jci from mirror"));
+
+        // Editing the partial recompiles every template that includes it
+        Files.writeString(partial, "      - name: Install jci from cache\n");
+        Files.setLastModifiedTime(partial, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        layered.refresh();
+        assertTrue(layered.render("workflows/build-maven.yml.mustache", context).contains("Install jci from cache"));
+    }
+
+    @Test
+    void renderModuleMatrixWorkflow() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("mainBranch", "main");
+        context.put("javaVersion", "21");
+        context.put("matrixModules", List.of(
+            Map.of("id", "app", "name", "app", "projects", "core,services/api,app",
+                "tasks", ":core:build :services:api:build :app:build"),
+            Map.of("id", "tools", "name", "tools", "projects", "tools", "tasks", ":tools:build")));
+
+        String result = engine.render("workflows/build-matrix-maven.yml.mustache", context);
+
+        // -am builds upstream modules in the same job, so the matrix entries never wait on each other
+        assertTrue(result.contains("  modules:\n"));
+        assertEquals(1, result.split("    needs: ", -1).length - 1);
+        assertTrue(result.contains("    needs: modules\n"));
+        assertTrue(result.contains("- id: 'app'\n            name: 'app'\n            projects: 'core,services/api,app'\n"));
+        assertTrue(result.contains("- id: 'tools'"));
+        assertTrue(result.contains("-pl ${{ matrix.module.projects }} -am package"));
+        assertTrue(result.contains("${{ runner.os }}-m2-${{ matrix.module.name }}-"));
+
+        result = engine.render("workflows/build-matrix-gradle.yml.mustache", context);
+
+        assertTrue(result.contains("tasks: ':core:build :services:api:build :app:build'"));
+        assertTrue(result.contains("./gradlew ${{ matrix.module.tasks }}"));
+    }
+
+    @Test
+    void renderBenchWorkflowComparesBaseAndHead() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("mainBranch", "main");
+        context.put("javaVersion", "21");
+        context.put("benchThreshold", 5);
+
+        String result = engine.render("workflows/bench-maven.yml.mustache", context);
+
+        assertTrue(result.contains("git worktree add \"$RUNNER_TEMP/base\" ${{ github.event.pull_request.base.sha }}"));
+        assertTrue(result.contains("-rff \"$GITHUB_WORKSPACE/jmh-base.json\""));
+        assertTrue(result.contains("jci perf compare --base jmh-base.json jmh-head.json --threshold 5"));
+        assertTrue(result.contains("sha256sum -c -"));
+        assertFalse(result.contains("python3"));
+        assertTrue(result.contains("GITHUB_STEP_SUMMARY"));
+        assertTrue(result.contains("retention-days: 90"));
+
+        result = engine.render("workflows/bench-gradle.yml.mustache", context);
+
+        assertTrue(result.contains("jci perf compare"));
+
+        assertTrue(result.contains("./gradlew jmhJar"));
+        assertTrue(result.contains("*-jmh.jar"));
+        assertFalse(result.contains("mvn -B"));
     }
 
     @Test
@@ -115,6 +302,142 @@ class TemplateEngineTest {
         assertTrue(result.contains("mvnw"));
     }
 
+    @Test
+    void renderLayeredDockerfileTemplate() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("layered", true);
+
+        String result = engine.render("docker/Dockerfile.maven.mustache", context);
+
+        assertTrue(result.contains("AS extractor"));
+        assertTrue(result.contains("-Djarmode=layertools"));
+        assertTrue(result.contains("/app/extracted/dependencies/"));
+        assertTrue(result.contains("/app/extracted/snapshot-dependencies/"));
+        assertTrue(result.contains("/app/extracted/application/"));
+        assertTrue(result.contains("org.springframework.boot.loader.launch.JarLauncher"));
+        assertFalse(result.contains("\"-jar\", \"app.jar\""));
+        assertFalse(result.contains("AS jlink"));
+    }
+
+    @Test
+    void renderJlinkDockerfileTemplate() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("jlink", true);
+
+        String result = engine.render("docker/Dockerfile.gradle.mustache", context);
+
+        assertTrue(result.contains("AS jlink"));
+        assertTrue(result.contains("--print-module-deps"));
+        assertTrue(result.contains("--output /javaruntime"));
+        assertTrue(result.contains("FROM debian:bookworm-slim"));
+        assertFalse(result.contains("FROM eclipse-temurin:21-jre"));
+        assertTrue(result.contains("ENTRYPOINT [\"java\", \"-jar\", \"app.jar\"]"));
+    }
+
+    @Test
+    void renderDockerfileWithStartupTraining() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("startupTraining", true);
+        context.put("trainingCommand", "java -XX:ArchiveClassesAtExit=app.jsa -jar app.jar");
+        context.put("archiveFile", "app.jsa");
+        context.put("jvmOptions", List.of("-XX:SharedArchiveFile=app.jsa"));
+
+        String result = engine.render("docker/Dockerfile.maven.mustache", context);
+
+        assertTrue(result.contains("FROM runtime AS training"));
+        assertTrue(result.contains("RUN java -XX:ArchiveClassesAtExit=app.jsa -jar app.jar"));
+        assertTrue(result.contains("COPY --from=training --chown=appuser:appgroup /app/app.jsa app.jsa"));
+        assertTrue(result.contains("ENTRYPOINT [\"java\", \"-XX:SharedArchiveFile=app.jsa\", \"-jar\", \"app.jar\"]"));
+    }
+
+    @Test
+    void renderDockerfileWithCacheMounts() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("cacheMounts", true);
+
+        String maven = engine.render("docker/Dockerfile.maven.mustache", context);
+        String gradle = engine.render("docker/Dockerfile.gradle.mustache", context);
+
+        assertTrue(maven.startsWith("# syntax=docker/dockerfile:1\n"));
+        assertTrue(maven.contains("RUN --mount=type=cache,target=/root/.m2 ./mvnw dependency:go-offline -B"));
+        assertTrue(maven.contains("RUN --mount=type=cache,target=/root/.m2 ./mvnw package -DskipTests -B"));
+        assertTrue(gradle.contains("RUN --mount=type=cache,target=/root/.gradle ./gradlew dependencies --no-daemon"));
+    }
+
+    @Test
+    void renderFromArtifactDockerfileSkipsBuildStage() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("fromArtifact", true);
+        context.put("isMaven", true);
+
+        String dockerfile = engine.render("docker/Dockerfile.maven.mustache", context);
+        String dockerignore = engine.render("docker/dockerignore-artifact.mustache", context);
+
+        assertTrue(dockerfile.contains("FROM scratch AS builder"));
+        assertTrue(dockerfile.contains("COPY target/*.jar /app/target/"));
+        assertFalse(dockerfile.contains("mvnw"));
+        assertFalse(dockerfile.contains("-jdk AS builder"));
+        assertTrue(dockerignore.startsWith("# Narrow build context"));
+        assertTrue(dockerignore.contains("\n*\n!target/*.jar\n"));
+    }
+
+    @Test
+    void renderNativeDockerfileTemplate() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("isGradle", true);
+
+        String result = engine.render("docker/Dockerfile.native.mustache", context);
+
+        assertTrue(result.contains("FROM ghcr.io/graalvm/native-image-community:21 AS builder"));
+        assertTrue(result.contains("./gradlew nativeCompile"));
+        assertFalse(result.contains("mvnw"));
+        assertTrue(result.contains("FROM gcr.io/distroless/base-debian12:nonroot"));
+        assertTrue(result.contains("CMD [\"/usr/bin/wget\", \"-q\", \"--spider\", \"http://localhost:8080/actuator/health\"]"));
+        assertFalse(result.contains("curl -f"));
+        assertTrue(result.contains("ENTRYPOINT [\"/app/application\"]"));
+    }
+
+    @Test
+    void renderNativeDockerfileTemplateForMaven() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("isMaven", true);
+        context.put("artifactId", "demo");
+
+        String result = engine.render("docker/Dockerfile.native.mustache", context);
+
+        assertTrue(result.contains("./mvnw -Pnative native:compile -DskipTests -B && \\\n    cp target/demo /app/application"));
+        assertFalse(result.contains("-Pnative package"));
+        assertFalse(result.contains("gradlew"));
+    }
+
+    @Test
+    void renderDockerfileWithJvmProfile() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("javaVersion", "21");
+        context.put("port", 8080);
+        context.put("jvmProfile", "throughput");
+        context.put("jvmToolOptions", "-XX:MaxRAMPercentage=80.0 -XX:+UseParallelGC");
+
+        String result = engine.render("docker/Dockerfile.maven.mustache", context);
+
+        assertTrue(result.contains("# JVM tuning (throughput profile)"));
+        assertTrue(result.contains("ENV JAVA_TOOL_OPTIONS=\"-XX:MaxRAMPercentage=80.0 -XX:+UseParallelGC\""));
+    }
+
     @Test
     void renderToFile() throws IOException {
         Path outputPath = tempDir.resolve("output.yml");
@@ -152,4 +475,63 @@ class TemplateEngineTest {
             engine.render("nonexistent.mustache", context);
         });
     }
+
+    @Test
+    void overrideRootsTakePrecedenceInOrder() throws IOException {
+        Path project = tempDir.resolve("project/.jci/templates");
+        Path org = tempDir.resolve("org");
+        Files.createDirectories(project.resolve("workflows"));
+        Files.createDirectories(org.resolve("workflows"));
+        Files.writeString(project.resolve("workflows/build-maven.yml.mustache"), "project {{mainBranch}}");
+        Files.writeString(org.resolve("workflows/build-maven.yml.mustache"), "org {{mainBranch}}");
+        Files.writeString(org.resolve("workflows/test-maven.yml.mustache"), "org test");
+        Files.writeString(org.resolve("workflows/custom.yml.mustache"), "custom");
+
+        TemplateEngine layered = new TemplateEngine(List.of(project, org));
+        Map<String, Object> context = Map.of("mainBranch", "main");
+
+        assertEquals("project main", layered.render("workflows/build-maven.yml.mustache", context));
+        assertEquals("org test", layered.render("workflows/test-maven.yml.mustache", context));
+        assertTrue(layered.templateExists("workflows/custom.yml.mustache"));
+        assertNull(layered.resolve("workflows/sonar-maven.yml.mustache"));
+        assertTrue(layered.render("workflows/sonar-maven.yml.mustache", context).contains("SonarCloud"));
+    }
+
+    @Test
+    void refreshPicksUpAddedAndEditedOverrides() throws IOException {
+        Path root = tempDir.resolve("templates");
+        TemplateEngine layered = new TemplateEngine(List.of(root));
+        Map<String, Object> context = Map.of("mainBranch", "main");
+        String bundled = layered.render("workflows/build-maven.yml.mustache", context);
+
+        Files.createDirectories(root.resolve("workflows"));
+        Path override = root.resolve("workflows/build-maven.yml.mustache");
+        Files.writeString(override, "first");
+        // Indexes are snapshots: nothing changes until refresh()
+        assertEquals(bundled, layered.render("workflows/build-maven.yml.mustache", context));
+
+        layered.refresh();
+        assertEquals(override, layered.resolve("workflows/build-maven.yml.mustache"));
+        assertEquals("first", layered.render("workflows/build-maven.yml.mustache", context));
+
+        // Editing in place leaves the directory mtime alone; the file mtime invalidates the compiled template
+        Files.writeString(override, "second");
+        Files.setLastModifiedTime(override, FileTime.fromMillis(
+            Files.getLastModifiedTime(override).toMillis() + 2000));
+        layered.refresh();
+        assertEquals("second", layered.render("workflows/build-maven.yml.mustache", context));
+
+        Files.delete(override);
+        layered.refresh();
+        assertEquals(bundled, layered.render("workflows/build-maven.yml.mustache", context));
+    }
+
+    @Test
+    void defaultRootsIncludeOrgDirectoryWhenSet() {
+        Path project = tempDir.resolve("project");
+
+        assertEquals(project.resolve(".jci/templates"), TemplateEngine.defaultRoots(project, null).get(0));
+        assertEquals(2, TemplateEngine.defaultRoots(project, " ").size());
+        assertEquals(Path.of("/srv/org-templates"), TemplateEngine.defaultRoots(project, "/srv/org-templates").get(2));
+    }
 }
@@ -0,0 +1,136 @@
+package com.jci.testreport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestResultsTest {
+
+    private static final String SUREFIRE = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <testsuite name="com.example.ParserTest" time="3.5" tests="4" failures="1" errors="0" skipped="1">
+          <properties>
+            <property name="java.version" value="21"/>
+          </properties>
+          <testcase name="parses" classname="com.example.ParserTest" time="2.5"/>
+          <testcase name="rejectsGarbage" classname="com.example.ParserTest" time="0.5">
+            <failure message="expected: &lt;1&gt; but was: &lt;2&gt;&#10;more detail" type="AssertionFailedError">stack</failure>
+            <rerunFailure message="expected: &lt;1&gt; but was: &lt;2&gt;" type="AssertionFailedError">stack</rerunFailure>
+            <system-out>lots of output</system-out>
+          </testcase>
+          <testcase name="retriesNetwork" classname="com.example.ParserTest" time="1,000.25">
+            <flakyFailure message="Connection reset" type="java.io.IOException">stack</flakyFailure>
+          </testcase>
+          <testcase name="later" classname="com.example.ParserTest" time="0">
+            <skipped/>
+          </testcase>
+        </testsuite>
+        """;
+
+    // Gradle's test retry plugin writes every attempt as its own test case
+    private static final String GRADLE = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <testsuite name="com.example.web.ApiTest" tests="3" time="1.0">
+          <testcase name="serves" classname="com.example.web.ApiTest" time="0.4">
+            <failure message="timeout" type="java.util.concurrent.TimeoutException">stack</failure>
+          </testcase>
+          <testcase name="serves" classname="com.example.web.ApiTest" time="0.3"/>
+          <testcase name="crashes" classname="com.example.web.ApiTest" time="0.1">
+            <error message="boom" type="java.lang.IllegalStateException">stack</error>
+          </testcase>
+        </testsuite>
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesSurefireReruns() throws IOException {
+        Path file = write("target/surefire-reports/TEST-com.example.ParserTest.xml", SUREFIRE);
+
+        List<TestCase> tests = JUnitXmlParser.parse(file, ".");
+
+        assertEquals(4, tests.size());
+        TestCase failed = tests.get(1);
+        assertEquals(TestCase.Status.FAILED, failed.status());
+        assertEquals("expected: <1> but was: <2>", failed.message());
+        assertEquals(1, failed.reruns());
+        assertFalse(failed.flaky());
+
+        TestCase flaky = tests.get(2);
+        assertEquals(TestCase.Status.PASSED, flaky.status());
+        assertTrue(flaky.flaky());
+        assertEquals(1000.25, flaky.seconds(), 1e-9);
+        assertEquals(TestCase.Status.SKIPPED, tests.get(3).status());
+    }
+
+    @Test
+    void aggregatesModulesAndFoldsGradleRetries() throws IOException {
+        write("core/target/surefire-reports/TEST-com.example.ParserTest.xml", SUREFIRE);
+        write("web/build/test-results/test/TEST-com.example.web.ApiTest.xml", GRADLE);
+        write("web/build/test-results/test/binary/output.bin", "");
+
+        List<Path> files = TestResults.scan(tempDir);
+        assertEquals(2, files.size());
+        TestResults results = TestResults.read(tempDir, files, 2);
+
+        assertEquals(6, results.tests().size());
+        TestCase serves = results.tests().stream().filter(test -> test.name().equals("serves")).findFirst().orElseThrow();
+        assertEquals("web", serves.module());
+        assertEquals(TestCase.Status.PASSED, serves.status());
+        assertTrue(serves.flaky());
+        assertEquals(1, serves.reruns());
+        assertEquals(0.7, serves.seconds(), 1e-9);
+
+        assertEquals(List.of("rejectsGarbage", "crashes"), results.failures().stream().map(TestCase::name).toList());
+        assertEquals(List.of("retriesNetwork", "serves"), results.flaky().stream().map(TestCase::name).toList());
+        assertEquals("retriesNetwork", results.slowestTests(1).get(0).name());
+        assertEquals(List.of("core", "web"), results.modules().stream().map(TestResults.ModuleTime::module).toList());
+        TestResults.ClassTime api = results.slowestClasses(2).get(1);
+        assertEquals("com.example.web.ApiTest", api.className());
+        assertEquals(0.8, api.seconds(), 1e-9);
+        assertEquals(2, api.tests());
+    }
+
+    @Test
+    void derivesModuleFromReportPath() {
+        assertEquals(".", TestResults.module(tempDir, tempDir.resolve("target/surefire-reports/TEST-A.xml")));
+        assertEquals("services/api", TestResults.module(tempDir,
+            tempDir.resolve("services/api/target/failsafe-reports/TEST-A.xml")));
+        assertEquals("app", TestResults.module(tempDir, tempDir.resolve("app/build/test-results/test/TEST-A.xml")));
+    }
+
+    @Test
+    void rejectsOtherXml() throws IOException {
+        Path file = write("TEST-pom.xml", "<project/>");
+
+        IOException e = assertThrows(IOException.class, () -> JUnitXmlParser.parse(file, "."));
+        assertTrue(e.getMessage().contains("Not a JUnit XML report"));
+    }
+
+    @Test
+    void rendersJson() throws IOException {
+        write("target/surefire-reports/TEST-com.example.web.ApiTest.xml", GRADLE);
+        TestResults results = TestResults.read(tempDir, TestResults.find(tempDir), 1);
+
+        String json = TestReport.render(results, TestReport.Format.JSON, 5);
+
+        assertTrue(json.contains("\"tests\": 2"));
+        assertTrue(json.contains("\"flaky\": 1"));
+        assertTrue(json.contains("{\"module\": \".\", \"class\": \"com.example.web.ApiTest\", \"test\": \"crashes\""));
+        assertTrue(json.contains("\"message\": \"boom\""));
+    }
+
+    private Path write(String relative, String content) throws IOException {
+        Path file = tempDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+}
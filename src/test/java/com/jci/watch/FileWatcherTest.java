@@ -0,0 +1,51 @@
+package com.jci.watch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileWatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reportsBurstOfWritesAsOneBatch() throws IOException, InterruptedException {
+        Path config = tempDir.resolve(".jci.yaml");
+        Files.writeString(config, "version: 1\n");
+
+        try (FileWatcher watcher = new FileWatcher(Duration.ofMillis(200))) {
+            watcher.watchFile(config);
+            Files.writeString(config, "version: 2\n");
+            Files.writeString(config, "version: 3\n");
+            Files.writeString(tempDir.resolve("unrelated.txt"), "ignored");
+
+            assertEquals(Set.of(config.toAbsolutePath()), watcher.poll(TIMEOUT));
+            assertTrue(watcher.poll(Duration.ofMillis(300)).isEmpty());
+        }
+    }
+
+    @Test
+    void watchesDirectoriesCreatedInsideTree() throws IOException, InterruptedException {
+        Path templates = tempDir.resolve("templates");
+        try (FileWatcher watcher = new FileWatcher(Duration.ofMillis(200))) {
+            watcher.watchTree(templates);
+
+            Files.createDirectories(templates.resolve("workflows"));
+            assertFalse(watcher.poll(TIMEOUT).isEmpty());
+
+            Path template = templates.resolve("workflows/build-maven.yml.mustache");
+            Files.writeString(template, "name: Build\n");
+            assertTrue(watcher.poll(TIMEOUT).contains(template.toAbsolutePath()));
+        }
+    }
+}